@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Files whose name is ambiguous, classified by their content once all the files of a project are counted.
+ *
+ * At most {@link #SAMPLE_SIZE} files are kept per match (reservoir sampling), so the files read do not grow with the
+ * size of the project. The samples are classified in parallel, then the weight of each match is split between its
+ * languages in the proportions of the weights found in its sample.
+ */
+class AmbiguousFiles {
+
+    static final int SAMPLE_SIZE = 100;
+
+    private final LanguageClassifier classifier;
+    // files already classified, shared by the analyses of the same files
+    private final Map<Path, LanguageMatcher.Match> classified;
+    private final Map<LanguageMatcher.Match, Reservoir> reservoirs = new LinkedHashMap<>();
+    // fixed seed, analyzing the same project twice gives the same result
+    private final Random random = new Random(0);
+
+    AmbiguousFiles(LanguageClassifier classifier) {
+        this(classifier, null);
+    }
+
+    /**
+     * @param classifier classifier of the files
+     * @param classified thread-safe map where the matches of the files classified are kept, null to not keep them
+     */
+    AmbiguousFiles(LanguageClassifier classifier, Map<Path, LanguageMatcher.Match> classified) {
+        this.classifier = classifier;
+        this.classified = classified;
+    }
+
+    boolean isAmbiguous(LanguageMatcher.Match match) {
+        return classifier.canClassify(match);
+    }
+
+    /**
+     * @param match ambiguous match of the name of the file
+     * @param file file with this name
+     * @param weight weight of the file
+     */
+    void add(LanguageMatcher.Match match, Path file, long weight) {
+        Reservoir reservoir = reservoirs.computeIfAbsent(match, key -> new Reservoir());
+        reservoir.seen++;
+        if (reservoir.samples.size() < SAMPLE_SIZE) {
+            reservoir.samples.add(new Sample(match, file, weight));
+        } else {
+            long index = (long) (random.nextDouble() * reservoir.seen);
+            if (index < SAMPLE_SIZE) {
+                reservoir.samples.set((int) index, new Sample(match, file, weight));
+            }
+        }
+    }
+
+    /**
+     * Replace the weight of the ambiguous matches by the weights of their resolutions
+     *
+     * @param matches all filenames and extensions found + their weight
+     */
+    void resolve(Map<LanguageMatcher.Match, Long> matches) {
+        List<Sample> samples = new ArrayList<>();
+        reservoirs.values().forEach(reservoir -> samples.addAll(reservoir.samples));
+        List<LanguageMatcher.Match> resolutions = samples.parallelStream()
+                .map(this::classify)
+                .collect(Collectors.toList());
+
+        Map<LanguageMatcher.Match, Map<LanguageMatcher.Match, Long>> resolutionsPerMatch = new LinkedHashMap<>();
+        for (int i = 0; i < samples.size(); i++) {
+            resolutionsPerMatch.computeIfAbsent(samples.get(i).match, key -> new LinkedHashMap<>())
+                    .merge(resolutions.get(i), samples.get(i).weight, Long::sum);
+        }
+        resolutionsPerMatch.forEach((match, counts) -> {
+            Long total = matches.get(match);
+            // nothing to split if the sampled files weigh nothing (e.g empty files)
+            if (total != null && counts.values().stream().anyMatch(count -> count > 0)) {
+                matches.remove(match);
+                split(total, counts).forEach((resolution, count) -> matches.merge(resolution, count, Long::sum));
+            }
+        });
+    }
+
+    private LanguageMatcher.Match classify(Sample sample) {
+        if (classified == null) {
+            return classifier.classify(sample.match, sample.file);
+        }
+        LanguageMatcher.Match match = classified.get(sample.file);
+        if (match == null) {
+            // classify outside of the map so reading the file does not block other files
+            match = classifier.classify(sample.match, sample.file);
+            classified.putIfAbsent(sample.file, match);
+        }
+        return match;
+    }
+
+    /**
+     * Split a total in the proportions of the counts, rounding with the largest remainders so the parts sum to the total
+     */
+    private static Map<LanguageMatcher.Match, Long> split(long total, Map<LanguageMatcher.Match, Long> counts) {
+        long sampled = counts.values().stream().mapToLong(Long::longValue).sum();
+        Map<LanguageMatcher.Match, Long> parts = new LinkedHashMap<>();
+        Map<LanguageMatcher.Match, Double> remainders = new LinkedHashMap<>();
+        long assigned = 0;
+        for (Map.Entry<LanguageMatcher.Match, Long> count: counts.entrySet()) {
+            double exact = (double) total * count.getValue() / sampled;
+            long part = (long) Math.floor(exact);
+            parts.put(count.getKey(), part);
+            remainders.put(count.getKey(), exact - part);
+            assigned += part;
+        }
+        List<LanguageMatcher.Match> byRemainder = remainders.entrySet().stream()
+                .sorted(Map.Entry.<LanguageMatcher.Match, Double>comparingByValue(Comparator.reverseOrder()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        for (int i = 0; assigned < total; i++, assigned++) {
+            parts.merge(byRemainder.get(i % byRemainder.size()), 1L, Long::sum);
+        }
+        parts.values().removeIf(part -> part == 0);
+        return parts;
+    }
+
+    private static class Reservoir {
+        private final List<Sample> samples = new ArrayList<>();
+        private long seen = 0;
+    }
+
+    private static class Sample {
+        private final LanguageMatcher.Match match;
+        private final Path file;
+        private final long weight;
+
+        private Sample(LanguageMatcher.Match match, Path file, long weight) {
+            this.match = match;
+            this.file = file;
+            this.weight = weight;
+        }
+    }
+}
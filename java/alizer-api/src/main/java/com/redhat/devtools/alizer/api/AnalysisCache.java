@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.spi.ProviderRegistry;
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of analysis results shared by several runs and JVMs.
+ *
+ * Entries are JSON files named after a key derived from the Merkle fingerprint of the folder analyzed, so an entry
+ * is only found again if nothing changed within the folder. Entries are written to a temporary file and atomically
+ * moved in place, readers never see a partial entry. Reading an entry touches it and the least recently used
+ * entries are evicted once the cache exceeds its maximum size, under a file lock shared by all JVMs.
+ * Any error is logged and handled as a cache miss, the cache never makes an analysis fail.
+ */
+class AnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    private static final int VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = ".lock";
+    private static final long TEMP_FILE_EXPIRATION = TimeUnit.HOURS.toMillis(1);
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    // file locks are held by the whole JVM, threads must not request overlapping locks
+    private static final Object EVICTION_LOCK = new Object();
+
+    private final Path directory;
+    private final long maxSize;
+
+    AnalysisCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param kind kind of result stored
+     * @param root folder analyzed
+     * @param fingerprint fingerprint of the folder
+     * @return the key of the entry, which changes with the languages and providers loaded
+     */
+    String getKey(String kind, Path root, String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String value = VERSION + "/" + kind + "/" + root.toAbsolutePath().normalize().toUri() + "/" + fingerprint;
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            // results also depend on the languages and providers loaded, e.g another alizer version or a plugin
+            digest.update(LanguageFileHandler.get().getIndexDigest());
+            ProviderRegistry registry = ProviderRegistry.get();
+            for (LanguageEnricherProvider enricher: registry.getEnrichers()) {
+                digest.update((enricher.getClass().getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            for (FrameworkDetectorProvider detector: registry.getFrameworkDetectors(FrameworkDetectorProvider.class)) {
+                digest.update((detector.getClass().getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] hash = digest.digest();
+            StringBuilder key = new StringBuilder();
+            for (byte b: hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    List<Language> loadLanguages(String key) {
+        JsonNode node = load(key);
+        return node == null ? null : toLanguages(node);
+    }
+
+    void storeLanguages(String key, List<Language> languages) {
+        store(key, toJson(languages));
+    }
+
+    List<Component> loadComponents(String key, Path root) {
+        JsonNode node = load(key);
+        if (node == null) {
+            return null;
+        }
+        List<Component> components = new ArrayList<>();
+        for (JsonNode componentNode: node) {
+            Path path = root;
+            for (String segment: componentNode.get("path").asText().split("/")) {
+                if (!segment.isEmpty()) {
+                    path = path.resolve(segment);
+                }
+            }
+            components.add(new Component(path, toLanguages(componentNode.get("languages"))));
+        }
+        return components;
+    }
+
+    void storeComponents(String key, Path root, List<Component> components) {
+        ArrayNode node = JSON_MAPPER.createArrayNode();
+        for (Component component: components) {
+            List<String> segments = new ArrayList<>();
+            root.relativize(component.getPath()).forEach(segment -> segments.add(segment.toString()));
+            ObjectNode componentNode = node.addObject();
+            componentNode.put("path", String.join("/", segments));
+            componentNode.set("languages", toJson(component.getLanguages()));
+        }
+        store(key, node);
+    }
+
+    private JsonNode load(String key) {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        try (InputStream stream = Files.newInputStream(entry)) {
+            JsonNode node = JSON_MAPPER.readTree(stream);
+            // the modification time of an entry is the time of its last use
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return node;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Unable to read cache entry " + entry, e);
+            return null;
+        }
+    }
+
+    private void store(String key, JsonNode node) {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            try {
+                try (OutputStream stream = Files.newOutputStream(temp)) {
+                    JSON_MAPPER.writeValue(stream, node);
+                }
+                try {
+                    Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            evict();
+        } catch (IOException e) {
+            logger.warn("Unable to write cache entry " + entry, e);
+        }
+    }
+
+    /**
+     * Delete the least recently used entries until the cache fits its maximum size
+     */
+    private void evict() throws IOException {
+        synchronized (EVICTION_LOCK) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    deleteLeastRecentlyUsed();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Called with the lock of the cache directory held, so a single process evicts at a time
+     */
+    private void deleteLeastRecentlyUsed() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long size = 0;
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path: stream) {
+                String name = path.getFileName().toString();
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (name.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(new Entry(path, attrs.lastModifiedTime().toMillis(), attrs.size()));
+                    size += attrs.size();
+                } else if (name.endsWith(TEMP_SUFFIX) && now - attrs.lastModifiedTime().toMillis() > TEMP_FILE_EXPIRATION) {
+                    // left by a JVM which died while writing
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        for (Entry entry: entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            Files.deleteIfExists(entry.path);
+            size -= entry.size;
+        }
+    }
+
+    private ArrayNode toJson(List<Language> languages) {
+        ArrayNode node = JSON_MAPPER.createArrayNode();
+        for (Language language: languages) {
+            ObjectNode languageNode = node.addObject();
+            languageNode.put("name", language.getName());
+            putStrings(languageNode, "aliases", language.getAliases());
+            languageNode.put("usageInPercentage", language.getUsageInPercentage());
+            putStrings(languageNode, "frameworks", language.getFrameworks());
+            putStrings(languageNode, "tools", language.getTools());
+            languageNode.put("canBeComponent", language.canBeComponent());
+        }
+        return node;
+    }
+
+    private void putStrings(ObjectNode node, String name, List<String> values) {
+        ArrayNode array = node.putArray(name);
+        if (values != null) {
+            values.forEach(array::add);
+        }
+    }
+
+    private List<Language> toLanguages(JsonNode node) {
+        List<Language> languages = new ArrayList<>();
+        for (JsonNode languageNode: node) {
+            languages.add(new Language(languageNode.get("name").asText(),
+                    toStrings(languageNode.get("aliases")),
+                    languageNode.get("usageInPercentage").asDouble(),
+                    toStrings(languageNode.get("frameworks")),
+                    toStrings(languageNode.get("tools")),
+                    languageNode.get("canBeComponent").asBoolean()));
+        }
+        return languages;
+    }
+
+    private List<String> toStrings(JsonNode node) {
+        List<String> values = new ArrayList<>();
+        if (node != null) {
+            node.forEach(value -> values.add(value.asText()));
+        }
+        return values;
+    }
+
+    private static class Entry {
+        private final Path path;
+        private final long lastUsed;
+        private final long size;
+
+        private Entry(Path path, long lastUsed, long size) {
+            this.path = path;
+            this.lastUsed = lastUsed;
+            this.size = size;
+        }
+    }
+}
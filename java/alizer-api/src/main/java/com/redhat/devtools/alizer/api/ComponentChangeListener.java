@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+public interface ComponentChangeListener {
+    /**
+     * Called when a component of a watched project has changed
+     *
+     * @param previous component before the change, null if the component has been added
+     * @param current component after the change, null if the component has been removed
+     */
+    void componentChanged(Component previous, Component current);
+}
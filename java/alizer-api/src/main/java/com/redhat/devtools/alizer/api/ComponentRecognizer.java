@@ -11,9 +11,12 @@
 package com.redhat.devtools.alizer.api;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 public interface ComponentRecognizer {
     List<Component> analyzeRoot(String path) throws IOException;
+    List<Component> analyzeRoot(Path root) throws IOException;
     List<Component> analyze(String path) throws IOException;
+    List<Component> analyze(Path root) throws IOException;
 }
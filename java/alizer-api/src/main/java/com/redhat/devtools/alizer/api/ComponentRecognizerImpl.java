@@ -11,10 +11,10 @@
 package com.redhat.devtools.alizer.api;
 
 import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.utils.ConfigModels;
 import com.redhat.devtools.alizer.api.utils.Utils;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -23,15 +23,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class ComponentRecognizerImpl extends Recognizer implements ComponentRecognizer {
 
+    private final LanguageRecognizerImpl languageRecognizer;
+
     public ComponentRecognizerImpl(RecognizerFactory builder) {
         super(builder);
+        this.languageRecognizer = new LanguageRecognizerImpl(builder);
     }
 
     /**
@@ -41,8 +43,36 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
      * @throws IOException if an error occurred
      */
     public List<Component> analyzeRoot(String path) throws IOException {
-        List<File> files = getFilesInDirectory(Paths.get(path));
-        return detectComponents(files);
+        return analyzeRoot(Paths.get(path));
+    }
+
+    /**
+     * Analyze only files existing in root, which can belong to any file system (e.g a zip archive)
+     * @param root path (root) where to make the analysis
+     * @return list of components found
+     * @throws IOException if an error occurred
+     */
+    public List<Component> analyzeRoot(Path root) throws IOException {
+        // the root is listed alone, the tree is only walked to detect the languages of a component found in it
+        if (getFilesInDirectory(root).stream().noneMatch(this::isConfigurationFile)) {
+            return new ArrayList<>();
+        }
+        return analyzeRoot(getSnapshot(root), root);
+    }
+
+    List<Component> analyzeRoot(ProjectSnapshot snapshot, Path root) throws IOException {
+        AnalysisCache cache = builder.getCache();
+        String fingerprint = cache == null ? null : snapshot.getFingerprint(root);
+        if (fingerprint == null) {
+            return detectComponents(snapshot, snapshot.getFilesInDirectory(root));
+        }
+        String key = cache.getKey("rootComponents/" + builder.getWeight(), root, fingerprint);
+        List<Component> components = cache.loadComponents(key, root);
+        if (components == null) {
+            components = detectComponents(snapshot, snapshot.getFilesInDirectory(root));
+            cache.storeComponents(key, root, components);
+        }
+        return components;
     }
 
     /**
@@ -52,18 +82,54 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
      * @throws IOException if an error occurred
      */
     public List<Component> analyze(String path) throws IOException {
-        List<File> files = getFiles(Paths.get(path));
-        List<Component> components = detectComponents(files);
+        return analyze(Paths.get(path));
+    }
+
+    /**
+     * Analyze all files within a project of any file system (e.g a zip archive) to detect all components.
+     * @param root path (root) where to start the search
+     * @return list of components found ordered. First component is the one in root.
+     * @throws IOException if an error occurred
+     */
+    public List<Component> analyze(Path root) throws IOException {
+        return analyze(getSnapshot(root), root);
+    }
+
+    /**
+     * Analyze a sub-tree of an already walked project. The tree is not walked again whatever the number of components found.
+     * @param snapshot snapshot of the project
+     * @param root folder of the snapshot where to start the search
+     * @return list of components found ordered. First component is the one in root.
+     * @throws IOException if an error occurred
+     */
+    List<Component> analyze(ProjectSnapshot snapshot, Path root) throws IOException {
+        AnalysisCache cache = builder.getCache();
+        String fingerprint = cache == null ? null : snapshot.getFingerprint(root);
+        if (fingerprint == null) {
+            return analyzeFiles(snapshot, root);
+        }
+        String key = cache.getKey("components/" + builder.getWeight(), root, fingerprint);
+        List<Component> components = cache.loadComponents(key, root);
+        if (components == null) {
+            components = analyzeFiles(snapshot, root);
+            cache.storeComponents(key, root, components);
+        }
+        return components;
+    }
+
+    private List<Component> analyzeFiles(ProjectSnapshot snapshot, Path root) throws IOException {
+        List<File> files = snapshot.getFiles(root);
+        List<Component> components = detectComponents(snapshot, files);
 
         // it may happen that a language has no a specific configuration file (e.g opposite to JAVA -> pom.xml and Nodejs -> package.json)
         // we then rely on the language recognizer
-        List<Path> directoriesPathsWithoutConfigFile = getDirectoriesPathsWithoutConfigFile(Paths.get(path), components);
-        components.addAll(getComponentsWithoutConfigFile(directoriesPathsWithoutConfigFile));
+        List<Path> directoriesPathsWithoutConfigFile = getDirectoriesPathsWithoutConfigFile(snapshot, root, components);
+        components.addAll(getComponentsWithoutConfigFile(snapshot, directoriesPathsWithoutConfigFile));
 
         components.sort((o1, o2) -> {
-            if (o1.getPath().toString().equals(path)) {
+            if (o1.getPath().equals(root)) {
                 return -1;
-            } else if (o2.getPath().toString().equals(path)) {
+            } else if (o2.getPath().equals(root)) {
                 return 1;
             }
             return 0;
@@ -71,19 +137,22 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
         return components;
     }
 
-    private List<Path> getDirectoriesPathsWithoutConfigFile(Path root, List<Component> components) throws IOException {
+    private List<Path> getDirectoriesPathsWithoutConfigFile(ProjectSnapshot snapshot, Path root, List<Component> components) {
         if (components.isEmpty()) {
             return Collections.singletonList(root);
         }
 
-        AtomicReference<List<Path>> directoriesWithoutConfigFile = new AtomicReference<>(new ArrayList<>());
-        Files.walk(root, Integer.MAX_VALUE).filter(Files::isDirectory).skip(1)
+        List<Path> directoriesWithoutConfigFile = new ArrayList<>();
+        snapshot.getDirectories().stream()
+                .filter(directory -> !directory.equals(root) && isFirstPathParentOfSecond(root, directory))
                 .forEach(directory -> {
                     if (!hasDirectoryAnyComponent(directory, components)){
-                        directoriesWithoutConfigFile.set(getParentFolders(directory, directoriesWithoutConfigFile.get()));
+                        List<Path> parentFolders = getParentFolders(directory, directoriesWithoutConfigFile);
+                        directoriesWithoutConfigFile.clear();
+                        directoriesWithoutConfigFile.addAll(parentFolders);
                     }
                 });
-        return directoriesWithoutConfigFile.get();
+        return directoriesWithoutConfigFile;
     }
 
     /**
@@ -100,10 +169,10 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
                         isFirstPathParentOfSecond(directoryWithComponent, directory));
     }
 
-    private List<Component> getComponentsWithoutConfigFile(List<Path> directories) throws IOException {
+    private List<Component> getComponentsWithoutConfigFile(ProjectSnapshot snapshot, List<Path> directories) {
         List<Component> components = new ArrayList<>();
         for (Path directory: directories) {
-            Component component = detectComponent(directory, Collections.emptyList());
+            Component component = detectComponent(snapshot, directory, Collections.emptyList());
             // only takes component with languages that have no config file
             // E.g if the directory consists of javascript files but it doesn't contain a package.json, something is wrong
             // and we do not consider it as an actual component
@@ -132,25 +201,49 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
         return languageFileItem.getConfigurationFiles().isEmpty();
     }
 
-    private List<Component> detectComponents(List<File> files) throws IOException {
+    private List<Component> detectComponents(ProjectSnapshot snapshot, List<File> files) {
         Map<String, List<String>> configurationPerLanguages = LanguageFileHandler.get().getConfigurationPerLanguageMapping();
         List<Component> components = new ArrayList<>();
         for (File file: files) {
             Optional<String> configurationMatched = getConfigurationByFile(configurationPerLanguages.keySet(), file);
             if (configurationMatched.isPresent()) {
-                List<String> languagesPerConfiguration = getLanguagesWithWhichConfigurationIsValid(configurationPerLanguages.get(configurationMatched.get()), file);
-                if (!languagesPerConfiguration.isEmpty()) {
-                    Component component = detectComponent(file.getParentFile().toPath(), configurationPerLanguages.get(configurationMatched.get()));
-                    if (component != null
-                        && components.stream().noneMatch(comp -> comp.getPath().equals(component.getPath()))) {
-                        components.add(component);
-                    }
+                // the configuration files of the component are parsed once, then dropped when the component is detected
+                List<String> configurationLanguages = configurationPerLanguages.get(configurationMatched.get());
+                Component component = ConfigModels.run(() ->
+                        getLanguagesWithWhichConfigurationIsValid(configurationLanguages, file).isEmpty() ? null
+                                : detectComponent(snapshot, file.toPath().getParent(), configurationLanguages));
+                if (component != null
+                    && components.stream().noneMatch(comp -> comp.getPath().equals(component.getPath()))) {
+                    components.add(component);
                 }
             }
         }
         return components;
     }
 
+    /**
+     * Return the languages of the first valid configuration file stored directly in directory
+     *
+     * @param snapshot snapshot of the project containing the directory
+     * @param directory folder of a component
+     * @return languages which use the configuration file found, empty if there is none
+     */
+    List<String> getConfigurationLanguages(ProjectSnapshot snapshot, Path directory) {
+        Map<String, List<String>> configurationPerLanguages = LanguageFileHandler.get().getConfigurationPerLanguageMapping();
+        for (File file: snapshot.getFilesInDirectory(directory)) {
+            Optional<String> configurationMatched = getConfigurationByFile(configurationPerLanguages.keySet(), file);
+            if (configurationMatched.isPresent()
+                    && !getLanguagesWithWhichConfigurationIsValid(configurationPerLanguages.get(configurationMatched.get()), file).isEmpty()) {
+                return configurationPerLanguages.get(configurationMatched.get());
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    boolean isConfigurationFile(File file) {
+        return getConfigurationByFile(LanguageFileHandler.get().getConfigurationPerLanguageMapping().keySet(), file).isPresent();
+    }
+
     private Optional<String> getConfigurationByFile(Set<String> regexes, File file) {
         return regexes.stream().filter(regex -> Pattern.matches(regex, file.getName())).findFirst();
     }
@@ -162,7 +255,7 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
     private boolean isConfigurationValid(String language, File file) {
         LanguageEnricherProvider enricher = Utils.getEnricherByLanguage(language);
         if (enricher != null) {
-            return enricher.create().isConfigurationValidForComponent(language, file);
+            return enricher.isConfigurationValidForComponent(language, file);
         }
         return false;
     }
@@ -170,16 +263,13 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
     /**
      * Create a new component from root folder
      *
+     * @param snapshot snapshot of the project containing the root folder
      * @param root folder where the component is stored
      * @param configurationLanguages languages which uses this config file (e.g pom.xml -> java)
      * @return new component or null if folder doesn't contain anything valid
-     * @throws IOException if errored while detecting languages/framework used
      */
-    private Component detectComponent(Path root, List<String> configurationLanguages) throws IOException {
-        RecognizerFactory recognizerFactory = new RecognizerFactory();
-        LanguageRecognizer languageRecognizer = recognizerFactory.createLanguageRecognizer();
-
-        List<Language> languages = getLanguagesWeightedByConfigFile(languageRecognizer.analyze(root.toString()), configurationLanguages);
+    private Component detectComponent(ProjectSnapshot snapshot, Path root, List<String> configurationLanguages) {
+        List<Language> languages = getLanguagesWeightedByConfigFile(languageRecognizer.analyze(snapshot, root), configurationLanguages);
         if (isLanguageSupported(languages)) {
             return new Component(root, languages);
         }
@@ -204,7 +294,7 @@ public class ComponentRecognizerImpl extends Recognizer implements ComponentReco
      * @param configurationLanguages languages that uses that configuration file
      * @return an ordered language list based on the configuration file, original language list if configLanguage is empty
      */
-    private List<Language> getLanguagesWeightedByConfigFile(List<Language> languages, List<String> configurationLanguages) {
+    List<Language> getLanguagesWeightedByConfigFile(List<Language> languages, List<String> configurationLanguages) {
         if (configurationLanguages.isEmpty()) {
             return languages;
         }
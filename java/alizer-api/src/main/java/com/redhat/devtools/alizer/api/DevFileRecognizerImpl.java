@@ -1,16 +1,15 @@
 package com.redhat.devtools.alizer.api;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
 
 public class DevFileRecognizerImpl extends Recognizer implements DevFileRecognizer {
 
-    private RecognizerFactory builder;
-
     DevFileRecognizerImpl(RecognizerFactory builder) {
         super(builder);
-        this.builder = builder;
     }
 
     /**
@@ -22,19 +21,33 @@ public class DevFileRecognizerImpl extends Recognizer implements DevFileRecogniz
      * @throws IOException if an error occurred
      */
     public <T extends DevfileType> T selectDevFileFromTypes(String srcPath, List<T> devfileTypes) throws IOException {
-        ComponentRecognizer componentRecognizer = builder.createComponentRecognizer();
-        List<Component> componentsInRoot = componentRecognizer.analyzeRoot(srcPath);
+        return selectDevFileFromTypes(Paths.get(srcPath), devfileTypes);
+    }
+
+    /**
+     * Same as {@link #selectDevFileFromTypes(String, List)} for a project of any file system (e.g a zip archive)
+     * @param root path (root) where to start the search
+     * @param devfileTypes list of all devfileTypes to pick a devfile from
+     * @return the devfile that matches the project the most
+     * @throws IOException if an error occurred
+     */
+    public <T extends DevfileType> T selectDevFileFromTypes(Path root, List<T> devfileTypes) throws IOException {
+        // walk the project only once, all the recognizers below work on the same snapshot
+        ProjectSnapshot snapshot = getSnapshot(root);
+
+        ComponentRecognizerImpl componentRecognizer = new ComponentRecognizerImpl(builder);
+        List<Component> componentsInRoot = componentRecognizer.analyzeRoot(snapshot, root);
         if (!componentsInRoot.isEmpty()) {
             return selectDevFileFromTypes(componentsInRoot.get(0).getLanguages(), devfileTypes);
         }
 
-        List<Component> componentsWithinFullProject = componentRecognizer.analyze(srcPath);
+        List<Component> componentsWithinFullProject = componentRecognizer.analyze(snapshot, root);
         if (!componentsWithinFullProject.isEmpty()) {
             return selectDevFileFromTypes(componentsWithinFullProject.get(0).getLanguages(), devfileTypes);
         }
 
-        LanguageRecognizer languageRecognizer = builder.createLanguageRecognizer();
-        List<Language> languages = languageRecognizer.analyze(srcPath);
+        LanguageRecognizerImpl languageRecognizer = new LanguageRecognizerImpl(builder);
+        List<Language> languages = languageRecognizer.analyze(snapshot, root);
         return selectDevFileFromTypes(languages, devfileTypes);
     }
 
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Skip folders by name (case insensitive), e.g node_modules or .git
+ */
+public class FolderNameTraversalFilter implements TraversalFilter {
+
+    private final Set<String> folderNames = new HashSet<>();
+
+    public FolderNameTraversalFilter(Collection<String> folderNames) {
+        folderNames.forEach(name -> this.folderNames.add(name.toLowerCase()));
+    }
+
+    /**
+     * Create a filter skipping all folders excluded by any language in languages-customization.yml plus the ones passed
+     *
+     * @param additionalFolderNames other folder names to skip
+     * @return the filter
+     */
+    public static FolderNameTraversalFilter withExcludedFolders(Collection<String> additionalFolderNames) {
+        Set<String> folderNames = new HashSet<>(additionalFolderNames);
+        LanguageFileHandler.get().getLanguages().forEach(language -> folderNames.addAll(language.getExcludeFolders()));
+        return new FolderNameTraversalFilter(folderNames);
+    }
+
+    @Override
+    public boolean skipDirectory(Path directory) {
+        Path name = directory.getFileName();
+        return name != null && folderNames.contains(name.toString().toLowerCase());
+    }
+}
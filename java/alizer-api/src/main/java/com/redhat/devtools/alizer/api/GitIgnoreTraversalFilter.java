@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Skip files and folders ignored by git. Rules are read from the .gitignore file of every walked folder
+ * (nested files override their parents, negation supported) and from .git/info/exclude of the root.
+ * The .git folder itself is always skipped.
+ */
+public class GitIgnoreTraversalFilter implements TraversalFilter {
+
+    private static final String GITIGNORE = ".gitignore";
+    private static final String GIT_FOLDER = ".git";
+
+    private final GitIgnoreTraversalFilter parent;
+    private final List<Rules> rules;
+    // true until the root of the walk is entered
+    private final boolean root;
+
+    public GitIgnoreTraversalFilter() {
+        this(null, Collections.emptyList(), true);
+    }
+
+    private GitIgnoreTraversalFilter(GitIgnoreTraversalFilter parent, List<Rules> rules, boolean root) {
+        this.parent = parent;
+        this.rules = rules;
+        this.root = root;
+    }
+
+    @Override
+    public boolean skipDirectory(Path directory) {
+        Path name = directory.getFileName();
+        return (name != null && GIT_FOLDER.equals(name.toString())) || isIgnored(directory, true);
+    }
+
+    @Override
+    public boolean skipFile(Path file) {
+        return isIgnored(file, false);
+    }
+
+    @Override
+    public TraversalFilter forDirectory(Path directory) throws IOException {
+        List<Rules> directoryRules = new ArrayList<>();
+        if (root) {
+            // the exclude file has a lower priority than any .gitignore, the one of a nested repository is not read
+            Path exclude = directory.resolve(GIT_FOLDER).resolve("info").resolve("exclude");
+            if (Files.isRegularFile(exclude)) {
+                directoryRules.add(Rules.parse(directory, Files.readAllLines(exclude, StandardCharsets.UTF_8)));
+            }
+        }
+        Path gitIgnore = directory.resolve(GITIGNORE);
+        if (Files.isRegularFile(gitIgnore)) {
+            directoryRules.add(Rules.parse(directory, Files.readAllLines(gitIgnore, StandardCharsets.UTF_8)));
+        }
+        if (directoryRules.isEmpty()) {
+            return root ? new GitIgnoreTraversalFilter(null, Collections.emptyList(), false) : this;
+        }
+        return new GitIgnoreTraversalFilter(this, directoryRules, false);
+    }
+
+    /**
+     * Rules of the deepest .gitignore win, within a file the last matching rule wins
+     */
+    private boolean isIgnored(Path path, boolean isDirectory) {
+        for (GitIgnoreTraversalFilter filter = this; filter != null; filter = filter.parent) {
+            for (int i = filter.rules.size() - 1; i >= 0; i--) {
+                Boolean ignored = filter.rules.get(i).match(path, isDirectory);
+                if (ignored != null) {
+                    return ignored;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rules of a single ignore file, relative to the folder containing it
+     */
+    static class Rules {
+        private final Path base;
+        private final List<Rule> rules;
+
+        private Rules(Path base, List<Rule> rules) {
+            this.base = base;
+            this.rules = rules;
+        }
+
+        static Rules parse(Path base, List<String> lines) {
+            List<Rule> rules = new ArrayList<>();
+            for (String line: lines) {
+                Rule rule = Rule.parse(line);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+            return new Rules(base, rules);
+        }
+
+        /**
+         * @return true if ignored, false if explicitly re-included, null if no rule matches
+         */
+        Boolean match(Path path, boolean isDirectory) {
+            if (rules.isEmpty() || !path.startsWith(base)) {
+                return null;
+            }
+            String relativePath = null;
+            String name = path.getFileName().toString();
+            for (int i = rules.size() - 1; i >= 0; i--) {
+                Rule rule = rules.get(i);
+                if (rule.directoryOnly && !isDirectory) {
+                    continue;
+                }
+                boolean matches;
+                if (rule.anchored) {
+                    if (relativePath == null) {
+                        relativePath = toUnixPath(base.relativize(path));
+                    }
+                    matches = rule.matches(relativePath);
+                } else {
+                    matches = rule.matches(name);
+                }
+                if (matches) {
+                    return !rule.negated;
+                }
+            }
+            return null;
+        }
+
+        private static String toUnixPath(Path path) {
+            String separator = path.getFileSystem().getSeparator();
+            String value = path.toString();
+            return "/".equals(separator) ? value : value.replace(separator, "/");
+        }
+    }
+
+    /**
+     * A single pattern compiled once. Patterns without wildcards are compared as plain strings
+     */
+    static class Rule {
+        private final boolean negated;
+        private final boolean directoryOnly;
+        private final boolean anchored;
+        private final String literal;
+        private final Pattern pattern;
+
+        private Rule(boolean negated, boolean directoryOnly, boolean anchored, String literal, Pattern pattern) {
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+            this.literal = literal;
+            this.pattern = pattern;
+        }
+
+        static Rule parse(String line) {
+            String value = trimTrailingSpaces(line);
+            if (value.isEmpty() || value.startsWith("#")) {
+                return null;
+            }
+            boolean negated = false;
+            if (value.startsWith("!")) {
+                negated = true;
+                value = value.substring(1);
+            } else if (value.startsWith("\\#") || value.startsWith("\\!")) {
+                value = value.substring(1);
+            }
+            boolean directoryOnly = value.endsWith("/");
+            if (directoryOnly) {
+                value = value.substring(0, value.length() - 1);
+            }
+            // a slash at the beginning or in the middle makes the pattern relative to the .gitignore folder
+            boolean anchored = value.contains("/");
+            if (value.startsWith("/")) {
+                value = value.substring(1);
+            }
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (!hasWildcard(value)) {
+                return new Rule(negated, directoryOnly, anchored, unescape(value), null);
+            }
+            return new Rule(negated, directoryOnly, anchored, null, Pattern.compile(toRegex(value)));
+        }
+
+        boolean matches(String value) {
+            return literal != null ? literal.equals(value) : pattern.matcher(value).matches();
+        }
+
+        private static String trimTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+
+        private static boolean hasWildcard(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '*' || c == '?' || c == '[') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the value without the backslashes escaping a character, an escaped backslash is kept
+         */
+        private static String unescape(String value) {
+            if (value.indexOf('\\') < 0) {
+                return value;
+            }
+            StringBuilder unescaped = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    c = value.charAt(++i);
+                }
+                unescaped.append(c);
+            }
+            return unescaped.toString();
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (c == '*') {
+                    boolean doubleStar = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                    if (doubleStar) {
+                        boolean leadingSlash = i == 0 || glob.charAt(i - 1) == '/';
+                        boolean trailingSlash = i + 2 < glob.length() && glob.charAt(i + 2) == '/';
+                        if (leadingSlash && trailingSlash) {
+                            // "**/" matches zero or more folders
+                            regex.append("(?:.*/)?");
+                            i += 3;
+                        } else {
+                            regex.append(".*");
+                            i += 2;
+                        }
+                    } else {
+                        regex.append("[^/]*");
+                        i++;
+                    }
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[') {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) {
+                        regex.append("\\[");
+                        i++;
+                    } else {
+                        String range = glob.substring(i + 1, end);
+                        if (range.startsWith("!")) {
+                            range = "^" + range.substring(1);
+                        }
+                        regex.append('[').append(range.replace("\\", "\\\\")).append(']');
+                        i = end + 1;
+                    }
+                } else if (c == '\\' && i + 1 < glob.length()) {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i + 1))));
+                    i += 2;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
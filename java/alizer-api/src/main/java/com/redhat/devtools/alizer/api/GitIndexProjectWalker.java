@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * List the files tracked by git by reading the index (.git/index) instead of walking the working tree.
+ * The whole list is obtained with one sequential read and no directory listing at all, and untracked files
+ * (e.g build output) are left out for free. Index versions 2, 3 and 4 are supported.
+ * If the project is not a git checkout, the index cannot be read or is split (core.splitIndex), the fallback walker
+ * is used instead.
+ *
+ * Every folder holding tracked files is listed once so files deleted but not staged yet are left out, entries
+ * outside the sparse checkout (skip-worktree) are ignored too. Submodules are not part of the index, their folders
+ * are walked.
+ */
+public class GitIndexProjectWalker implements ProjectWalker {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitIndexProjectWalker.class);
+
+    private static final int SIGNATURE = 0x44495243; // "DIRC"
+    private static final int MODE_TYPE_MASK = 0170000;
+    private static final int MODE_REGULAR_FILE = 0100000;
+    private static final int MODE_SYMLINK = 0120000;
+    private static final int MODE_GITLINK = 0160000;
+    private static final int EXTENSION_LINK = 0x6C696E6B; // "link", split index
+    private static final int CHECKSUM_LENGTH = 20;
+    private static final int FLAG_EXTENDED = 0x4000;
+    private static final int FLAG_STAGE_MASK = 0x3000;
+    private static final int FLAG_NAME_LENGTH_MASK = 0x0FFF;
+    private static final int EXTENDED_FLAG_SKIP_WORKTREE = 0x4000;
+    // ctime, mtime, dev, ino, mode, uid, gid, size, sha-1, flags
+    private static final int ENTRY_FIXED_LENGTH = 62;
+    private static final int MTIME_OFFSET = 8;
+    private static final int MODE_OFFSET = 24;
+    private static final int SIZE_OFFSET = 36;
+    private static final int FLAGS_OFFSET = 60;
+
+    private final TraversalFilter filter;
+    private final ProjectWalker fallback;
+    private final boolean offHeap;
+
+    /**
+     * @param filter filter deciding which folders and files must be left out
+     * @param fallback walker used when there is no git index
+     * @param offHeap true to store the file names of the snapshot off-heap
+     */
+    public GitIndexProjectWalker(TraversalFilter filter, ProjectWalker fallback, boolean offHeap) {
+        this.filter = filter;
+        this.fallback = fallback;
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public ProjectSnapshot walk(Path root) throws IOException {
+        Path absoluteRoot = root.toAbsolutePath().normalize();
+        Path workTree = findWorkTree(absoluteRoot);
+        Path index = workTree == null ? null : getIndex(workTree);
+        if (index == null || !Files.isRegularFile(index)) {
+            return fallback.walk(root);
+        }
+
+        List<IndexEntry> paths;
+        try {
+            paths = readIndex(index);
+        } catch (IOException e) {
+            logger.warn("Unable to read git index " + index + ", walking the file system instead", e);
+            return fallback.walk(root);
+        }
+
+        // only keep the entries below the folder analyzed
+        String prefix = toUnixPath(workTree.relativize(absoluteRoot));
+        if (!prefix.isEmpty()) {
+            prefix += "/";
+        }
+        ProjectSnapshot.Builder builder = new ProjectSnapshot.Builder(root, offHeap);
+        addToSnapshot(root, paths, prefix, builder);
+        return builder.build();
+    }
+
+    /**
+     * Replay the sorted entries of the index as a depth-first walk. As entries are sorted by path, the content
+     * of every folder is contiguous.
+     */
+    private void addToSnapshot(Path root, List<IndexEntry> paths, String prefix, ProjectSnapshot.Builder builder) {
+        List<String> currentFolders = new ArrayList<>();
+        List<Path> currentDirectories = new ArrayList<>();
+        // names found on disk in every current folder
+        List<Set<String>> currentListings = new ArrayList<>();
+        String skippedFolder = null;
+        builder.enterDirectory(root);
+        currentDirectories.add(root);
+        currentListings.add(list(root));
+        for (IndexEntry entry: paths) {
+            if (!entry.path.startsWith(prefix)) {
+                continue;
+            }
+            String relativePath = entry.path.substring(prefix.length());
+            if (skippedFolder != null && relativePath.startsWith(skippedFolder)) {
+                continue;
+            }
+            skippedFolder = null;
+
+            String[] segments = relativePath.split("/");
+            int common = 0;
+            while (common < currentFolders.size() && common < segments.length - 1
+                    && currentFolders.get(common).equals(segments[common])) {
+                common++;
+            }
+            while (currentFolders.size() > common) {
+                currentFolders.remove(currentFolders.size() - 1);
+                currentListings.remove(currentListings.size() - 1);
+                builder.exitDirectory(currentDirectories.remove(currentDirectories.size() - 1));
+            }
+
+            boolean skipped = false;
+            for (int i = common; i < segments.length - 1; i++) {
+                Path directory = currentDirectories.get(currentDirectories.size() - 1).resolve(segments[i]);
+                // folders deleted from the work tree are skipped as pruned ones
+                if (!currentListings.get(currentListings.size() - 1).contains(segments[i]) || filter.skipDirectory(directory)) {
+                    skippedFolder = String.join("/", Arrays.copyOfRange(segments, 0, i + 1)) + "/";
+                    skipped = true;
+                    break;
+                }
+                currentFolders.add(segments[i]);
+                currentDirectories.add(directory);
+                currentListings.add(list(directory));
+                builder.enterDirectory(directory);
+            }
+            if (skipped) {
+                continue;
+            }
+
+            String name = segments[segments.length - 1];
+            Path file = currentDirectories.get(currentDirectories.size() - 1).resolve(name);
+            if (!currentListings.get(currentListings.size() - 1).contains(name)) {
+                continue;
+            }
+            if (entry.submodule) {
+                if (!filter.skipDirectory(file)) {
+                    walkSubmodule(file, builder);
+                }
+            } else if (entry.symlink) {
+                // links to files are kept as the walkers do, links to folders are not walked
+                BasicFileAttributes attrs = readTargetAttributes(file);
+                if (attrs != null && attrs.isRegularFile() && !filter.skipFile(file)) {
+                    builder.addFile(file, attrs);
+                }
+            } else if (!filter.skipFile(file)) {
+                builder.addFile(file, entry.size, entry.lastModifiedTime);
+            }
+        }
+        for (int i = currentDirectories.size() - 1; i >= 0; i--) {
+            builder.exitDirectory(currentDirectories.get(i));
+        }
+    }
+
+    /**
+     * @return the attributes of the target of a link, null if the link is broken
+     */
+    private static BasicFileAttributes readTargetAttributes(Path link) {
+        try {
+            return Files.readAttributes(link, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the names of the entries of a folder, empty if it cannot be listed
+     */
+    private static Set<String> list(Path directory) {
+        Set<String> names = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path: stream) {
+                names.add(path.getFileName().toString());
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            logger.debug("Unable to list " + directory, e);
+        }
+        return names;
+    }
+
+    /**
+     * Add the content of a submodule, its files are tracked by its own repository
+     */
+    private void walkSubmodule(Path submodule, ProjectSnapshot.Builder builder) {
+        Deque<Path> entered = new ArrayDeque<>();
+        try {
+            Files.walkFileTree(submodule, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(submodule) && filter.skipDirectory(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    entered.push(dir);
+                    builder.enterDirectory(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    BasicFileAttributes fileAttrs = ProjectSnapshot.followFileLink(file, attrs);
+                    if (fileAttrs.isRegularFile() && !filter.skipFile(file)) {
+                        builder.addFile(file, fileAttrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    builder.exitDirectory(entered.pop());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Unable to walk submodule " + submodule, e);
+        }
+        // the folders left open by a failed walk are closed
+        while (!entered.isEmpty()) {
+            builder.exitDirectory(entered.pop());
+        }
+    }
+
+    /**
+     * Read all regular files and submodules tracked in the index, in index order
+     *
+     * @param index path of the index file
+     * @return list of entries, paths are relative to the work tree and '/' separated
+     * @throws IOException if the index cannot be read, is not valid or is split
+     */
+    static List<IndexEntry> readIndex(Path index) throws IOException {
+        // read on the heap, a mapped index would stay open until garbage collected and git could not replace it on Windows
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+        if (buffer.remaining() < 12 || buffer.getInt() != SIGNATURE) {
+            throw new IOException("Invalid git index signature");
+        }
+        int version = buffer.getInt();
+        if (version < 2 || version > 4) {
+            throw new IOException("Unsupported git index version " + version);
+        }
+        int entries = buffer.getInt();
+
+        List<IndexEntry> paths = new ArrayList<>(entries);
+        byte[] previousPath = new byte[0];
+        String previousAdded = null;
+        for (int i = 0; i < entries; i++) {
+            int entryStart = buffer.position();
+            long lastModifiedTime = (buffer.getInt(entryStart + MTIME_OFFSET) & 0xFFFFFFFFL) * 1000
+                    + (buffer.getInt(entryStart + MTIME_OFFSET + 4) & 0xFFFFFFFFL) / 1000000;
+            int mode = buffer.getInt(entryStart + MODE_OFFSET);
+            long size = buffer.getInt(entryStart + SIZE_OFFSET) & 0xFFFFFFFFL;
+            int flags = buffer.getShort(entryStart + FLAGS_OFFSET) & 0xFFFF;
+            buffer.position(entryStart + ENTRY_FIXED_LENGTH);
+            int extendedFlags = 0;
+            if (version >= 3 && (flags & FLAG_EXTENDED) != 0) {
+                extendedFlags = buffer.getShort() & 0xFFFF;
+            }
+
+            byte[] path;
+            if (version == 4) {
+                int strip = (int) readVarint(buffer);
+                byte[] suffix = readUntilNul(buffer);
+                int kept = previousPath.length - strip;
+                if (kept < 0) {
+                    throw new IOException("Invalid git index path compression");
+                }
+                path = new byte[kept + suffix.length];
+                System.arraycopy(previousPath, 0, path, 0, kept);
+                System.arraycopy(suffix, 0, path, kept, suffix.length);
+            } else {
+                int nameLength = flags & FLAG_NAME_LENGTH_MASK;
+                if (nameLength < FLAG_NAME_LENGTH_MASK) {
+                    path = new byte[nameLength];
+                    buffer.get(path);
+                    buffer.get(); // NUL
+                } else {
+                    path = readUntilNul(buffer);
+                }
+                // entries are padded with NULs to a multiple of 8 bytes
+                int entryLength = buffer.position() - entryStart;
+                int padded = (entryLength + 7) & ~7;
+                buffer.position(entryStart + padded);
+            }
+            previousPath = path;
+
+            int type = mode & MODE_TYPE_MASK;
+            boolean inWorkTree = (extendedFlags & EXTENDED_FLAG_SKIP_WORKTREE) == 0;
+            if ((type == MODE_REGULAR_FILE || type == MODE_SYMLINK || type == MODE_GITLINK) && inWorkTree) {
+                String value = new String(path, StandardCharsets.UTF_8);
+                // unmerged files have one entry per stage, keep only one
+                if ((flags & FLAG_STAGE_MASK) == 0 || !value.equals(previousAdded)) {
+                    paths.add(new IndexEntry(value, size, lastModifiedTime, type == MODE_GITLINK, type == MODE_SYMLINK));
+                    previousAdded = value;
+                }
+            }
+        }
+
+        // a split index only holds the entries changed since the shared index
+        while (buffer.remaining() >= CHECKSUM_LENGTH + 8) {
+            int signature = buffer.getInt();
+            long length = buffer.getInt() & 0xFFFFFFFFL;
+            if (signature == EXTENSION_LINK) {
+                throw new IOException("Split git index is not supported");
+            }
+            if (length > buffer.remaining()) {
+                break;
+            }
+            buffer.position(buffer.position() + (int) length);
+        }
+        return paths;
+    }
+
+    static class IndexEntry {
+        final String path;
+        // truncated to 32 bits by git
+        final long size;
+        final long lastModifiedTime;
+        // gitlink, i.e the folder of a submodule
+        final boolean submodule;
+        // size and time are the ones of the link, not of its target
+        final boolean symlink;
+
+        private IndexEntry(String path, long size, long lastModifiedTime, boolean submodule, boolean symlink) {
+            this.path = path;
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+            this.submodule = submodule;
+            this.symlink = symlink;
+        }
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        int c = buffer.get() & 0xFF;
+        long value = c & 127;
+        while ((c & 128) != 0) {
+            value += 1;
+            c = buffer.get() & 0xFF;
+            value = (value << 7) + (c & 127);
+        }
+        return value;
+    }
+
+    private static byte[] readUntilNul(ByteBuffer buffer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte b;
+        while ((b = buffer.get()) != 0) {
+            bytes.write(b);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Path findWorkTree(Path path) {
+        for (Path current = path; current != null; current = current.getParent()) {
+            if (Files.exists(current.resolve(".git"))) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the index of a work tree. .git can be either a folder or a file pointing to the actual git folder (e.g worktrees)
+     */
+    private Path getIndex(Path workTree) throws IOException {
+        Path git = workTree.resolve(".git");
+        if (Files.isDirectory(git)) {
+            return git.resolve("index");
+        }
+        for (String line: Files.readAllLines(git, StandardCharsets.UTF_8)) {
+            if (line.startsWith("gitdir:")) {
+                return workTree.resolve(line.substring("gitdir:".length()).trim()).resolve("index");
+            }
+        }
+        return null;
+    }
+
+    private String toUnixPath(Path path) {
+        String separator = path.getFileSystem().getSeparator();
+        String value = path.toString();
+        return "/".equals(separator) ? value : value.replace(separator, "/");
+    }
+}
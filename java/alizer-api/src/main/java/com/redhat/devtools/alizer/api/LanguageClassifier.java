@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Naive Bayes classifier telling apart the languages sharing an extension (e.g .h for C, C++ and Objective-C) from
+ * the tokens of a file.
+ *
+ * The model counts the tokens of the sample files found in resources/samples/&lt;language&gt;, it is trained at build
+ * time (see {@link LanguageIndexCompiler}) and loaded from the classpath. Only the first
+ * {@link #MAX_CLASSIFIED_BYTES} bytes of a file are read to classify it. A match is only classified when the model
+ * knows all its candidates, otherwise its files keep being counted for all of them.
+ */
+class LanguageClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LanguageClassifier.class);
+
+    static final String MODEL_PATH = "languages-classifier.idx";
+    static final String SAMPLES_PATH = "samples";
+    static final int MAX_CLASSIFIED_BYTES = 4 * 1024;
+
+    private static final int MAGIC = 0x414c5a43; // ALZC
+    private static final int VERSION = 1;
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAX_CLASSIFIED_BYTES));
+
+    private final List<String> labels;
+    private final Map<String, Integer> labelIndexes = new HashMap<>();
+    // occurrences of a token in the samples of every label
+    private final Map<String, int[]> tokenCounts;
+    private final long[] totals;
+    // log of the denominator of the Laplace smoothed probability of a token for every label
+    private final double[] logDenominators;
+
+    private static class Holder {
+        private static final LanguageClassifier INSTANCE = load();
+    }
+
+    private LanguageClassifier(List<String> labels, Map<String, int[]> tokenCounts) {
+        this.labels = labels;
+        this.tokenCounts = tokenCounts;
+        for (int i = 0; i < labels.size(); i++) {
+            labelIndexes.put(labels.get(i), i);
+        }
+        totals = new long[labels.size()];
+        for (int[] counts: tokenCounts.values()) {
+            for (int i = 0; i < counts.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        logDenominators = new double[labels.size()];
+        for (int i = 0; i < labels.size(); i++) {
+            logDenominators[i] = Math.log(totals[i] + tokenCounts.size());
+        }
+    }
+
+    static LanguageClassifier get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Train from the samples next to the YAML files set by {@link LanguageFileHandler#LANGUAGES_DIRECTORY_PROPERTY},
+     * otherwise load the model trained at build time, otherwise classify nothing.
+     */
+    private static LanguageClassifier load() {
+        try {
+            String directory = System.getProperty(LanguageFileHandler.LANGUAGES_DIRECTORY_PROPERTY);
+            if (directory != null && Files.isDirectory(Paths.get(directory, SAMPLES_PATH))) {
+                return train(Paths.get(directory, SAMPLES_PATH));
+            }
+            try (InputStream modelStream = LanguageClassifier.class.getResourceAsStream("/" + MODEL_PATH)) {
+                if (modelStream != null) {
+                    return read(new BufferedInputStream(modelStream));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to load the language classifier, ambiguous files are counted for all their languages", e);
+        }
+        return new LanguageClassifier(Collections.emptyList(), Collections.emptyMap());
+    }
+
+    /**
+     * @param samples folder holding a sub folder of sample files per language, named after the language
+     * @return the classifier trained on the samples
+     * @throws IOException if a sample cannot be read
+     */
+    static LanguageClassifier train(Path samples) throws IOException {
+        List<String> labels = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(samples, Files::isDirectory)) {
+            stream.forEach(directory -> labels.add(directory.getFileName().toString()));
+        }
+        Collections.sort(labels);
+        Map<String, int[]> tokenCounts = new TreeMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            int label = i;
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(samples.resolve(labels.get(i)))) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file: files) {
+                byte[] content = Files.readAllBytes(file);
+                forEachToken(content, content.length, token -> tokenCounts.computeIfAbsent(token, key -> new int[labels.size()])[label]++);
+            }
+        }
+        return new LanguageClassifier(labels, tokenCounts);
+    }
+
+    static LanguageClassifier read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a language classifier model");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported language classifier model version " + version);
+        }
+        int labelCount = input.readInt();
+        List<String> labels = new ArrayList<>(labelCount);
+        for (int i = 0; i < labelCount; i++) {
+            labels.add(input.readUTF());
+        }
+        int tokenCount = input.readInt();
+        Map<String, int[]> tokenCounts = new HashMap<>(tokenCount * 2);
+        for (int i = 0; i < tokenCount; i++) {
+            String token = input.readUTF();
+            int[] counts = new int[labelCount];
+            // counts are sparse, only the labels using the token are written
+            int used = input.readInt();
+            for (int j = 0; j < used; j++) {
+                counts[input.readInt()] = input.readInt();
+            }
+            tokenCounts.put(token, counts);
+        }
+        return new LanguageClassifier(labels, tokenCounts);
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(labels.size());
+        for (String label: labels) {
+            output.writeUTF(label);
+        }
+        output.writeInt(tokenCounts.size());
+        for (Map.Entry<String, int[]> entry: new TreeMap<>(tokenCounts).entrySet()) {
+            output.writeUTF(entry.getKey());
+            int[] counts = entry.getValue();
+            int used = 0;
+            for (int count: counts) {
+                used += count > 0 ? 1 : 0;
+            }
+            output.writeInt(used);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    output.writeInt(i);
+                    output.writeInt(counts[i]);
+                }
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * @return the languages known by the model
+     */
+    List<String> getLabels() {
+        return Collections.unmodifiableList(labels);
+    }
+
+    /**
+     * @param match a match
+     * @return true if the match is ambiguous and the model knows all its candidates
+     */
+    boolean canClassify(LanguageMatcher.Match match) {
+        return match.getCandidates().size() > 1
+                && match.getCandidates().stream().allMatch(candidate -> labelIndexes.containsKey(candidate.getName()));
+    }
+
+    /**
+     * @param match match of the name of the file
+     * @param file file to classify
+     * @return the resolution of the match for the language of the file, the match itself if it cannot be classified
+     */
+    LanguageMatcher.Match classify(LanguageMatcher.Match match, Path file) {
+        if (!canClassify(match)) {
+            return match;
+        }
+        ByteBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full or the end of the file
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to classify " + file, e);
+            return match;
+        }
+        List<String> candidates = match.getCandidates().stream().map(LanguageFileItem::getName).collect(Collectors.toList());
+        String language = classify(candidates, buffer.array(), buffer.position());
+        if (language == null) {
+            return match;
+        }
+        return match.getCandidates().stream()
+                .filter(candidate -> candidate.getName().equals(language))
+                .findFirst()
+                .map(match::getResolution)
+                .orElse(match);
+    }
+
+    /**
+     * @param candidates names of the languages known by the model the content may be written in
+     * @param content content to classify
+     * @param length number of bytes of the content
+     * @return the most probable language, null if the content has no token
+     */
+    String classify(List<String> candidates, byte[] content, int length) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        forEachToken(content, length, token -> frequencies.merge(token, 1, Integer::sum));
+        if (frequencies.isEmpty()) {
+            return null;
+        }
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (String candidate: candidates) {
+            int label = labelIndexes.get(candidate);
+            double score = 0;
+            long tokens = 0;
+            for (Map.Entry<String, Integer> frequency: frequencies.entrySet()) {
+                int[] counts = tokenCounts.get(frequency.getKey());
+                int count = counts == null ? 0 : counts[label];
+                score += frequency.getValue() * Math.log(count + 1);
+                tokens += frequency.getValue();
+            }
+            score -= tokens * logDenominators[label];
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Split a content into tokens: identifiers and keywords (with a leading sigil such as # @ $ % if any) and runs of
+     * up to three punctuation characters. Numbers and non ASCII characters are skipped.
+     */
+    static void forEachToken(byte[] content, int length, Consumer<String> consumer) {
+        int i = 0;
+        while (i < length) {
+            char c = (char) (content[i] & 0xFF);
+            if (isIdentifierStart(c) || (isSigil(c) && i + 1 < length && isIdentifierStart((char) (content[i + 1] & 0xFF)))) {
+                int start = i++;
+                while (i < length && isIdentifierPart((char) (content[i] & 0xFF))) {
+                    i++;
+                }
+                if (i - start <= MAX_TOKEN_LENGTH) {
+                    consumer.accept(new String(content, start, i - start, StandardCharsets.ISO_8859_1));
+                }
+            } else if (isPunctuation(c)) {
+                int start = i++;
+                while (i < length && i - start < 3 && isPunctuation((char) (content[i] & 0xFF))) {
+                    i++;
+                }
+                consumer.accept(new String(content, start, i - start, StandardCharsets.ISO_8859_1));
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isSigil(char c) {
+        return c == '#' || c == '@' || c == '$' || c == '%';
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c > ' ' && c < 0x7F && !isIdentifierPart(c);
+    }
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+/**
+ * Language whose usage has been estimated from a sample of the project
+ */
+public class LanguageEstimate {
+
+    private final Language language;
+    private final double marginOfError;
+
+    public LanguageEstimate(Language language, double marginOfError) {
+        this.language = language;
+        this.marginOfError = marginOfError;
+    }
+
+    /**
+     * @return the language, its usage in percentage is the estimated one
+     */
+    public Language getLanguage() {
+        return language;
+    }
+
+    /**
+     * @return half-width of the 95% confidence interval of the usage, in percentage points. 0 if the project
+     * has been walked entirely, NaN if the sample is too small to estimate it
+     */
+    public double getMarginOfError() {
+        return marginOfError;
+    }
+}
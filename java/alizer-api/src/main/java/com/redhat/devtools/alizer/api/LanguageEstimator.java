@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Estimate the usage of languages by sampling directories instead of walking the whole project.
+ *
+ * Every pass walks the tree level by level: when a level (stratum) holds more directories than the sample size,
+ * only a random subset of them is listed and the files found are weighted by the inverse of their inclusion
+ * probability, which keeps the totals unbiased. Passes are independent replicates: usages are the ratio of the
+ * totals of all passes and the spread between passes gives their margin of error. Sampling stops as soon as the
+ * ranking of the top languages is stable and their confidence intervals do not overlap, or when the time budget
+ * is exceeded. The root is always listed, even without budget.
+ */
+class LanguageEstimator {
+
+    static final int DEFAULT_DIRECTORIES_PER_DEPTH = 32;
+    private static final int MAX_PASSES = 20;
+    private static final int RANKED_LANGUAGES = 3;
+    private static final double MIN_USAGE = 0.02;
+    private static final long SEED = 0x5a3d1e2bL;
+    // two-sided 95% quantiles of the Student t distribution, indexed by degrees of freedom - 1
+    private static final double[] T_QUANTILES = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+            2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093 };
+
+    private final LanguageRecognizerImpl recognizer;
+    private final TraversalFilter filter;
+    private final int directoriesPerDepth;
+    private final Random random = new Random(SEED);
+    private final LanguageFileHandler handler = LanguageFileHandler.get();
+    private final List<LanguageEnricherProvider> enrichers = Utils.getEnrichers();
+    private final Map<Path, Listing> listings = new HashMap<>();
+    private final Map<LanguageMatcher.Match, List<LanguageFileItem>> languagesByMatch = new HashMap<>();
+    private final Set<File> candidateFiles = new HashSet<>();
+
+    LanguageEstimator(LanguageRecognizerImpl recognizer, TraversalFilter filter, int directoriesPerDepth) {
+        this.recognizer = recognizer;
+        this.filter = filter;
+        this.directoriesPerDepth = directoriesPerDepth;
+    }
+
+    /**
+     * @param root path (root) where to make the estimate
+     * @param budget maximum time spent sampling the project
+     * @return list of programming languages ordered by estimated usage
+     * @throws IOException if an error occurred while listing a directory
+     */
+    List<LanguageEstimate> estimate(Path root, Duration budget) throws IOException {
+        long deadline = System.nanoTime() + budget.toNanos();
+        List<Map<LanguageFileItem, Double>> passes = new ArrayList<>();
+        List<LanguageFileItem> previousRanking = Collections.emptyList();
+        while (passes.size() < MAX_PASSES) {
+            Pass pass = samplePass(root, deadline);
+            if (pass.exhaustive) {
+                // nothing has been sampled out, usages are exact
+                return toEstimates(Collections.singletonList(pass.totals), true);
+            }
+            if (!pass.complete) {
+                // an incomplete pass is biased toward the upper levels, only use it if there is nothing else
+                if (passes.isEmpty()) {
+                    passes.add(pass.totals);
+                }
+                break;
+            }
+            passes.add(pass.totals);
+            List<LanguageFileItem> ranking = rank(passes);
+            if (passes.size() > 1 && ranking.equals(previousRanking) && isSeparated(ranking, passes)) {
+                break;
+            }
+            previousRanking = ranking;
+        }
+        return toEstimates(passes, false);
+    }
+
+    private Pass samplePass(Path root, long deadline) throws IOException {
+        Map<LanguageFileItem, Double> totals = new HashMap<>();
+        boolean exhaustive = true;
+        List<Cluster> level = Collections.singletonList(new Cluster(root, filter, 1.0));
+        while (!level.isEmpty()) {
+            List<Cluster> sample = level;
+            double factor = 1.0;
+            if (level.size() > directoriesPerDepth) {
+                sample = new ArrayList<>(level);
+                Collections.shuffle(sample, random);
+                sample = sample.subList(0, directoriesPerDepth);
+                factor = (double) level.size() / directoriesPerDepth;
+                exhaustive = false;
+            }
+
+            List<Cluster> nextLevel = new ArrayList<>();
+            for (Cluster cluster: sample) {
+                if (!cluster.directory.equals(root) && System.nanoTime() > deadline) {
+                    return new Pass(totals, false, false);
+                }
+                double weight = cluster.weight * factor;
+                Listing listing = list(cluster);
+                listing.matches.forEach((match, count) -> {
+                    for (LanguageFileItem language: getLanguages(match)) {
+                        totals.merge(language, weight * count, Double::sum);
+                    }
+                });
+                for (Path directory: listing.directories) {
+                    nextLevel.add(new Cluster(directory, listing.filter, weight));
+                }
+            }
+            level = nextLevel;
+        }
+        return new Pass(totals, true, exhaustive);
+    }
+
+    /**
+     * List a directory once, the listing is reused by the following passes
+     */
+    private Listing list(Cluster cluster) throws IOException {
+        Listing listing = listings.get(cluster.directory);
+        if (listing != null) {
+            return listing;
+        }
+        TraversalFilter directoryFilter = cluster.parentFilter.forDirectory(cluster.directory);
+        listing = new Listing(directoryFilter);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cluster.directory)) {
+            for (Path entry: stream) {
+                BasicFileAttributes attrs = ProjectSnapshot.followFileLink(entry,
+                        Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                if (attrs.isDirectory()) {
+                    if (!directoryFilter.skipDirectory(entry)) {
+                        listing.directories.add(entry);
+                    }
+                } else if (attrs.isRegularFile() && !directoryFilter.skipFile(entry)) {
+                    recognizer.count(listing.matches, entry, attrs.size());
+                    File file = PathFile.of(entry);
+                    if (enrichers.stream().anyMatch(enricher -> enricher.isCandidateFile(file))) {
+                        candidateFiles.add(file);
+                    }
+                }
+            }
+        }
+        listings.put(cluster.directory, listing);
+        return listing;
+    }
+
+    /**
+     * @return the programming languages a filename or extension is counted for, grouped languages are counted for their group
+     */
+    private List<LanguageFileItem> getLanguages(LanguageMatcher.Match match) {
+        return languagesByMatch.computeIfAbsent(match, key -> key.getLanguages().stream()
+                .map(handler::getGroupLanguage)
+                .filter(language -> language.getType().equalsIgnoreCase("programming"))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return the top languages above the minimum usage ordered by mean usage
+     */
+    private List<LanguageFileItem> rank(List<Map<LanguageFileItem, Double>> passes) {
+        return getLanguages(passes).stream()
+                .filter(language -> usage(passes, language) > MIN_USAGE)
+                .sorted(Comparator.comparingDouble((LanguageFileItem language) -> usage(passes, language)).reversed())
+                .limit(RANKED_LANGUAGES)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isSeparated(List<LanguageFileItem> ranking, List<Map<LanguageFileItem, Double>> passes) {
+        for (int i = 0; i + 1 < ranking.size(); i++) {
+            double lower = usage(passes, ranking.get(i)) - margin(passes, ranking.get(i));
+            double upper = usage(passes, ranking.get(i + 1)) + margin(passes, ranking.get(i + 1));
+            if (!(lower > upper)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<LanguageEstimate> toEstimates(List<Map<LanguageFileItem, Double>> passes, boolean exact) {
+        List<File> files = new ArrayList<>(candidateFiles);
+        return getLanguages(passes).stream()
+                .filter(language -> usage(passes, language) > MIN_USAGE)
+                .map(language -> {
+                    Language estimated = new Language(language.getName(), language.getAliases(),
+                            usage(passes, language) * 100, language.canBeComponent());
+                    return new LanguageEstimate(recognizer.getDetailedLanguage(estimated, files),
+                            exact ? 0 : margin(passes, language) * 100);
+                })
+                .sorted(Comparator.comparingDouble((LanguageEstimate estimate) -> estimate.getLanguage().getUsageInPercentage()).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private Set<LanguageFileItem> getLanguages(List<Map<LanguageFileItem, Double>> passes) {
+        Set<LanguageFileItem> languages = new HashSet<>();
+        passes.forEach(pass -> languages.addAll(pass.keySet()));
+        return languages;
+    }
+
+    /**
+     * Usage estimated from all passes, as the ratio of the language total to the total of all languages
+     */
+    private double usage(List<Map<LanguageFileItem, Double>> passes, LanguageFileItem language) {
+        double total = passes.stream().mapToDouble(this::total).sum();
+        return total > 0 ? passes.stream().mapToDouble(pass -> pass.getOrDefault(language, 0.0)).sum() / total : 0;
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the usage. The variance of the ratio is linearized and
+     * estimated from the spread between passes
+     */
+    private double margin(List<Map<LanguageFileItem, Double>> passes, LanguageFileItem language) {
+        int count = passes.size();
+        double meanTotal = passes.stream().mapToDouble(this::total).average().orElse(0);
+        if (count < 2 || meanTotal == 0) {
+            return Double.NaN;
+        }
+        double usage = usage(passes, language);
+        double[] residuals = passes.stream()
+                .mapToDouble(pass -> (pass.getOrDefault(language, 0.0) - usage * total(pass)) / meanTotal)
+                .toArray();
+        double meanResidual = Arrays.stream(residuals).average().orElse(0);
+        double squares = Arrays.stream(residuals).map(residual -> Math.pow(residual - meanResidual, 2)).sum();
+        double standardError = Math.sqrt(squares / (count - 1) / count);
+        double quantile = count - 1 <= T_QUANTILES.length ? T_QUANTILES[count - 2] : 1.96;
+        return quantile * standardError;
+    }
+
+    private double total(Map<LanguageFileItem, Double> pass) {
+        return pass.values().stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    private static class Cluster {
+        private final Path directory;
+        private final TraversalFilter parentFilter;
+        private final double weight;
+
+        private Cluster(Path directory, TraversalFilter parentFilter, double weight) {
+            this.directory = directory;
+            this.parentFilter = parentFilter;
+            this.weight = weight;
+        }
+    }
+
+    private static class Listing {
+        private final TraversalFilter filter;
+        private final Map<LanguageMatcher.Match, Long> matches = new HashMap<>();
+        private final List<Path> directories = new ArrayList<>();
+
+        private Listing(TraversalFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+    private static class Pass {
+        // estimated number of files per language
+        private final Map<LanguageFileItem, Double> totals;
+        private final boolean complete;
+        private final boolean exhaustive;
+
+        private Pass(Map<LanguageFileItem, Double> totals, boolean complete, boolean exhaustive) {
+            this.totals = totals;
+            this.complete = complete;
+            this.exhaustive = exhaustive;
+        }
+    }
+}
@@ -10,124 +10,149 @@
  ******************************************************************************/
 package com.redhat.devtools.alizer.api;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-
-import java.io.File;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class LanguageFileHandler {
     private static final Logger logger = LoggerFactory.getLogger(LanguageFileHandler.class);
 
-    private static final String LANGUAGES_YAML_PATH = "languages.yml";
-    private static final String LANGUAGES_CUSTOMIZATION_YAML_PATH = "languages-customization.yml";
-    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
-    private static LanguageFileHandler INSTANCE;
-    private Map<String, LanguageFileItem> languages = new HashMap<>();
-    private Map<String, List<LanguageFileItem>> extensionXLanguage = new HashMap<>();
-
-    private LanguageFileHandler(){
-        initLanguages();
-    }
-
-    public static LanguageFileHandler get() {
-        if (INSTANCE == null) {
-            INSTANCE = new LanguageFileHandler();
-        }
-        return INSTANCE;
+    /**
+     * System property pointing to a directory with a languages.yml (and optionally a languages-customization.yml)
+     * used instead of the definitions bundled with alizer
+     */
+    public static final String LANGUAGES_DIRECTORY_PROPERTY = "alizer.languages.dir";
+
+    private final Map<String, LanguageFileItem> languages = new HashMap<>();
+    private final Map<String, List<LanguageFileItem>> extensionXLanguage = new HashMap<>();
+    private final Map<String, LanguageFileItem> languageByLowerCaseName = new HashMap<>();
+    private final Map<String, LanguageFileItem> languageByAlias = new HashMap<>();
+    private final Map<LanguageFileItem, LanguageFileItem> groupXLanguage = new HashMap<>();
+    private final Map<String, List<String>> configurationPerLanguage;
+    private final LanguageMatcher matcher;
+    // null if the languages could not be loaded
+    private final LanguageIndex index;
+    private volatile byte[] indexDigest;
+
+    /**
+     * Lazily created on first use, the class loader guarantees the handler is built once and safely published
+     */
+    private static class Holder {
+        private static final LanguageFileHandler INSTANCE = new LanguageFileHandler();
     }
 
-    private void initLanguages() {
+    private LanguageFileHandler(){
+        LanguageMatcher.Builder matcherBuilder = new LanguageMatcher.Builder();
+        LanguageIndex loadedIndex = null;
         try {
-            String languagesYamlAsString = IOUtils.toString(LanguageFileHandler.class.getResourceAsStream("/" + LANGUAGES_YAML_PATH), Charset.defaultCharset());
-            JsonNode languagesAsJsonNode = YAML_MAPPER.readTree(languagesYamlAsString);
-
-            String customizationYamlAsString = IOUtils.toString(LanguageFileHandler.class.getResourceAsStream("/" + LANGUAGES_CUSTOMIZATION_YAML_PATH), Charset.defaultCharset());
-            JsonNode customizationAsJsonNode = YAML_MAPPER.readTree(customizationYamlAsString);
-            for (Iterator<Map.Entry<String, JsonNode>> it = languagesAsJsonNode.fields(); it.hasNext(); ) {
-                Map.Entry<String, JsonNode> entry = it.next();
-                String nameLanguage = entry.getKey();
-                JsonNode languageAttributes = entry.getValue();
-                String type = languageAttributes.get("type").asText();
-                String group = languageAttributes.has("group") ? languageAttributes.get("group").asText() : "";
-                List<String> aliases = getValueAsList(languageAttributes, "aliases");
-                LanguageFileItem languageFileItem = new LanguageFileItem(nameLanguage, aliases, type, group);
-                customizeLanguage(customizationAsJsonNode, languageFileItem);
-                if (!languageFileItem.isDisabled()) {
-                    languages.put(nameLanguage, languageFileItem);
-                    populateLanguageList(extensionXLanguage, languageAttributes, "extensions", languageFileItem);
-                }
+            loadedIndex = loadIndex();
+            for (LanguageIndex.Entry entry: loadedIndex.getEntries()) {
+                LanguageFileItem languageFileItem = entry.getLanguage();
+                languages.put(languageFileItem.getName(), languageFileItem);
+                populateLanguageList(extensionXLanguage, entry.getExtensions(), languageFileItem);
+                entry.getExtensions().forEach(extension -> matcherBuilder.addExtension(extension, languageFileItem));
+                entry.getFileNames().forEach(fileName -> matcherBuilder.addFileName(fileName, languageFileItem));
             }
         } catch (IOException e) {
             logger.warn(e.getLocalizedMessage(), e);
         }
+        index = loadedIndex;
+        extensionXLanguage.replaceAll((extension, languageList) -> Collections.unmodifiableList(languageList));
+        for (LanguageFileItem languageFileItem: languages.values()) {
+            languageByLowerCaseName.putIfAbsent(languageFileItem.getName().toLowerCase(Locale.ROOT), languageFileItem);
+            languageFileItem.getAliases().forEach(alias -> languageByAlias.putIfAbsent(alias.toLowerCase(Locale.ROOT), languageFileItem));
+        }
+        for (LanguageFileItem languageFileItem: languages.values()) {
+            if (!languageFileItem.getGroup().isEmpty()) {
+                groupXLanguage.put(languageFileItem, getLanguageByName(languageFileItem.getGroup()));
+            }
+        }
+        matcher = matcherBuilder.build(this::getGroupLanguage);
+        configurationPerLanguage = initConfigurationPerLanguageMapping();
     }
 
-    private void customizeLanguage(JsonNode customizationsNode, LanguageFileItem languageFileItem) {
-        JsonNode languageCustomization = customizationsNode.findValue(languageFileItem.getName());
-        if (languageCustomization != null) {
-            List<String> configurationFiles = getValueAsList(languageCustomization, "configuration_files");
-            List<String> excludeFolders = getValueAsList(languageCustomization, "exclude_folders");
-            List<String> aliases = getValueAsList(languageCustomization, "aliases");
-            boolean canBeComponent = languageCustomization.has("component") && languageCustomization.get("component").asBoolean();
-            boolean disabled = languageCustomization.has("disable_detection") && languageCustomization.get("disable_detection").asBoolean();
-
-            languageFileItem.setConfigurationFiles(configurationFiles);
-            languageFileItem.setExcludeFolders(excludeFolders);
-            languageFileItem.setCanBeComponent(canBeComponent);
-            languageFileItem.addAliases(aliases);
-            languageFileItem.setDisabled(disabled);
-        }
+    public static LanguageFileHandler get() {
+        return Holder.INSTANCE;
     }
 
-    private List<String> getValueAsList(JsonNode languageAttributes, String field) {
-        List<String> values = new ArrayList<>();
-        if (languageAttributes.has(field)) {
-            JsonNode fieldValues = languageAttributes.get(field);
-            for (JsonNode node : fieldValues) {
-                values.add(node.asText());
+    /**
+     * Load the languages from the directory set by {@link #LANGUAGES_DIRECTORY_PROPERTY}, otherwise from the index
+     * compiled at build time, otherwise from the bundled YAML files.
+     */
+    private LanguageIndex loadIndex() throws IOException {
+        String directory = System.getProperty(LANGUAGES_DIRECTORY_PROPERTY);
+        if (directory != null) {
+            Path languagesPath = Paths.get(directory, LanguageIndex.LANGUAGES_YAML_PATH);
+            Path customizationPath = Paths.get(directory, LanguageIndex.LANGUAGES_CUSTOMIZATION_YAML_PATH);
+            try (InputStream languagesStream = Files.newInputStream(languagesPath);
+                 InputStream customizationStream = Files.exists(customizationPath) ? Files.newInputStream(customizationPath) : null) {
+                return LanguageIndex.fromYaml(languagesStream, customizationStream);
+            }
+        }
+        try (InputStream indexStream = LanguageFileHandler.class.getResourceAsStream("/" + LanguageIndex.INDEX_PATH)) {
+            if (indexStream != null) {
+                return LanguageIndex.read(new BufferedInputStream(indexStream));
             }
+        } catch (IOException e) {
+            logger.warn("Unable to read the language index, falling back to YAML", e);
+        }
+        try (InputStream languagesStream = LanguageFileHandler.class.getResourceAsStream("/" + LanguageIndex.LANGUAGES_YAML_PATH);
+             InputStream customizationStream = LanguageFileHandler.class.getResourceAsStream("/" + LanguageIndex.LANGUAGES_CUSTOMIZATION_YAML_PATH)) {
+            return LanguageIndex.fromYaml(languagesStream, customizationStream);
         }
-        return values;
     }
 
-    private void populateLanguageList(Map<String, List<LanguageFileItem>> languageMap, JsonNode languageAttributes, String field, LanguageFileItem language) {
-        if (languageAttributes.has(field)) {
-            JsonNode fieldValues = languageAttributes.get(field);
-            for (JsonNode value: fieldValues) {
-                if (!value.asText("").isEmpty()) {
-                    List<LanguageFileItem> languageMapValue = languageMap.getOrDefault(value.asText(), new ArrayList<>());
-                    languageMapValue.add(language);
-                    languageMap.put(value.asText(), languageMapValue);
-                }
+    private void populateLanguageList(Map<String, List<LanguageFileItem>> languageMap, List<String> values, LanguageFileItem language) {
+        for (String value: values) {
+            if (!value.isEmpty()) {
+                List<LanguageFileItem> languageMapValue = languageMap.getOrDefault(value, new ArrayList<>());
+                languageMapValue.add(language);
+                languageMap.put(value, languageMapValue);
             }
         }
     }
 
-
+    public Collection<LanguageFileItem> getLanguages() {
+        return Collections.unmodifiableCollection(languages.values());
+    }
 
     public List<LanguageFileItem> getLanguagesByExtension(String extension) {
         return extensionXLanguage.getOrDefault(extension, Collections.emptyList());
     }
 
+    /**
+     * @return digest of the languages loaded, computed on first use
+     */
+    byte[] getIndexDigest() {
+        byte[] digest = indexDigest;
+        if (digest == null) {
+            digest = index == null ? new byte[0] : index.digest();
+            indexDigest = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * @return the matcher resolving languages from filenames and extensions
+     */
+    LanguageMatcher getMatcher() {
+        return matcher;
+    }
+
     public LanguageFileItem getLanguageByName(String name) {
-        Optional<LanguageFileItem> languageFileItem = languages.entrySet().stream()
-                .filter(item -> item.getKey().equalsIgnoreCase(name))
-                .map(Map.Entry::getValue)
-                .findFirst();
-        return languageFileItem.orElse(null);
+        return name == null ? null : languageByLowerCaseName.get(name.toLowerCase(Locale.ROOT));
     }
 
     public LanguageFileItem getLanguageByNameOrAlias(String name) {
@@ -139,14 +164,22 @@ public class LanguageFileHandler {
     }
 
     public LanguageFileItem getLanguageByAlias(String alias) {
-        String finalAlias = alias.toLowerCase();
-        Optional<LanguageFileItem> languageFileItem = languages.values().stream()
-                .filter(item -> item.getAliases().contains(finalAlias))
-                .findFirst();
-        return languageFileItem.orElse(null);
+        return alias == null ? null : languageByAlias.get(alias.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param language a language
+     * @return the language of its group (e.g JSX is counted as JavaScript), the language itself if it is not grouped
+     */
+    public LanguageFileItem getGroupLanguage(LanguageFileItem language) {
+        return groupXLanguage.getOrDefault(language, language);
     }
 
     public Map<String, List<String>> getConfigurationPerLanguageMapping() {
+        return configurationPerLanguage;
+    }
+
+    private Map<String, List<String>> initConfigurationPerLanguageMapping() {
         Map<String, List<String>> configurationPerLanguage = new HashMap<>();
         for (LanguageFileItem fileItem: languages.values()) {
             List<String> configurationFiles = fileItem.getConfigurationFiles();
@@ -162,6 +195,7 @@ public class LanguageFileHandler {
                 }
             }
         }
-        return configurationPerLanguage;
+        configurationPerLanguage.replaceAll((configFile, languageNames) -> Collections.unmodifiableList(languageNames));
+        return Collections.unmodifiableMap(configurationPerLanguage);
     }
 }
@@ -11,54 +11,47 @@
 package com.redhat.devtools.alizer.api;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
+/**
+ * Definition of a language. Items are shared by all the analyses, they are immutable once built by the language index.
+ */
 public class LanguageFileItem {
-    private String name;
-    private List<String> aliases;
-    private String type;
-    private String group;
-    private List<String> configurationFiles, excludeFolders;
-    private boolean canBeComponent;
-    private boolean disabled;
+    private final String name;
+    private final List<String> aliases;
+    private final String type;
+    private final String group;
+    private final List<String> configurationFiles, excludeFolders;
+    private final boolean canBeComponent;
+    private final boolean disabled;
 
     public LanguageFileItem(String name, List<String> aliases, String type, String group) {
+        this(name, aliases, type, group, Collections.emptyList(), Collections.emptyList(), false, false);
+    }
+
+    public LanguageFileItem(String name, List<String> aliases, String type, String group, List<String> configurationFiles,
+                            List<String> excludeFolders, boolean canBeComponent, boolean disabled) {
         this.name = name;
-        this.aliases = aliases;
+        this.aliases = copyOf(aliases);
         this.type = type;
         this.group = group;
-        this.configurationFiles = new ArrayList<>();
-        this.excludeFolders = new ArrayList<>();
-        this.canBeComponent = false;
-        this.disabled = false;
+        this.configurationFiles = copyOf(configurationFiles);
+        this.excludeFolders = copyOf(excludeFolders);
+        this.canBeComponent = canBeComponent;
+        this.disabled = disabled;
     }
 
-    public String getName() {
-        return name;
+    private static List<String> copyOf(List<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(values));
     }
 
-    public void setName(String name) {
-        this.name = name;
+    public String getName() {
+        return name;
     }
 
     public List<String> getAliases() { return aliases; }
 
-    public void addAliases(List<String> aliasesToBeAdded) {
-        if (aliasesToBeAdded.isEmpty()) {
-            return;
-        }
-
-        if (aliases == null) {
-            aliases = new ArrayList<>();
-        }
-
-        Set<String> aliasesAsSet = new HashSet<>(aliases);
-        aliasesAsSet.addAll(aliasesToBeAdded);
-        aliases = new ArrayList<>(aliasesAsSet);
-    }
-
     public String getGroup() {
         return group;
     }
@@ -71,31 +64,15 @@ public class LanguageFileItem {
         return configurationFiles;
     }
 
-    public void setConfigurationFiles(List<String> configurationFiles) {
-        this.configurationFiles = configurationFiles;
-    }
-
     public List<String> getExcludeFolders() {
         return excludeFolders;
     }
 
-    public void setExcludeFolders(List<String> excludeFolders) {
-        this.excludeFolders = excludeFolders;
-    }
-
     public boolean canBeComponent() {
         return canBeComponent;
     }
 
-    public void setCanBeComponent(boolean canBeComponent) {
-        this.canBeComponent = canBeComponent;
-    }
-
     public boolean isDisabled() {
         return disabled;
     }
-
-    public void setDisabled(boolean disabled) {
-        this.disabled = disabled;
-    }
 }
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Weights of the filenames and extensions matched within a folder, indexed by the dense ids of {@link LanguageMatcher}.
+ * Only the ids found are stored, sorted, so the histograms of all the folders of a large tree fit in memory and two
+ * histograms are merged in linear time. Histograms are immutable and merging is associative and commutative, sub-trees
+ * can be merged in any order from any thread.
+ */
+final class LanguageHistogram {
+
+    static final LanguageHistogram EMPTY = new LanguageHistogram(new int[0], new long[0]);
+
+    private final int[] ids;
+    private final long[] weights;
+
+    private LanguageHistogram(int[] ids, long[] weights) {
+        this.ids = ids;
+        this.weights = weights;
+    }
+
+    /**
+     * @return a histogram holding the sum of the weights of both histograms
+     */
+    static LanguageHistogram merge(LanguageHistogram first, LanguageHistogram second) {
+        if (second.ids.length == 0) {
+            return first;
+        }
+        if (first.ids.length == 0) {
+            return second;
+        }
+        int[] ids = new int[first.ids.length + second.ids.length];
+        long[] weights = new long[ids.length];
+        int i = 0, j = 0, size = 0;
+        while (i < first.ids.length || j < second.ids.length) {
+            if (j == second.ids.length || (i < first.ids.length && first.ids[i] < second.ids[j])) {
+                ids[size] = first.ids[i];
+                weights[size++] = first.weights[i++];
+            } else if (i == first.ids.length || second.ids[j] < first.ids[i]) {
+                ids[size] = second.ids[j];
+                weights[size++] = second.weights[j++];
+            } else {
+                ids[size] = first.ids[i];
+                weights[size++] = first.weights[i++] + second.weights[j++];
+            }
+        }
+        return new LanguageHistogram(Arrays.copyOf(ids, size), Arrays.copyOf(weights, size));
+    }
+
+    /**
+     * @param id id of a match
+     * @return the weight of the match, 0 if not found
+     */
+    long get(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? 0 : weights[index];
+    }
+
+    /**
+     * @return number of matches found
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param matcher matcher the ids come from
+     * @return the matches found + their weight
+     */
+    Map<LanguageMatcher.Match, Long> toMatches(LanguageMatcher matcher) {
+        Map<LanguageMatcher.Match, Long> matches = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            matches.put(matcher.get(ids[i]), weights[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Sum weights in a dense array, then keep the ids found only. A builder is meant to be reused by a single thread,
+     * it is reset once built.
+     */
+    static class Builder {
+        private final long[] weights;
+        private final boolean[] found;
+        private int[] ids = new int[16];
+        private int size = 0;
+
+        /**
+         * @param idCount number of ids, see {@link LanguageMatcher#size()}
+         */
+        Builder(int idCount) {
+            weights = new long[idCount];
+            found = new boolean[idCount];
+        }
+
+        Builder add(int id, long weight) {
+            if (!found[id]) {
+                found[id] = true;
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+            }
+            weights[id] += weight;
+            return this;
+        }
+
+        LanguageHistogram build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] sortedIds = Arrays.copyOf(ids, size);
+            Arrays.sort(sortedIds);
+            long[] sortedWeights = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedWeights[i] = weights[sortedIds[i]];
+                weights[sortedIds[i]] = 0;
+                found[sortedIds[i]] = false;
+            }
+            size = 0;
+            return new LanguageHistogram(sortedIds, sortedWeights);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Languages known by alizer with their extensions and filenames, once customizations are applied.
+ *
+ * The languages are defined in languages.yml and languages-customization.yml. Parsing them takes a visible share of
+ * the startup time, so they are compiled at build time (see {@link LanguageIndexCompiler}) into a binary index
+ * which only holds what the analysis uses and is read without any parsing.
+ */
+class LanguageIndex {
+
+    static final String LANGUAGES_YAML_PATH = "languages.yml";
+    static final String LANGUAGES_CUSTOMIZATION_YAML_PATH = "languages-customization.yml";
+    static final String INDEX_PATH = "languages.idx";
+
+    private static final int MAGIC = 0x414c5a49; // ALZI
+    private static final int VERSION = 1;
+
+    private final List<Entry> entries;
+
+    private LanguageIndex(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Created on first use, reading the binary index must not load the YAML parser
+     */
+    private static class YamlMapperHolder {
+        private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+    }
+
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Parse the YAML definitions of the languages, disabled languages are left out
+     *
+     * @param languagesStream content of languages.yml
+     * @param customizationStream content of languages-customization.yml, may be null
+     * @return the languages
+     * @throws IOException if a file cannot be parsed
+     */
+    static LanguageIndex fromYaml(InputStream languagesStream, InputStream customizationStream) throws IOException {
+        ObjectMapper yamlMapper = YamlMapperHolder.YAML_MAPPER;
+        JsonNode languagesAsJsonNode = yamlMapper.readTree(languagesStream);
+        JsonNode customizationAsJsonNode = customizationStream == null ? yamlMapper.createObjectNode() : yamlMapper.readTree(customizationStream);
+        List<Entry> entries = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = languagesAsJsonNode.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            String nameLanguage = entry.getKey();
+            JsonNode languageAttributes = entry.getValue();
+            String type = languageAttributes.get("type").asText();
+            String group = languageAttributes.has("group") ? languageAttributes.get("group").asText() : "";
+            List<String> aliases = getValueAsList(languageAttributes, "aliases");
+            LanguageFileItem languageFileItem = customizeLanguage(customizationAsJsonNode, new LanguageFileItem(nameLanguage, aliases, type, group));
+            if (!languageFileItem.isDisabled()) {
+                entries.add(new Entry(languageFileItem, getValueAsList(languageAttributes, "extensions"),
+                        getValueAsList(languageAttributes, "filenames")));
+            }
+        }
+        return new LanguageIndex(entries);
+    }
+
+    /**
+     * @return the language with its customization applied, the language itself if it has none
+     */
+    private static LanguageFileItem customizeLanguage(JsonNode customizationsNode, LanguageFileItem languageFileItem) {
+        JsonNode languageCustomization = customizationsNode.findValue(languageFileItem.getName());
+        if (languageCustomization == null) {
+            return languageFileItem;
+        }
+        List<String> configurationFiles = getValueAsList(languageCustomization, "configuration_files");
+        List<String> excludeFolders = getValueAsList(languageCustomization, "exclude_folders");
+        List<String> aliases = getValueAsList(languageCustomization, "aliases");
+        boolean canBeComponent = languageCustomization.has("component") && languageCustomization.get("component").asBoolean();
+        boolean disabled = languageCustomization.has("disable_detection") && languageCustomization.get("disable_detection").asBoolean();
+
+        if (!aliases.isEmpty()) {
+            Set<String> aliasesAsSet = new HashSet<>(languageFileItem.getAliases());
+            aliasesAsSet.addAll(aliases);
+            aliases = new ArrayList<>(aliasesAsSet);
+        } else {
+            aliases = languageFileItem.getAliases();
+        }
+        return new LanguageFileItem(languageFileItem.getName(), aliases, languageFileItem.getType(), languageFileItem.getGroup(),
+                configurationFiles, excludeFolders, canBeComponent, disabled);
+    }
+
+    private static List<String> getValueAsList(JsonNode languageAttributes, String field) {
+        List<String> values = new ArrayList<>();
+        if (languageAttributes.has(field)) {
+            JsonNode fieldValues = languageAttributes.get(field);
+            for (JsonNode node : fieldValues) {
+                values.add(node.asText());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param stream binary index written by {@link #write(OutputStream)}
+     * @return the languages
+     * @throws IOException if the index cannot be read or was written by another version
+     */
+    static LanguageIndex read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a language index");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported language index version " + version);
+        }
+        int size = input.readInt();
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = input.readUTF();
+            String type = input.readUTF();
+            String group = input.readUTF();
+            LanguageFileItem languageFileItem = new LanguageFileItem(name, readStrings(input), type, group, readStrings(input),
+                    readStrings(input), input.readBoolean(), false);
+            entries.add(new Entry(languageFileItem, readStrings(input), readStrings(input)));
+        }
+        return new LanguageIndex(entries);
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(entries.size());
+        for (Entry entry: entries) {
+            LanguageFileItem language = entry.getLanguage();
+            output.writeUTF(language.getName());
+            output.writeUTF(language.getType());
+            output.writeUTF(language.getGroup());
+            writeStrings(output, language.getAliases());
+            writeStrings(output, language.getConfigurationFiles());
+            writeStrings(output, language.getExcludeFolders());
+            output.writeBoolean(language.canBeComponent());
+            writeStrings(output, entry.getExtensions());
+            writeStrings(output, entry.getFileNames());
+        }
+        output.flush();
+    }
+
+    /**
+     * @return SHA-256 of the binary form of the index, the same for the same languages whatever their source
+     */
+    byte[] digest() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            write(bytes);
+            return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(input.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        List<String> list = values == null ? Collections.emptyList() : values;
+        output.writeInt(list.size());
+        for (String value: list) {
+            output.writeUTF(value);
+        }
+    }
+
+    static class Entry {
+        private final LanguageFileItem language;
+        private final List<String> extensions;
+        private final List<String> fileNames;
+
+        private Entry(LanguageFileItem language, List<String> extensions, List<String> fileNames) {
+            this.language = language;
+            this.extensions = extensions;
+            this.fileNames = fileNames;
+        }
+
+        LanguageFileItem getLanguage() {
+            return language;
+        }
+
+        List<String> getExtensions() {
+            return extensions;
+        }
+
+        List<String> getFileNames() {
+            return fileNames;
+        }
+    }
+}
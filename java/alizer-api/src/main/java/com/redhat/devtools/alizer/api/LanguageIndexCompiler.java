@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build step compiling languages.yml and languages-customization.yml into the binary index loaded at runtime, and
+ * training the classifier of ambiguous files on the samples folder next to them.
+ *
+ * Usage: LanguageIndexCompiler &lt;directory of the YAML files&gt; &lt;output directory&gt;
+ */
+public final class LanguageIndexCompiler {
+
+    private LanguageIndexCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: LanguageIndexCompiler <directory of the YAML files> <output directory>");
+        }
+        Path directory = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        LanguageIndex languageIndex;
+        try (InputStream languages = Files.newInputStream(directory.resolve(LanguageIndex.LANGUAGES_YAML_PATH));
+             InputStream customization = Files.newInputStream(directory.resolve(LanguageIndex.LANGUAGES_CUSTOMIZATION_YAML_PATH))) {
+            languageIndex = LanguageIndex.fromYaml(languages, customization);
+        }
+        Files.createDirectories(output);
+        try (OutputStream stream = Files.newOutputStream(output.resolve(LanguageIndex.INDEX_PATH))) {
+            languageIndex.write(stream);
+        }
+
+        Path samples = directory.resolve(LanguageClassifier.SAMPLES_PATH);
+        if (Files.isDirectory(samples)) {
+            LanguageClassifier classifier = LanguageClassifier.train(samples);
+            try (OutputStream stream = Files.newOutputStream(output.resolve(LanguageClassifier.MODEL_PATH))) {
+                classifier.write(stream);
+            }
+        }
+    }
+}
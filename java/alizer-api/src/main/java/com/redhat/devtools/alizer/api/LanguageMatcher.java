@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Resolve the languages of a file from its name. Filenames (e.g Dockerfile), compound extensions (e.g .d.ts) and
+ * plain extensions are stored in a trie of reversed suffixes, so a name is resolved by reading its characters once
+ * from the end, without extracting any substring. An exact filename wins over extensions and the longest extension
+ * wins over shorter ones.
+ *
+ * A name shared by several programming languages (e.g .h for C, C++ and Objective-C) is ambiguous, the matcher also
+ * holds one resolution per candidate language so a file classified by its content is counted for that language only.
+ */
+class LanguageMatcher {
+
+    private final Node root;
+    private final List<Match> matches;
+
+    private LanguageMatcher(Node root, List<Match> matches) {
+        this.root = root;
+        this.matches = matches;
+    }
+
+    /**
+     * @param fileName name of the file
+     * @return the match for this name or null if no language is known for it
+     */
+    Match match(String fileName) {
+        Node node = root;
+        Match extension = null;
+        for (int i = fileName.length() - 1; i >= 0; i--) {
+            node = node.getChild(fileName.charAt(i));
+            if (node == null) {
+                return extension;
+            }
+            if (i == 0 && node.fileName != null) {
+                return node.fileName;
+            }
+            if (node.extension != null) {
+                extension = node.extension;
+            }
+        }
+        return extension;
+    }
+
+    /**
+     * @return number of matches including resolutions, match ids are in [0, size())
+     */
+    int size() {
+        return matches.size();
+    }
+
+    Match get(int id) {
+        return matches.get(id);
+    }
+
+    /**
+     * A filename or an extension known by the matcher. Ids are dense so results can be counted in arrays.
+     */
+    static class Match {
+        private final int id;
+        private final String name;
+        private final List<LanguageFileItem> languages = new ArrayList<>();
+        private final Map<LanguageFileItem, Match> resolutions = new LinkedHashMap<>();
+
+        private Match(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        /**
+         * @return the filename or the extension (starting with a dot) matched
+         */
+        String getName() {
+            return name;
+        }
+
+        List<LanguageFileItem> getLanguages() {
+            return Collections.unmodifiableList(languages);
+        }
+
+        /**
+         * @return the programming languages (grouped languages are replaced by their group) this ambiguous match may
+         * be resolved to, empty if the match is not ambiguous
+         */
+        Set<LanguageFileItem> getCandidates() {
+            return Collections.unmodifiableSet(resolutions.keySet());
+        }
+
+        /**
+         * @param candidate one of the candidates
+         * @return the match counting only for this candidate
+         */
+        Match getResolution(LanguageFileItem candidate) {
+            return resolutions.get(candidate);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Match fileName;
+        private Match extension;
+
+        private Node getChild(char c) {
+            // few children per node, a linear scan beats hashing
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    static class Builder {
+        private final Map<String, Match> fileNames = new TreeMap<>();
+        private final Map<String, Match> extensions = new TreeMap<>();
+        private final List<Match> matches = new ArrayList<>();
+
+        Builder addFileName(String fileName, LanguageFileItem language) {
+            add(fileNames, fileName, language);
+            return this;
+        }
+
+        /**
+         * @param extension extension starting with a dot, possibly compound (e.g .d.ts)
+         */
+        Builder addExtension(String extension, LanguageFileItem language) {
+            add(extensions, extension, language);
+            return this;
+        }
+
+        private void add(Map<String, Match> map, String name, LanguageFileItem language) {
+            if (name.isEmpty()) {
+                return;
+            }
+            Match match = map.computeIfAbsent(name, key -> {
+                Match newMatch = new Match(matches.size(), key);
+                matches.add(newMatch);
+                return newMatch;
+            });
+            match.languages.add(language);
+        }
+
+        /**
+         * @param groupFunction function returning the language a language is counted for
+         */
+        LanguageMatcher build(Function<LanguageFileItem, LanguageFileItem> groupFunction) {
+            for (Match match: new ArrayList<>(matches)) {
+                Map<LanguageFileItem, List<LanguageFileItem>> languagesByCandidate = new LinkedHashMap<>();
+                for (LanguageFileItem language: match.languages) {
+                    LanguageFileItem group = groupFunction.apply(language);
+                    if (group != null && group.getType().equalsIgnoreCase("programming")) {
+                        languagesByCandidate.computeIfAbsent(group, key -> new ArrayList<>()).add(language);
+                    }
+                }
+                if (languagesByCandidate.size() > 1) {
+                    languagesByCandidate.forEach((candidate, languages) -> {
+                        Match resolution = new Match(matches.size(), match.name + " (" + candidate.getName() + ")");
+                        resolution.languages.addAll(languages);
+                        matches.add(resolution);
+                        match.resolutions.put(candidate, resolution);
+                    });
+                }
+            }
+            TreeNode root = new TreeNode();
+            fileNames.values().forEach(match -> root.insert(match.getName()).fileName = match);
+            extensions.values().forEach(match -> root.insert(match.getName()).extension = match);
+            return new LanguageMatcher(root.freeze(), Collections.unmodifiableList(new ArrayList<>(matches)));
+        }
+    }
+
+    private static class TreeNode {
+        private final Map<Character, TreeNode> children = new TreeMap<>();
+        private Match fileName;
+        private Match extension;
+
+        private TreeNode insert(String name) {
+            TreeNode node = this;
+            for (int i = name.length() - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(name.charAt(i), key -> new TreeNode());
+            }
+            return node;
+        }
+
+        private Node freeze() {
+            Node node = new Node();
+            node.fileName = fileName;
+            node.extension = extension;
+            node.labels = new char[children.size()];
+            node.children = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, TreeNode> child: children.entrySet()) {
+                node.labels[i] = child.getKey();
+                node.children[i] = child.getValue().freeze();
+                i++;
+            }
+            return node;
+        }
+    }
+}
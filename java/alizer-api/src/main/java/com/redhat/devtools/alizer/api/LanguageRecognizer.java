@@ -11,8 +11,18 @@
 package com.redhat.devtools.alizer.api;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface LanguageRecognizer {
     List<Language> analyze(String path) throws IOException;
+    List<Language> analyze(Path root) throws IOException;
+    List<Language> analyze(Stream<Path> files) throws IOException;
+    Map<Path, List<Language>> analyzeTree(String path) throws IOException;
+    Map<Path, List<Language>> analyzeTree(Path root) throws IOException;
+    List<LanguageEstimate> estimate(String path, Duration budget) throws IOException;
+    List<LanguageEstimate> estimate(Path root, Duration budget) throws IOException;
 }
@@ -11,24 +11,29 @@
 package com.redhat.devtools.alizer.api;
 
 import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.utils.ConfigModels;
+import com.redhat.devtools.alizer.api.utils.LineCounter;
 import com.redhat.devtools.alizer.api.utils.Utils;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.io.FilenameUtils;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
-import static java.util.stream.Collectors.counting;
-import static java.util.stream.Collectors.groupingBy;
-
 public class LanguageRecognizerImpl extends Recognizer implements LanguageRecognizer {
 
     private static final Logger logger = LoggerFactory.getLogger(LanguageRecognizerImpl.class);
@@ -38,28 +43,279 @@ public class LanguageRecognizerImpl extends Recognizer implements LanguageRecogn
     }
 
     public List<Language> analyze(String path) throws IOException {
-        Map<LanguageFileItem, Integer> languagesDetected = new HashMap<>();
-        // init dictionary with languages file
-        LanguageFileHandler handler = LanguageFileHandler.get();
+        return analyze(Paths.get(path));
+    }
 
-        List<File> files = getFiles(Paths.get(path));
+    /**
+     * Analyze a project of any file system, e.g the content of a zip archive opened with the zip file system
+     *
+     * @param root path (root) where to make the analysis
+     * @return list of languages found
+     * @throws IOException if an error occurred
+     */
+    public List<Language> analyze(Path root) throws IOException {
+        return analyze(getSnapshot(root), root);
+    }
+
+    /**
+     * Analyze the files of a sub-tree of an already walked project
+     *
+     * @param snapshot snapshot of the project
+     * @param root folder of the snapshot to analyze
+     * @return list of languages found
+     */
+    List<Language> analyze(ProjectSnapshot snapshot, Path root) {
+        AnalysisCache cache = builder.getCache();
+        String fingerprint = cache == null ? null : snapshot.getFingerprint(root);
+        if (fingerprint == null) {
+            return analyzeFiles(snapshot, root);
+        }
+        String key = cache.getKey("languages/" + builder.getWeight(), root, fingerprint);
+        List<Language> languages = cache.loadLanguages(key);
+        if (languages == null) {
+            languages = analyzeFiles(snapshot, root);
+            cache.storeLanguages(key, languages);
+        }
+        return languages;
+    }
+
+    private List<Language> analyzeFiles(ProjectSnapshot snapshot, Path root) {
+        // all filenames and extensions matched + their weight, from the histograms shared by all the sub-trees
+        Map<LanguageMatcher.Match, Long> matches = snapshot.getLanguageTree(this).getMatches(root);
+        return getLanguages(matches, snapshot.getFiles(root));
+    }
+
+    public Map<Path, List<Language>> analyzeTree(String path) throws IOException {
+        return analyzeTree(Paths.get(path));
+    }
+
+    /**
+     * Analyze every folder of a project. The project is walked once, the filenames and extensions of every folder are
+     * counted once and merged bottom-up, so all folders are analyzed for about the cost of analyzing the root.
+     * Languages are not enriched, frameworks and tools are not detected.
+     *
+     * @param root path (root) where to make the analysis
+     * @return the programming languages of every folder (root included) and its sub-folders ordered by usage, folders
+     * are in walk order
+     * @throws IOException if an error occurred
+     */
+    public Map<Path, List<Language>> analyzeTree(Path root) throws IOException {
+        ProjectSnapshot snapshot = getSnapshot(root);
+        LanguageTree tree = snapshot.getLanguageTree(this);
+        Map<Path, List<Language>> languages = new LinkedHashMap<>();
+        for (Path directory: snapshot.getDirectories()) {
+            languages.put(directory, getUsages(tree.getMatches(directory)));
+        }
+        return languages;
+    }
 
-        // save all extensions extracted from files + their occurrences
-        Map<String, Long> extensions = files.stream().collect(groupingBy(file -> "." + FilenameUtils.getExtension(file.getName()), counting()));
+    public List<LanguageEstimate> estimate(String path, Duration budget) throws IOException {
+        return estimate(Paths.get(path), budget);
+    }
+
+    /**
+     * Estimate the usage of languages from a sample of the directories of the project, which is much faster
+     * than analyze on very large projects. Sampling stops once the ranking of the top languages is stable
+     * or when the budget is exceeded.
+     *
+     * @param root path (root) where to make the estimate
+     * @param budget maximum time spent sampling the project
+     * @return list of programming languages ordered by estimated usage, with their margin of error
+     * @throws IOException if an error occurred
+     */
+    public List<LanguageEstimate> estimate(Path root, Duration budget) throws IOException {
+        return new LanguageEstimator(this, builder.getTraversalFilter(), LanguageEstimator.DEFAULT_DIRECTORIES_PER_DEPTH)
+                .estimate(root, budget);
+    }
+
+    /**
+     * Analyze files as they are streamed. Filenames and extensions are counted on the fly and only the files which may be
+     * used by an enricher (e.g pom.xml, package.json) are kept, so memory does not depend on the number of files streamed.
+     *
+     * @param files stream of regular files to analyze
+     * @return list of languages found
+     */
+    public List<Language> analyze(Stream<Path> files) {
+        List<LanguageEnricherProvider> enrichers = Utils.getEnrichers();
+        WeightedMatches matches = new WeightedMatches();
+        List<File> candidateFiles = new ArrayList<>();
+        files.forEach(path -> {
+            Path fileName = path.getFileName();
+            if (fileName == null) {
+                return;
+            }
+            LanguageMatcher.Match match = getMatch(fileName.toString());
+            if (match != null) {
+                matches.add(match, path, -1);
+            }
+            File file = PathFile.of(path);
+            if (enrichers.stream().anyMatch(enricher -> enricher.isCandidateFile(file))) {
+                candidateFiles.add(file);
+            }
+        });
+        return getLanguages(matches.resolve(), candidateFiles);
+    }
+
+    /**
+     * @param fileName name of a file
+     * @return the filename or extension matched by the name, null if no language is known for it
+     */
+    LanguageMatcher.Match getMatch(String fileName) {
+        return LanguageFileHandler.get().getMatcher().match(fileName);
+    }
+
+    /**
+     * @param file a file
+     * @return the filename or extension matched by the name of the file, resolved from the content of the file
+     * when the name is ambiguous, null if no language is known for it
+     */
+    LanguageMatcher.Match getMatch(Path file) {
+        LanguageMatcher.Match match = getMatch(file.getFileName().toString());
+        return match == null ? null : LanguageClassifier.get().classify(match, file);
+    }
+
+    /**
+     * Count the weight of the filename or extension matched by the file, see {@link #getMatch(Path)}
+     *
+     * @param size size of the file in bytes, negative if unknown
+     */
+    void count(Map<LanguageMatcher.Match, Long> matches, Path file, long size) {
+        LanguageMatcher.Match match = getMatch(file);
+        if (match != null) {
+            matches.merge(match, weigh(file, size), Long::sum);
+        }
+    }
 
-        // get languages belonging to extensions found
-        extensions.keySet().forEach(extension -> {
-            List<LanguageFileItem> languages = handler.getLanguagesByExtension(extension);
+    /**
+     * @param file a file
+     * @param size size of the file in bytes, 0 or negative if unknown
+     * @return how much the file counts in the usage of its languages, see {@link RecognizerFactory#withWeight(LanguageWeight)}
+     */
+    long weigh(Path file, long size) {
+        try {
+            switch (builder.getWeight()) {
+                case BYTES:
+                    return size > 0 ? size : Files.size(file);
+                case LINES:
+                    return LineCounter.countLines(file);
+                default:
+                    return 1;
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to weigh " + file, e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return how much a file of the table counts in the usage of its languages, see {@link #weigh(Path, long)}
+     */
+    long weigh(PathTable files, int index) {
+        // no need to build the path of the file when every file counts for one
+        return getWeight() == LanguageWeight.FILES ? 1 : weigh(files.getPath(index), files.getSize(index));
+    }
+
+    LanguageWeight getWeight() {
+        return builder.getWeight();
+    }
+
+    /**
+     * Filenames and extensions matched + their weight. Files are weighed by batches, the files of a batch are read in
+     * parallel when their lines are counted. Files with an ambiguous name are classified once all files are added.
+     */
+    private class WeightedMatches {
+        private static final int BATCH_SIZE = 1024;
+
+        private final Map<LanguageMatcher.Match, Long> matches = new HashMap<>();
+        private final AmbiguousFiles ambiguousFiles = new AmbiguousFiles(LanguageClassifier.get());
+        private final LanguageMatcher.Match[] batchMatches = new LanguageMatcher.Match[BATCH_SIZE];
+        private final Path[] batchFiles = new Path[BATCH_SIZE];
+        private final long[] batchSizes = new long[BATCH_SIZE];
+        private int batchLength = 0;
+
+        /**
+         * @param match match of the name of the file
+         * @param file file matched
+         * @param size size of the file in bytes, negative if unknown
+         */
+        private void add(LanguageMatcher.Match match, Path file, long size) {
+            if (builder.getWeight() == LanguageWeight.FILES) {
+                count(match, file, 1);
+                return;
+            }
+            batchMatches[batchLength] = match;
+            batchFiles[batchLength] = file;
+            batchSizes[batchLength] = size;
+            if (++batchLength == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            long[] weights = new long[batchLength];
+            IntStream indexes = IntStream.range(0, batchLength);
+            if (builder.getWeight() == LanguageWeight.LINES) {
+                indexes = indexes.parallel();
+            }
+            indexes.forEach(i -> weights[i] = weigh(batchFiles[i], batchSizes[i]));
+            for (int i = 0; i < batchLength; i++) {
+                count(batchMatches[i], batchFiles[i], weights[i]);
+            }
+            Arrays.fill(batchMatches, null);
+            Arrays.fill(batchFiles, null);
+            batchLength = 0;
+        }
+
+        private void count(LanguageMatcher.Match match, Path file, long weight) {
+            matches.merge(match, weight, Long::sum);
+            if (ambiguousFiles.isAmbiguous(match)) {
+                ambiguousFiles.add(match, file, weight);
+            }
+        }
+
+        private Map<LanguageMatcher.Match, Long> resolve() {
+            flush();
+            ambiguousFiles.resolve(matches);
+            return matches;
+        }
+    }
+
+    /**
+     * Compute the languages used from the filenames and extensions found
+     *
+     * @param matches all filenames and extensions found + their occurrences
+     * @param files files passed to the enrichers
+     * @return list of programming languages ordered by usage
+     */
+    private List<Language> getLanguages(Map<LanguageMatcher.Match, Long> matches, List<File> files) {
+        return getUsages(matches).stream().
+                map(lang -> getDetailedLanguage(lang, files)).
+                collect(Collectors.toList());
+    }
+
+    /**
+     * Compute the usage of the languages from the filenames and extensions found, without enriching them
+     *
+     * @param matches all filenames and extensions found + their occurrences
+     * @return list of programming languages ordered by usage
+     */
+    List<Language> getUsages(Map<LanguageMatcher.Match, Long> matches) {
+        Map<LanguageFileItem, Long> languagesDetected = new HashMap<>();
+        // init dictionary with languages file
+        LanguageFileHandler handler = LanguageFileHandler.get();
+
+        // get languages belonging to filenames and extensions found
+        matches.keySet().forEach(match -> {
+            List<LanguageFileItem> languages = match.getLanguages();
             if (languages.isEmpty()) return;
             languages.forEach(language -> {
-                LanguageFileItem tmpLanguage = language.getGroup().isEmpty() ? language : handler.getLanguageByName(language.getGroup());
-                long percentage = languagesDetected.getOrDefault(tmpLanguage, 0) + extensions.get(extension);
-                languagesDetected.put(tmpLanguage, (int) percentage);
+                LanguageFileItem tmpLanguage = handler.getGroupLanguage(language);
+                languagesDetected.merge(tmpLanguage, matches.get(match), Long::sum);
             });
         });
 
         // get only programming language and calculate percentage
-        int totalProgrammingOccurences = (int) languagesDetected.keySet().stream().
+        long totalProgrammingOccurences = languagesDetected.keySet().stream().
                 filter(lang -> lang.getType().equalsIgnoreCase("programming")).
                 mapToLong(languagesDetected::get).sum();
 
@@ -68,16 +324,15 @@ public class LanguageRecognizerImpl extends Recognizer implements LanguageRecogn
                 filter(lang -> lang.getType().equalsIgnoreCase("programming")).
                 filter(lang -> (double)languagesDetected.get(lang) / totalProgrammingOccurences > 0.02).
                 map(lang -> new Language(lang.getName(), lang.getAliases(), (double)languagesDetected.get(lang) / totalProgrammingOccurences * 100, lang.canBeComponent())).
-                map(lang -> getDetailedLanguage(lang, files)).
                 sorted(Comparator.comparingDouble(Language::getUsageInPercentage).reversed()).
                 collect(Collectors.toList());
     }
 
-    private Language getDetailedLanguage(Language language, List<File> files) {
+    Language getDetailedLanguage(Language language, List<File> files) {
         LanguageEnricherProvider enricher = Utils.getEnricherByLanguage(language.getName());
         if (enricher != null) {
             try {
-                return enricher.create().getEnrichedLanguage(language, files);
+                return ConfigModels.run(() -> enricher.getEnrichedLanguage(language, files));
             } catch (IOException e) {
                 logger.warn(e.getLocalizedMessage(), e);
             }
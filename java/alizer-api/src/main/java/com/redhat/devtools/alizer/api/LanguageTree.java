@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Language histograms of every folder of a snapshot, so the filenames and extensions found in any sub-tree are looked
+ * up instead of being counted again for every component.
+ *
+ * Files are matched and weighed in parallel, the files directly within a folder are summed in a dense array owned by
+ * the counting thread, then histograms are merged bottom-up one depth at a time, every folder merging its own
+ * children. Files with an ambiguous name are kept apart and resolved when a sub-tree is looked up, exactly as
+ * {@link AmbiguousFiles} does when the files of the sub-tree are analyzed, each of them being classified once.
+ */
+class LanguageTree {
+
+    private final PathTable files;
+    private final ProjectSnapshot snapshot;
+    private final LanguageMatcher matcher;
+    private final LanguageClassifier classifier;
+    private final Map<Path, Integer> directoryIndexes;
+    private final LanguageHistogram[] histograms;
+    // files with an ambiguous name, in walk order, with their match and weight
+    private final int[] ambiguousFiles;
+    private final LanguageMatcher.Match[] ambiguousMatches;
+    private final long[] ambiguousWeights;
+    private final Map<Path, LanguageMatcher.Match> classified = new ConcurrentHashMap<>();
+
+    private LanguageTree(ProjectSnapshot snapshot, LanguageMatcher matcher, LanguageClassifier classifier,
+                         Map<Path, Integer> directoryIndexes, LanguageHistogram[] histograms, int[] ambiguousFiles,
+                         LanguageMatcher.Match[] ambiguousMatches, long[] ambiguousWeights) {
+        this.files = snapshot.getFiles();
+        this.snapshot = snapshot;
+        this.matcher = matcher;
+        this.classifier = classifier;
+        this.directoryIndexes = directoryIndexes;
+        this.histograms = histograms;
+        this.ambiguousFiles = ambiguousFiles;
+        this.ambiguousMatches = ambiguousMatches;
+        this.ambiguousWeights = ambiguousWeights;
+    }
+
+    /**
+     * @param snapshot snapshot of the project
+     * @param recognizer recognizer weighing the files
+     * @return the histograms of all the folders of the snapshot
+     */
+    static LanguageTree of(ProjectSnapshot snapshot, LanguageRecognizerImpl recognizer) {
+        LanguageMatcher matcher = LanguageFileHandler.get().getMatcher();
+        LanguageClassifier classifier = LanguageClassifier.get();
+        PathTable files = snapshot.getFiles();
+
+        // match and weigh every file
+        int[] matchIds = new int[files.size()];
+        long[] weights = new long[files.size()];
+        IntStream.range(0, files.size()).parallel().forEach(i -> {
+            LanguageMatcher.Match match = matcher.match(files.getName(i));
+            matchIds[i] = match == null ? -1 : match.getId();
+            weights[i] = match == null ? 0 : recognizer.weigh(files, i);
+        });
+
+        // folders are in walk order, a folder comes before its sub-folders
+        List<Path> directories = snapshot.getDirectories();
+        Map<Path, Integer> directoryIndexes = new HashMap<>();
+        for (int i = 0; i < directories.size(); i++) {
+            directoryIndexes.put(directories.get(i), i);
+        }
+        int[] parents = new int[directories.size()];
+        int[] depths = new int[directories.size()];
+        int maxDepth = 0;
+        for (int i = 0; i < directories.size(); i++) {
+            Integer parent = i == 0 ? null : directoryIndexes.get(directories.get(i).getParent());
+            parents[i] = parent == null ? -1 : parent;
+            depths[i] = parent == null ? 0 : depths[parent] + 1;
+            maxDepth = Math.max(maxDepth, depths[i]);
+        }
+
+        // files and children of every folder, grouped with a counting sort
+        int[][] filesPerDirectory = group(directories.size(), files.size(), files::getDirectoryIndex);
+        int[][] childrenPerDirectory = group(directories.size(), directories.size(), i -> parents[i]);
+        int[][] directoriesPerDepth = group(maxDepth + 1, directories.size(), i -> depths[i]);
+
+        LanguageHistogram[] histograms = new LanguageHistogram[directories.size()];
+        ThreadLocal<LanguageHistogram.Builder> builders = ThreadLocal.withInitial(() -> new LanguageHistogram.Builder(matcher.size()));
+        for (int depth = maxDepth; depth >= 0; depth--) {
+            // children are complete, every folder only writes its own histogram
+            Arrays.stream(directoriesPerDepth[depth]).parallel().forEach(directory -> {
+                LanguageHistogram.Builder builder = builders.get();
+                for (int file: filesPerDirectory[directory]) {
+                    if (matchIds[file] >= 0) {
+                        builder.add(matchIds[file], weights[file]);
+                    }
+                }
+                LanguageHistogram histogram = builder.build();
+                for (int child: childrenPerDirectory[directory]) {
+                    histogram = LanguageHistogram.merge(histogram, histograms[child]);
+                }
+                histograms[directory] = histogram;
+            });
+        }
+
+        int[] ambiguousFiles = IntStream.range(0, files.size())
+                .filter(i -> matchIds[i] >= 0 && classifier.canClassify(matcher.get(matchIds[i])))
+                .toArray();
+        LanguageMatcher.Match[] ambiguousMatches = new LanguageMatcher.Match[ambiguousFiles.length];
+        long[] ambiguousWeights = new long[ambiguousFiles.length];
+        for (int i = 0; i < ambiguousFiles.length; i++) {
+            ambiguousMatches[i] = matcher.get(matchIds[ambiguousFiles[i]]);
+            ambiguousWeights[i] = weights[ambiguousFiles[i]];
+        }
+        return new LanguageTree(snapshot, matcher, classifier, directoryIndexes, histograms, ambiguousFiles,
+                ambiguousMatches, ambiguousWeights);
+    }
+
+    /**
+     * @param directory folder of the snapshot
+     * @return the histogram of the folder and its sub-folders, files with an ambiguous name are counted for the
+     * ambiguous match, empty if the folder is not part of the snapshot
+     */
+    LanguageHistogram getHistogram(Path directory) {
+        Integer index = directoryIndexes.get(directory);
+        return index == null ? LanguageHistogram.EMPTY : histograms[index];
+    }
+
+    /**
+     * @param directory folder of the snapshot
+     * @return all filenames and extensions found within the folder and its sub-folders + their weight, files with
+     * an ambiguous name are resolved from their content
+     */
+    Map<LanguageMatcher.Match, Long> getMatches(Path directory) {
+        Integer index = directoryIndexes.get(directory);
+        if (index == null) {
+            return Collections.emptyMap();
+        }
+        Map<LanguageMatcher.Match, Long> matches = histograms[index].toMatches(matcher);
+        int[] range = snapshot.getFileRange(directory);
+        int from = lowerBound(ambiguousFiles, range[0]);
+        int to = lowerBound(ambiguousFiles, range[1]);
+        if (from < to) {
+            AmbiguousFiles ambiguous = new AmbiguousFiles(classifier, classified);
+            for (int i = from; i < to; i++) {
+                ambiguous.add(ambiguousMatches[i], files.getPath(ambiguousFiles[i]), ambiguousWeights[i]);
+            }
+            ambiguous.resolve(matches);
+        }
+        return matches;
+    }
+
+    /**
+     * @return the indexes of the elements of every group, in their original order
+     */
+    private static int[][] group(int groupCount, int size, IntUnaryOperator groupOf) {
+        int[] counts = new int[groupCount];
+        for (int i = 0; i < size; i++) {
+            int group = groupOf.applyAsInt(i);
+            if (group >= 0) {
+                counts[group]++;
+            }
+        }
+        int[][] groups = new int[groupCount][];
+        for (int i = 0; i < groupCount; i++) {
+            groups[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            int group = groupOf.applyAsInt(i);
+            if (group >= 0) {
+                groups[group][counts[group]++] = i;
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * @return the index of the first value greater than or equal to the key
+     */
+    private static int lowerBound(int[] values, int key) {
+        int index = Arrays.binarySearch(values, key);
+        return index < 0 ? -index - 1 : index;
+    }
+}
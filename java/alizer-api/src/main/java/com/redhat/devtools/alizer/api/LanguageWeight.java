@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+/**
+ * How much a file counts in the usage of its languages
+ */
+public enum LanguageWeight {
+    /**
+     * Every file counts for one
+     */
+    FILES,
+    /**
+     * A file counts for its size in bytes
+     */
+    BYTES,
+    /**
+     * A file counts for its number of lines. Files are read, lines are counted in parallel
+     */
+    LINES
+}
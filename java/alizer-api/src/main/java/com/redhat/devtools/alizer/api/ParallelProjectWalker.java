@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Walk the project with a fork-join pool. Every directory is listed by its own task and idle workers steal
+ * pending directories, so the per-directory syscall latency is spread over all threads.
+ * The snapshot produced has the same content and order as the one of the sequential walker.
+ */
+public class ParallelProjectWalker implements ProjectWalker {
+
+    private final TraversalFilter filter;
+    private final int parallelism;
+    private final boolean offHeap;
+
+    public ParallelProjectWalker(TraversalFilter filter, int parallelism) {
+        this(filter, parallelism, false);
+    }
+
+    /**
+     * @param filter filter deciding which folders must not be walked
+     * @param parallelism number of threads listing directories
+     * @param offHeap true to store the file names of the snapshot off-heap
+     */
+    public ParallelProjectWalker(TraversalFilter filter, int parallelism, boolean offHeap) {
+        this.filter = filter;
+        this.parallelism = parallelism;
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public ProjectSnapshot walk(Path root) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        DirectoryNode rootNode;
+        try {
+            rootNode = pool.invoke(new DirectoryTask(root, filter));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+
+        ProjectSnapshot.Builder builder = new ProjectSnapshot.Builder(root, offHeap);
+        addToSnapshot(rootNode, builder);
+        return builder.build();
+    }
+
+    private void addToSnapshot(DirectoryNode node, ProjectSnapshot.Builder builder) {
+        builder.enterDirectory(node.directory);
+        for (Object entry: node.entries) {
+            if (entry instanceof DirectoryNode) {
+                addToSnapshot((DirectoryNode) entry, builder);
+            } else {
+                FileEntry file = (FileEntry) entry;
+                builder.addFile(file.path, file.attrs);
+            }
+        }
+        builder.exitDirectory(node.directory);
+    }
+
+    /**
+     * Content of a directory in listing order. Entries are either regular files (FileEntry) or sub-folders (DirectoryNode)
+     */
+    private static class DirectoryNode {
+        private final Path directory;
+        private final List<Object> entries = new ArrayList<>();
+
+        private DirectoryNode(Path directory) {
+            this.directory = directory;
+        }
+    }
+
+    private static class FileEntry {
+        private final Path path;
+        private final BasicFileAttributes attrs;
+
+        private FileEntry(Path path, BasicFileAttributes attrs) {
+            this.path = path;
+            this.attrs = attrs;
+        }
+    }
+
+    private static class DirectoryTask extends RecursiveTask<DirectoryNode> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        // filter which accepted the directory, the one applied to its entries is derived from it
+        private final TraversalFilter parentFilter;
+
+        private DirectoryTask(Path directory, TraversalFilter parentFilter) {
+            this.directory = directory;
+            this.parentFilter = parentFilter;
+        }
+
+        @Override
+        protected DirectoryNode compute() {
+            DirectoryNode node = new DirectoryNode(directory);
+            List<Object> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                TraversalFilter filter = parentFilter.forDirectory(directory);
+                for (Path entry: stream) {
+                    BasicFileAttributes attrs = ProjectSnapshot.followFileLink(entry,
+                            Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                    if (attrs.isDirectory()) {
+                        if (!filter.skipDirectory(entry)) {
+                            DirectoryTask task = new DirectoryTask(entry, filter);
+                            task.fork();
+                            entries.add(task);
+                        }
+                    } else if (attrs.isRegularFile() && !filter.skipFile(entry)) {
+                        entries.add(new FileEntry(entry, attrs));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (Object entry: entries) {
+                node.entries.add(entry instanceof DirectoryTask ? ((DirectoryTask) entry).join() : entry);
+            }
+            return node;
+        }
+    }
+}
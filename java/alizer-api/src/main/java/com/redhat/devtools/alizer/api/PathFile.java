@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * File bound to a path of any file system (e.g the content of a zip archive). Enrichers and detectors only
+ * deal with files so this keeps the original path reachable through {@link #toPath()}, which must be used to
+ * read the content. Files of the default file system are plain {@link File} instances.
+ *
+ * The path is not serialized as file systems cannot be, a deserialized PathFile is resolved to a plain {@link File}
+ * of the default file system with the same path name.
+ */
+class PathFile extends File {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Path path;
+
+    private PathFile(Path path) {
+        super(path.toString());
+        this.path = path;
+    }
+
+    /**
+     * @param path path to convert
+     * @return a file whose toPath() returns path
+     */
+    static File of(Path path) {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return path.toFile();
+        }
+        return new PathFile(path);
+    }
+
+    private Object readResolve() {
+        return new File(getPath());
+    }
+
+    @Override
+    public Path toPath() {
+        return path;
+    }
+
+    @Override
+    public String getName() {
+        Path name = toPath().getFileName();
+        return name == null ? "" : name.toString();
+    }
+
+    @Override
+    public File getParentFile() {
+        Path parent = toPath().getParent();
+        return parent == null ? null : new PathFile(parent);
+    }
+
+    @Override
+    public File getAbsoluteFile() {
+        return new PathFile(toPath().toAbsolutePath());
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(toPath());
+    }
+
+    @Override
+    public boolean isFile() {
+        return Files.isRegularFile(toPath());
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return Files.isDirectory(toPath());
+    }
+
+    @Override
+    public long length() {
+        try {
+            return Files.size(toPath());
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
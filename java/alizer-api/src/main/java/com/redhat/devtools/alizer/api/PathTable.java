@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact and immutable list of files. Every directory is stored only once and files only keep
+ * the index of their directory, their size, their last modification time plus their name encoded in UTF-8
+ * within a single shared buffer, which can be allocated off-heap. File instances are created on access only.
+ */
+public class PathTable extends AbstractList<File> implements RandomAccess {
+
+    private final Path[] directories;
+    private final int[] fileDirectories;
+    private final int[] nameOffsets;
+    private final long[] sizes;
+    private final long[] lastModifiedTimes;
+    private final ByteBuffer names;
+    private final int from;
+    private final int size;
+
+    private PathTable(Path[] directories, int[] fileDirectories, int[] nameOffsets, long[] sizes, long[] lastModifiedTimes,
+                      ByteBuffer names, int from, int size) {
+        this.directories = directories;
+        this.fileDirectories = fileDirectories;
+        this.nameOffsets = nameOffsets;
+        this.sizes = sizes;
+        this.lastModifiedTimes = lastModifiedTimes;
+        this.names = names;
+        this.from = from;
+        this.size = size;
+    }
+
+    @Override
+    public File get(int index) {
+        return PathFile.of(getPath(index));
+    }
+
+    public Path getPath(int index) {
+        return getDirectory(index).resolve(getName(index));
+    }
+
+    /**
+     * Return the name of a file without building its full path
+     *
+     * @param index index of the file
+     * @return the file name
+     */
+    public String getName(int index) {
+        int position = toPosition(index);
+        int offset = nameOffsets[position];
+        byte[] name = new byte[nameOffsets[position + 1] - offset];
+        ByteBuffer buffer = names.duplicate();
+        buffer.position(offset);
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public Path getDirectory(int index) {
+        return directories[fileDirectories[toPosition(index)]];
+    }
+
+    /**
+     * @param index index of the file
+     * @return index of the directory of the file, directories are numbered in the order they were added
+     */
+    int getDirectoryIndex(int index) {
+        return fileDirectories[toPosition(index)];
+    }
+
+    /**
+     * @param index index of the file
+     * @return size of the file in bytes when it was listed, 0 if unknown
+     */
+    public long getSize(int index) {
+        return sizes[toPosition(index)];
+    }
+
+    /**
+     * @param index index of the file
+     * @return last modification time of the file in milliseconds when it was listed, 0 if unknown
+     */
+    public long getLastModifiedTime(int index) {
+        return lastModifiedTimes[toPosition(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return a view of a portion of this table. The view shares the storage of this table
+     *
+     * @param fromIndex low endpoint (inclusive)
+     * @param toIndex high endpoint (exclusive)
+     * @return the view
+     */
+    @Override
+    public PathTable subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        return new PathTable(directories, fileDirectories, nameOffsets, sizes, lastModifiedTimes, names, from + fromIndex, toIndex - fromIndex);
+    }
+
+    private int toPosition(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return from + index;
+    }
+
+    /**
+     * Collect the files of a table. Nothing is shared with the table built
+     */
+    static class Builder {
+        private final boolean offHeap;
+        private final List<Path> directories = new ArrayList<>();
+        private int[] fileDirectories = new int[64];
+        private int[] nameOffsets = new int[65];
+        private long[] sizes = new long[64];
+        private long[] lastModifiedTimes = new long[64];
+        private byte[] names = new byte[1024];
+        private int size = 0;
+
+        Builder(boolean offHeap) {
+            this.offHeap = offHeap;
+        }
+
+        /**
+         * Intern a directory
+         *
+         * @param directory directory to add
+         * @return index of the directory to use when adding its files
+         */
+        int addDirectory(Path directory) {
+            directories.add(directory);
+            return directories.size() - 1;
+        }
+
+        void addFile(int directoryIndex, String name, long fileSize, long lastModifiedTime) {
+            byte[] nameAsBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (size == fileDirectories.length) {
+                fileDirectories = Arrays.copyOf(fileDirectories, size * 2);
+                nameOffsets = Arrays.copyOf(nameOffsets, size * 2 + 1);
+                sizes = Arrays.copyOf(sizes, size * 2);
+                lastModifiedTimes = Arrays.copyOf(lastModifiedTimes, size * 2);
+            }
+            int offset = nameOffsets[size];
+            if (offset + nameAsBytes.length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, offset + nameAsBytes.length));
+            }
+            System.arraycopy(nameAsBytes, 0, names, offset, nameAsBytes.length);
+            fileDirectories[size] = directoryIndex;
+            sizes[size] = fileSize;
+            lastModifiedTimes[size] = lastModifiedTime;
+            nameOffsets[size + 1] = offset + nameAsBytes.length;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        PathTable build() {
+            int namesLength = nameOffsets[size];
+            ByteBuffer namesBuffer;
+            if (offHeap) {
+                namesBuffer = ByteBuffer.allocateDirect(namesLength);
+                namesBuffer.put(names, 0, namesLength);
+                namesBuffer.flip();
+            } else {
+                namesBuffer = ByteBuffer.wrap(Arrays.copyOf(names, namesLength));
+            }
+            return new PathTable(directories.toArray(new Path[0]),
+                    Arrays.copyOf(fileDirectories, size),
+                    Arrays.copyOf(nameOffsets, size + 1),
+                    Arrays.copyOf(sizes, size),
+                    Arrays.copyOf(lastModifiedTimes, size),
+                    namesBuffer.asReadOnlyBuffer(),
+                    0,
+                    size);
+        }
+    }
+}
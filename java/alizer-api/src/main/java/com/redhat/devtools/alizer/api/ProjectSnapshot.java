@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory view of a project tree built by a single traversal.
+ * Files are stored in depth-first order so the files of any sub-folder are a contiguous range of the whole list,
+ * which makes querying a subtree a constant time operation. The list itself is a compact {@link PathTable}.
+ */
+public class ProjectSnapshot {
+
+    private final Path root;
+    private final PathTable files;
+    private final Map<Path, int[]> directories;
+
+    private final boolean withAttributes;
+    private Map<Path, String> fingerprints;
+    private final Map<LanguageWeight, LanguageTree> languageTrees = new EnumMap<>(LanguageWeight.class);
+
+    private ProjectSnapshot(Path root, PathTable files, Map<Path, int[]> directories, boolean withAttributes) {
+        this.root = root;
+        this.files = files;
+        this.directories = Collections.unmodifiableMap(directories);
+        this.withAttributes = withAttributes;
+    }
+
+    /**
+     * Walk the whole tree starting from root and keep all regular files found
+     *
+     * @param root path (root) where to start the walk
+     * @return the snapshot of the tree
+     * @throws IOException if an error occurred while walking the tree
+     */
+    public static ProjectSnapshot of(Path root) throws IOException {
+        return of(root, TraversalFilter.NONE);
+    }
+
+    /**
+     * Walk the tree starting from root and keep all regular files found. Folders skipped by the filter are
+     * pruned during the traversal so their content is never listed. The root itself is always walked.
+     *
+     * @param root path (root) where to start the walk
+     * @param filter filter deciding which folders must not be walked
+     * @return the snapshot of the tree
+     * @throws IOException if an error occurred while walking the tree
+     */
+    public static ProjectSnapshot of(Path root, TraversalFilter filter) throws IOException {
+        return new SequentialProjectWalker(filter).walk(root);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return all regular files of the project
+     */
+    public PathTable getFiles() {
+        return files;
+    }
+
+    /**
+     * Return all regular files within directory and its sub-folders
+     *
+     * @param directory directory of the snapshot
+     * @return list of files, empty if directory is not part of the snapshot
+     */
+    public PathTable getFiles(Path directory) {
+        int[] range = directories.get(directory);
+        if (range == null) {
+            return files.subList(0, 0);
+        }
+        return files.subList(range[0], range[1]);
+    }
+
+    /**
+     * @param directory directory of the snapshot
+     * @return the first (inclusive) and last (exclusive) indexes of the files of the directory and its sub-folders
+     * within {@link #getFiles()}, null if directory is not part of the snapshot
+     */
+    int[] getFileRange(Path directory) {
+        int[] range = directories.get(directory);
+        return range == null ? null : range.clone();
+    }
+
+    /**
+     * Return only the regular files stored directly in directory (no sub-folders)
+     *
+     * @param directory directory of the snapshot
+     * @return list of files, empty if directory is not part of the snapshot
+     */
+    public List<File> getFilesInDirectory(Path directory) {
+        List<File> filesInDirectory = new ArrayList<>();
+        int[] range = directories.get(directory);
+        if (range == null) {
+            return filesInDirectory;
+        }
+        for (int i = range[0]; i < range[1]; i++) {
+            if (directory.equals(files.getDirectory(i))) {
+                filesInDirectory.add(files.get(i));
+            }
+        }
+        return filesInDirectory;
+    }
+
+    /**
+     * @return all directories of the project (root included) in walk order
+     */
+    public List<Path> getDirectories() {
+        return new ArrayList<>(directories.keySet());
+    }
+
+    public boolean containsDirectory(Path directory) {
+        return directories.containsKey(directory);
+    }
+
+    /**
+     * Return the Merkle fingerprint of a directory, built from the names, sizes and modification times of its files
+     * and from the fingerprints of its sub-folders. It changes as soon as anything changes within the directory.
+     *
+     * @param directory directory of the snapshot
+     * @return the fingerprint as an hexadecimal string, null if directory is not part of the snapshot or if
+     * the sizes and modification times of the files are not known
+     */
+    public synchronized String getFingerprint(Path directory) {
+        if (!withAttributes) {
+            return null;
+        }
+        if (fingerprints == null) {
+            fingerprints = computeFingerprints();
+        }
+        return fingerprints.get(directory);
+    }
+
+    /**
+     * Return the language histograms of all the directories, computed once per weight like the fingerprints
+     *
+     * @param recognizer recognizer weighing the files
+     * @return the histograms
+     */
+    synchronized LanguageTree getLanguageTree(LanguageRecognizerImpl recognizer) {
+        return languageTrees.computeIfAbsent(recognizer.getWeight(), weight -> LanguageTree.of(this, recognizer));
+    }
+
+    private Map<Path, String> computeFingerprints() {
+        Map<Path, List<String>> entries = new HashMap<>();
+        directories.keySet().forEach(directory -> entries.put(directory, new ArrayList<>()));
+        for (int i = 0; i < files.size(); i++) {
+            entries.get(files.getDirectory(i)).add("f/" + files.getName(i) + "/" + files.getSize(i) + "/" + files.getLastModifiedTime(i));
+        }
+
+        // sub-folders are walked after their parent, going backward computes children first
+        Map<Path, String> result = new HashMap<>();
+        List<Path> walked = new ArrayList<>(directories.keySet());
+        for (int i = walked.size() - 1; i >= 0; i--) {
+            Path directory = walked.get(i);
+            List<String> directoryEntries = entries.get(directory);
+            // listing order may vary, sort to get the same fingerprint
+            Collections.sort(directoryEntries);
+            MessageDigest digest = newDigest();
+            for (String entry: directoryEntries) {
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            String fingerprint = toHex(digest.digest());
+            result.put(directory, fingerprint);
+            List<String> parentEntries = directory.equals(root) ? null : entries.get(directory.getParent());
+            if (parentEntries != null) {
+                parentEntries.add("d/" + directory.getFileName() + "/" + fingerprint);
+            }
+        }
+        return result;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b: bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Walkers read the attributes of entries without following links, so a link to a directory is never walked and
+     * cannot create a cycle. Links to regular files are kept as the files they point to.
+     *
+     * @param path entry of a directory
+     * @param attrs attributes of the entry, read without following links
+     * @return the attributes of the target if the entry is a link to a regular file, attrs otherwise
+     */
+    static BasicFileAttributes followFileLink(Path path, BasicFileAttributes attrs) {
+        if (!attrs.isSymbolicLink()) {
+            return attrs;
+        }
+        try {
+            BasicFileAttributes target = Files.readAttributes(path, BasicFileAttributes.class);
+            return target.isRegularFile() ? target : attrs;
+        } catch (IOException e) {
+            // broken link
+            return attrs;
+        }
+    }
+
+    /**
+     * Collect entries in depth-first order. Every directory must be exited after all its content has been added.
+     */
+    static class Builder {
+        private final Path root;
+        private final PathTable.Builder files;
+        private final Map<Path, int[]> directories = new LinkedHashMap<>();
+        private final Deque<Integer> directoryIndexes = new ArrayDeque<>();
+        private boolean withAttributes = true;
+
+        Builder(Path root) {
+            this(root, false);
+        }
+
+        Builder(Path root, boolean offHeap) {
+            this.root = root;
+            this.files = new PathTable.Builder(offHeap);
+        }
+
+        void enterDirectory(Path dir) {
+            directories.put(dir, new int[] { files.size(), files.size() });
+            directoryIndexes.push(files.addDirectory(dir));
+        }
+
+        void addFile(Path file) {
+            withAttributes = false;
+            files.addFile(directoryIndexes.element(), file.getFileName().toString(), 0, 0);
+        }
+
+        void addFile(Path file, BasicFileAttributes attrs) {
+            addFile(file, attrs.size(), attrs.lastModifiedTime().toMillis());
+        }
+
+        void addFile(Path file, long size, long lastModifiedTime) {
+            files.addFile(directoryIndexes.element(), file.getFileName().toString(), size, lastModifiedTime);
+        }
+
+        void exitDirectory(Path dir) {
+            directories.get(dir)[1] = files.size();
+            directoryIndexes.pop();
+        }
+
+        ProjectSnapshot build() {
+            return new ProjectSnapshot(root, files.build(), directories, withAttributes);
+        }
+    }
+}
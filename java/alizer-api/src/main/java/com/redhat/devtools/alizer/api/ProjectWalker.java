@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Strategy used by the recognizers to list all files of a project. Links to regular files are listed as files,
+ * links to folders are not walked.
+ */
+public interface ProjectWalker {
+
+    /**
+     * Walk the tree starting from root and return its snapshot
+     *
+     * @param root path (root) where to start the walk
+     * @return the snapshot of the tree
+     * @throws IOException if an error occurred while walking the tree
+     */
+    ProjectSnapshot walk(Path root) throws IOException;
+}
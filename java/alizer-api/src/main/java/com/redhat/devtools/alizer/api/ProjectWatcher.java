@@ -0,0 +1,582 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.utils.Utils;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keep the components of a project up to date while it is edited.
+ *
+ * The project is analyzed once, then every folder is watched and file events are applied to an in-memory copy of
+ * the tree: adding or removing a source file only updates the filename and extension weights of the components
+ * containing it, and enrichers only run again for a component whose configuration files (e.g pom.xml) changed. Adding or
+ * removing a configuration file changes the components themselves, they are detected again from the in-memory
+ * tree without walking the project. Listeners are notified of every component added, removed or changed.
+ */
+public class ProjectWatcher implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWatcher.class);
+
+    private final RecognizerFactory builder;
+    private final Path root;
+    private final LanguageRecognizerImpl languageRecognizer;
+    private final ComponentRecognizerImpl componentRecognizer;
+    private final List<LanguageEnricherProvider> enrichers = Utils.getEnrichers();
+    private final List<ComponentChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, DirectoryEntry> directories = new HashMap<>();
+    // matches of the files with an ambiguous name, resolved from their content
+    private final Map<Path, LanguageMatcher.Match> resolvedMatches = new HashMap<>();
+    // weights of the files counted, kept when files are not all counted for one so removed files can be subtracted
+    private final Map<Path, Long> weights = new HashMap<>();
+    private List<ComponentState> components = Collections.emptyList();
+    private boolean structureChanged = false;
+    private Thread thread;
+
+    ProjectWatcher(RecognizerFactory builder, Path root) throws IOException {
+        this.builder = builder;
+        this.root = root;
+        this.languageRecognizer = new LanguageRecognizerImpl(builder);
+        this.componentRecognizer = new ComponentRecognizerImpl(builder);
+        this.watchService = root.getFileSystem().newWatchService();
+        ProjectSnapshot snapshot = builder.createProjectWalker().walk(root);
+        index(snapshot);
+        components = detectComponents(snapshot);
+    }
+
+    public void addListener(ComponentChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ComponentChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the current components of the project. First component is the one in root.
+     */
+    public synchronized List<Component> getComponents() {
+        List<Component> result = new ArrayList<>();
+        components.forEach(state -> result.add(state.component));
+        return result;
+    }
+
+    /**
+     * Process file events in a background thread until the watcher is closed
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        process(watchService.take());
+                    } catch (IOException e) {
+                        // keep watching, the next events are applied to the tree as it is
+                        logger.warn(e.getLocalizedMessage(), e);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // watcher closed
+            }
+        }, "alizer-project-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Wait for file events and apply them. Only needed when the watcher has not been started.
+     *
+     * @param timeout how long to wait for a first event
+     * @param unit unit of timeout
+     * @return true if events have been processed, false if none came in time
+     * @throws IOException if an error occurred while reading the project
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean poll(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        WatchKey key = watchService.poll(timeout, unit);
+        if (key == null) {
+            return false;
+        }
+        process(key);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread current;
+        synchronized (this) {
+            current = thread;
+            thread = null;
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+        watchService.close();
+    }
+
+    /**
+     * Apply the events of the key and of all keys already signalled, then notify the changes
+     */
+    private synchronized void process(WatchKey first) throws IOException {
+        Map<Path, Component> previousComponents = new LinkedHashMap<>();
+        components.forEach(state -> previousComponents.put(state.component.getPath(), state.component));
+        boolean overflow = false;
+        for (WatchKey key = first; key != null; key = watchService.poll()) {
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event: key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (directory != null && !overflow) {
+                    apply(event.kind(), directory.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+
+        if (overflow) {
+            // events have been lost, start from scratch
+            watchedDirectories.keySet().forEach(WatchKey::cancel);
+            watchedDirectories.clear();
+            directories.clear();
+            resolvedMatches.clear();
+            weights.clear();
+            ProjectSnapshot snapshot = builder.createProjectWalker().walk(root);
+            index(snapshot);
+            components = detectComponents(snapshot);
+        } else if (structureChanged) {
+            components = detectComponents(toSnapshot());
+        } else {
+            for (ComponentState state: components) {
+                if (state.dirty) {
+                    state.update();
+                }
+            }
+        }
+        structureChanged = false;
+        notifyChanges(previousComponents);
+    }
+
+    private void apply(WatchEvent.Kind<?> kind, Path path) {
+        DirectoryEntry parent = directories.get(path.getParent());
+        if (parent == null) {
+            return;
+        }
+        String name = path.getFileName().toString();
+        if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            if (parent.subdirectories.remove(name)) {
+                removeDirectory(path);
+            } else if (parent.files.remove(name)) {
+                fileRemoved(path);
+            }
+            return;
+        }
+
+        BasicFileAttributes attrs;
+        try {
+            attrs = ProjectSnapshot.followFileLink(path, Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+        } catch (IOException e) {
+            // already deleted, the delete event follows
+            return;
+        }
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+            if (attrs.isDirectory()) {
+                if (!parent.filter.skipDirectory(path) && parent.subdirectories.add(name)) {
+                    addDirectory(path, parent.filter);
+                }
+            } else if (attrs.isRegularFile() && !parent.filter.skipFile(path) && parent.files.add(name)) {
+                fileAdded(path);
+            }
+        } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY && attrs.isRegularFile() && parent.files.contains(name)) {
+            fileModified(path);
+        }
+    }
+
+    /**
+     * Add a folder created while watching. Files may be deleted while it is listed (e.g during a build or a checkout),
+     * they are skipped, their delete event is ignored as they are not part of the tree.
+     */
+    private void addDirectory(Path directory, TraversalFilter parentFilter) {
+        TraversalFilter filter;
+        try {
+            filter = parentFilter.forDirectory(directory);
+        } catch (IOException e) {
+            filter = parentFilter;
+        }
+        DirectoryEntry entry = new DirectoryEntry(filter);
+        directories.put(directory, entry);
+        try {
+            watch(directory);
+        } catch (IOException e) {
+            // already deleted, the delete event of the folder follows
+            return;
+        }
+        // files created before the folder was watched are only found by listing it
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path: stream) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = ProjectSnapshot.followFileLink(path, Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                } catch (IOException e) {
+                    continue;
+                }
+                String name = path.getFileName().toString();
+                if (attrs.isDirectory()) {
+                    if (!entry.filter.skipDirectory(path) && entry.subdirectories.add(name)) {
+                        addDirectory(path, entry.filter);
+                    }
+                } else if (attrs.isRegularFile() && !entry.filter.skipFile(path) && entry.files.add(name)) {
+                    fileAdded(path);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            logger.debug("Unable to list " + directory, e);
+        }
+    }
+
+    private void removeDirectory(Path directory) {
+        DirectoryEntry entry = directories.remove(directory);
+        if (entry == null) {
+            return;
+        }
+        for (String name: entry.files) {
+            fileRemoved(directory.resolve(name));
+        }
+        for (String name: entry.subdirectories) {
+            removeDirectory(directory.resolve(name));
+        }
+    }
+
+    private void fileAdded(Path path) {
+        File file = PathFile.of(path);
+        boolean candidate = isCandidateFile(file);
+        LanguageMatcher.Match match = getMatch(path);
+        long weight = match == null ? 0 : getWeight(path);
+        List<ComponentState> containing = getComponentsContaining(path);
+        if (componentRecognizer.isConfigurationFile(file) || changesComponentsWithoutConfigFile(match, containing)) {
+            structureChanged = true;
+        }
+        for (ComponentState state: containing) {
+            if (match != null) {
+                state.matches.merge(match, weight, Long::sum);
+            }
+            if (candidate) {
+                state.candidateFiles.add(file);
+                state.enrichedLanguages.clear();
+            }
+            state.dirty = true;
+        }
+    }
+
+    private void fileRemoved(Path path) {
+        File file = PathFile.of(path);
+        LanguageMatcher.Match match = forgetMatch(path);
+        long weight = forgetWeight(path);
+        List<ComponentState> containing = getComponentsContaining(path);
+        if (componentRecognizer.isConfigurationFile(file) || changesComponentsWithoutConfigFile(match, containing)) {
+            structureChanged = true;
+        }
+        for (ComponentState state: containing) {
+            if (match != null) {
+                subtract(state, match, weight);
+            }
+            if (state.candidateFiles.remove(file)) {
+                state.enrichedLanguages.clear();
+            }
+            state.dirty = true;
+        }
+    }
+
+    private void fileModified(Path path) {
+        File file = PathFile.of(path);
+        // the content of an ambiguous file may now be counted for another language, its size or lines may change too
+        LanguageMatcher.Match previous = forgetMatch(path);
+        long previousWeight = forgetWeight(path);
+        LanguageMatcher.Match current = previous == null ? null : getMatch(path);
+        long currentWeight = current == null ? 0 : getWeight(path);
+        for (ComponentState state: getComponentsContaining(path)) {
+            if (state.candidateFiles.contains(file)) {
+                state.enrichedLanguages.clear();
+                state.dirty = true;
+            }
+            if (previous != null && (previous != current || previousWeight != currentWeight)) {
+                subtract(state, previous, previousWeight);
+                state.matches.merge(current, currentWeight, Long::sum);
+                state.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Components of a language without configuration file (e.g Python) only exist because of their source files: a
+     * file may create one when added outside every component, and may drop one (or change its main language) when
+     * added to or removed from it
+     *
+     * @param match match of the file, null if no language is known for its name
+     * @param containing components containing the file
+     * @return true if the components must be detected again
+     */
+    private boolean changesComponentsWithoutConfigFile(LanguageMatcher.Match match, List<ComponentState> containing) {
+        if (match == null) {
+            return false;
+        }
+        if (containing.isEmpty()) {
+            return match.getLanguages().stream()
+                    .anyMatch(language -> language.canBeComponent() && language.getConfigurationFiles().isEmpty());
+        }
+        return containing.stream().anyMatch(state -> state.configurationLanguages.isEmpty());
+    }
+
+    private static void subtract(ComponentState state, LanguageMatcher.Match match, long weight) {
+        state.matches.computeIfPresent(match, (key, count) -> count > weight ? count - weight : null);
+    }
+
+    /**
+     * @return the match the file was counted for, null if no language is known for its name
+     */
+    private LanguageMatcher.Match forgetMatch(Path path) {
+        LanguageMatcher.Match match = resolvedMatches.remove(path);
+        return match != null ? match : languageRecognizer.getMatch(path.getFileName().toString());
+    }
+
+    /**
+     * @return the weight of a file, weighed once and kept unless every file counts for one
+     */
+    private long getWeight(Path path) {
+        if (builder.getWeight() == LanguageWeight.FILES) {
+            return 1;
+        }
+        return weights.computeIfAbsent(path, key -> languageRecognizer.weigh(key, -1));
+    }
+
+    /**
+     * @return the weight the file was counted for
+     */
+    private long forgetWeight(Path path) {
+        if (builder.getWeight() == LanguageWeight.FILES) {
+            return 1;
+        }
+        Long weight = weights.remove(path);
+        return weight == null ? 0 : weight;
+    }
+
+    /**
+     * @return the match of a file, files with an ambiguous name are classified once and their match is kept
+     */
+    private LanguageMatcher.Match getMatch(Path path) {
+        LanguageMatcher.Match match = resolvedMatches.get(path);
+        if (match != null) {
+            return match;
+        }
+        match = languageRecognizer.getMatch(path.getFileName().toString());
+        if (match != null && LanguageClassifier.get().canClassify(match)) {
+            match = languageRecognizer.getMatch(path);
+            resolvedMatches.put(path, match);
+        }
+        return match;
+    }
+
+    private List<ComponentState> getComponentsContaining(Path path) {
+        List<ComponentState> result = new ArrayList<>();
+        for (ComponentState state: components) {
+            if (path.startsWith(state.component.getPath())) {
+                result.add(state);
+            }
+        }
+        return result;
+    }
+
+    private boolean isCandidateFile(File file) {
+        return enrichers.stream().anyMatch(enricher -> enricher.isCandidateFile(file));
+    }
+
+    /**
+     * Copy the tree of a snapshot and watch all its folders
+     */
+    private void index(ProjectSnapshot snapshot) throws IOException {
+        TraversalFilter rootFilter = builder.getTraversalFilter();
+        for (Path directory: snapshot.getDirectories()) {
+            DirectoryEntry parent = directory.equals(root) ? null : directories.get(directory.getParent());
+            TraversalFilter parentFilter = parent == null ? rootFilter : parent.filter;
+            directories.put(directory, new DirectoryEntry(parentFilter.forDirectory(directory)));
+            if (parent != null) {
+                parent.subdirectories.add(directory.getFileName().toString());
+            }
+            watch(directory);
+        }
+        PathTable files = snapshot.getFiles();
+        for (int i = 0; i < files.size(); i++) {
+            directories.get(files.getDirectory(i)).files.add(files.getName(i));
+        }
+    }
+
+    private void watch(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedDirectories.put(key, directory);
+    }
+
+    /**
+     * Build a snapshot from the in-memory tree, without accessing the file system
+     */
+    private ProjectSnapshot toSnapshot() {
+        ProjectSnapshot.Builder snapshotBuilder = new ProjectSnapshot.Builder(root);
+        addToSnapshot(root, snapshotBuilder);
+        return snapshotBuilder.build();
+    }
+
+    private void addToSnapshot(Path directory, ProjectSnapshot.Builder snapshotBuilder) {
+        DirectoryEntry entry = directories.get(directory);
+        snapshotBuilder.enterDirectory(directory);
+        for (String name: entry.files) {
+            snapshotBuilder.addFile(directory.resolve(name));
+        }
+        for (String name: entry.subdirectories) {
+            addToSnapshot(directory.resolve(name), snapshotBuilder);
+        }
+        snapshotBuilder.exitDirectory(directory);
+    }
+
+    private List<ComponentState> detectComponents(ProjectSnapshot snapshot) throws IOException {
+        List<ComponentState> states = new ArrayList<>();
+        for (Component component: componentRecognizer.analyze(snapshot, root)) {
+            ComponentState state = new ComponentState(component,
+                    componentRecognizer.getConfigurationLanguages(snapshot, component.getPath()));
+            PathTable files = snapshot.getFiles(component.getPath());
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                LanguageMatcher.Match match = getMatch(file.toPath());
+                if (match != null) {
+                    state.matches.merge(match, getWeight(file.toPath()), Long::sum);
+                }
+                if (isCandidateFile(file)) {
+                    state.candidateFiles.add(file);
+                }
+            }
+            component.getLanguages().forEach(language -> state.enrichedLanguages.put(language.getName(), language));
+            states.add(state);
+        }
+        return states;
+    }
+
+    private void notifyChanges(Map<Path, Component> previousComponents) {
+        Map<Path, Component> currentComponents = new LinkedHashMap<>();
+        components.forEach(state -> currentComponents.put(state.component.getPath(), state.component));
+        previousComponents.forEach((path, previous) -> {
+            Component current = currentComponents.get(path);
+            if (current == null || !hasSameLanguages(previous, current)) {
+                listeners.forEach(listener -> listener.componentChanged(previous, current));
+            }
+        });
+        currentComponents.forEach((path, current) -> {
+            if (!previousComponents.containsKey(path)) {
+                listeners.forEach(listener -> listener.componentChanged(null, current));
+            }
+        });
+    }
+
+    private boolean hasSameLanguages(Component first, Component second) {
+        List<Language> firstLanguages = first.getLanguages();
+        List<Language> secondLanguages = second.getLanguages();
+        if (firstLanguages.size() != secondLanguages.size()) {
+            return false;
+        }
+        for (int i = 0; i < firstLanguages.size(); i++) {
+            Language firstLanguage = firstLanguages.get(i);
+            Language secondLanguage = secondLanguages.get(i);
+            if (!firstLanguage.getName().equals(secondLanguage.getName())
+                    || firstLanguage.getUsageInPercentage() != secondLanguage.getUsageInPercentage()
+                    || !Objects.equals(firstLanguage.getFrameworks(), secondLanguage.getFrameworks())
+                    || !Objects.equals(firstLanguage.getTools(), secondLanguage.getTools())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class DirectoryEntry {
+        private final TraversalFilter filter;
+        private final TreeSet<String> files = new TreeSet<>();
+        private final TreeSet<String> subdirectories = new TreeSet<>();
+
+        private DirectoryEntry(TraversalFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+    /**
+     * Everything needed to compute the languages of a component again without walking it
+     */
+    private class ComponentState {
+        private Component component;
+        private final List<String> configurationLanguages;
+        private final Map<LanguageMatcher.Match, Long> matches = new HashMap<>();
+        private final List<File> candidateFiles = new ArrayList<>();
+        // languages already enriched by name, cleared when a file used by the enrichers changed
+        private final Map<String, Language> enrichedLanguages = new HashMap<>();
+        private boolean dirty = false;
+
+        private ComponentState(Component component, List<String> configurationLanguages) {
+            this.component = component;
+            this.configurationLanguages = configurationLanguages;
+        }
+
+        private void update() {
+            List<Language> languages = new ArrayList<>();
+            for (Language language: languageRecognizer.getUsages(matches)) {
+                Language enriched = enrichedLanguages.get(language.getName());
+                if (enriched == null) {
+                    enriched = languageRecognizer.getDetailedLanguage(language, candidateFiles);
+                    enrichedLanguages.put(language.getName(), enriched);
+                    languages.add(enriched);
+                } else {
+                    languages.add(new Language(language.getName(), language.getAliases(), language.getUsageInPercentage(),
+                            enriched.getFrameworks(), enriched.getTools(), language.canBeComponent()));
+                }
+            }
+            component = new Component(component.getPath(),
+                    componentRecognizer.getLanguagesWeightedByConfigFile(languages, configurationLanguages));
+            dirty = false;
+        }
+    }
+}
@@ -12,24 +12,38 @@ package com.redhat.devtools.alizer.api;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Recognizer {
-    public Recognizer(RecognizerFactory builder) {}
+    protected final RecognizerFactory builder;
+
+    public Recognizer(RecognizerFactory builder) {
+        this.builder = builder;
+    }
+
+    protected ProjectSnapshot getSnapshot(Path rootDirectory) throws IOException {
+        return builder.createProjectWalker().walk(rootDirectory);
+    }
 
     protected List<File> getFiles(Path rootDirectory) throws IOException {
-        return Files.walk(rootDirectory, Integer.MAX_VALUE).filter(Files::isRegularFile).map(Path::toFile).collect(Collectors.toList());
+        return getSnapshot(rootDirectory).getFiles();
     }
 
     protected List<File> getFilesInDirectory(Path dir) {
-        File[] files = dir.toFile().listFiles();
-        return files != null
-                ? new ArrayList<>(Arrays.asList(files))
-                : new ArrayList<>();
+        // Path.toFile only supports the default file system, entries are listed through the path (e.g zip archives)
+        List<File> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path: stream) {
+                files.add(PathFile.of(path));
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            return new ArrayList<>();
+        }
+        return files;
     }
 }
@@ -10,7 +10,162 @@
  ******************************************************************************/
 package com.redhat.devtools.alizer.api;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
 public class RecognizerFactory {
+    private static final List<String> DEFAULT_IGNORED_FOLDERS = Arrays.asList(".git", ".hg", ".svn");
+
+    private boolean pruneExcludedFolders = false;
+    private List<String> ignoredFolders = DEFAULT_IGNORED_FOLDERS;
+    private int parallelism = 1;
+    private boolean offHeap = false;
+    private boolean gitIgnore = false;
+    private boolean gitIndex = false;
+    private AnalysisCache cache = null;
+    private LanguageWeight weight = LanguageWeight.FILES;
+
+    /**
+     * When enabled, folders listed as exclude_folders in languages-customization.yml and the ignored folders
+     * are skipped while walking the project instead of being filtered afterwards.
+     * Files within those folders are then not taken into account for the language statistics either.
+     *
+     * @param pruneExcludedFolders true to skip excluded folders during the traversal
+     * @return this factory
+     */
+    public RecognizerFactory withExcludedFoldersPruned(boolean pruneExcludedFolders) {
+        this.pruneExcludedFolders = pruneExcludedFolders;
+        return this;
+    }
+
+    /**
+     * Set the folder names (e.g .git) skipped in addition to the language exclude_folders when pruning is enabled
+     *
+     * @param ignoredFolders folder names to skip
+     * @return this factory
+     */
+    public RecognizerFactory withIgnoredFolders(List<String> ignoredFolders) {
+        this.ignoredFolders = ignoredFolders;
+        return this;
+    }
+
+    /**
+     * Set the number of threads used to walk the project. With a value greater than 1 directories are listed
+     * concurrently by a fork-join pool, which pays off on very large trees or network file systems.
+     *
+     * @param parallelism number of threads walking the project, 1 to walk it on the calling thread
+     * @return this factory
+     */
+    public RecognizerFactory withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Store the names of the files listed off-heap. It only reduces the heap used by very large trees.
+     *
+     * @param offHeap true to keep file names out of the java heap
+     * @return this factory
+     */
+    public RecognizerFactory withOffHeapFileList(boolean offHeap) {
+        this.offHeap = offHeap;
+        return this;
+    }
+
+    /**
+     * When enabled, files and folders ignored by git (.gitignore files of the project and .git/info/exclude)
+     * are skipped while walking the project. They are then not taken into account for the language statistics.
+     *
+     * @param gitIgnore true to skip git-ignored files and folders
+     * @return this factory
+     */
+    public RecognizerFactory withGitIgnore(boolean gitIgnore) {
+        this.gitIgnore = gitIgnore;
+        return this;
+    }
+
+    /**
+     * When enabled, the files of a git checkout are listed from the git index (.git/index) instead of walking
+     * the working tree. Only tracked files are then taken into account. Projects which are not git checkouts
+     * are walked as usual.
+     *
+     * @param gitIndex true to read the file list from the git index when available
+     * @return this factory
+     */
+    public RecognizerFactory withGitIndex(boolean gitIndex) {
+        this.gitIndex = gitIndex;
+        return this;
+    }
+
+    /**
+     * Keep the results of the analyses in a persistent cache shared by all runs, even from different JVMs.
+     * Results are found again as long as no file has been added, removed or modified (size or modification time)
+     * within the folder analyzed, so only the components which changed are analyzed again.
+     *
+     * @param directory directory where results are stored
+     * @param maxSize maximum size of the cache in bytes, least recently used results are evicted beyond it
+     * @return this factory
+     */
+    public RecognizerFactory withCache(Path directory, long maxSize) {
+        this.cache = new AnalysisCache(directory, maxSize);
+        return this;
+    }
+
+    /**
+     * Set how much a file counts in the usage of its languages. By default every file counts for one, so many small
+     * files (e.g test fixtures) may outweigh a few large source files.
+     *
+     * @param weight weight of the files
+     * @return this factory
+     */
+    public RecognizerFactory withWeight(LanguageWeight weight) {
+        this.weight = weight;
+        return this;
+    }
+
+    AnalysisCache getCache() {
+        return cache;
+    }
+
+    LanguageWeight getWeight() {
+        return weight;
+    }
+
+    ProjectWalker createProjectWalker() {
+        TraversalFilter filter = getTraversalFilter();
+        ProjectWalker walker;
+        if (parallelism > 1) {
+            walker = new ParallelProjectWalker(filter, parallelism, offHeap);
+        } else {
+            walker = new SequentialProjectWalker(filter, offHeap);
+        }
+        if (gitIndex) {
+            // tracked files are never ignored, only folder pruning applies to the index
+            return new GitIndexProjectWalker(getFolderFilter(), walker, offHeap);
+        }
+        return walker;
+    }
+
+    TraversalFilter getTraversalFilter() {
+        TraversalFilter filter = getFolderFilter();
+        if (gitIgnore) {
+            filter = filter.and(new GitIgnoreTraversalFilter());
+        }
+        return filter;
+    }
+
+    private TraversalFilter getFolderFilter() {
+        if (pruneExcludedFolders) {
+            return FolderNameTraversalFilter.withExcludedFolders(ignoredFolders);
+        }
+        return TraversalFilter.NONE;
+    }
+
     public LanguageRecognizer createLanguageRecognizer() {
         return new LanguageRecognizerImpl(this);
     }
@@ -22,4 +177,16 @@ public class RecognizerFactory {
     public ComponentRecognizer createComponentRecognizer() {
         return new ComponentRecognizerImpl(this);
     }
+
+    /**
+     * Analyze the project once and keep its components up to date while files are changed.
+     * The watcher must be closed once not needed anymore.
+     *
+     * @param root path (root) of the project to watch
+     * @return the watcher, not started
+     * @throws IOException if an error occurred while analyzing the project
+     */
+    public ProjectWatcher createProjectWatcher(Path root) throws IOException {
+        return new ProjectWatcher(this, root);
+    }
 }
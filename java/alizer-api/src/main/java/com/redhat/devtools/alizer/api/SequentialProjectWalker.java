@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Walk the project on the calling thread by using Files.walkFileTree
+ */
+public class SequentialProjectWalker implements ProjectWalker {
+
+    private final TraversalFilter filter;
+    private final boolean offHeap;
+
+    public SequentialProjectWalker(TraversalFilter filter) {
+        this(filter, false);
+    }
+
+    /**
+     * @param filter filter deciding which folders must not be walked
+     * @param offHeap true to store the file names of the snapshot off-heap
+     */
+    public SequentialProjectWalker(TraversalFilter filter, boolean offHeap) {
+        this.filter = filter;
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public ProjectSnapshot walk(Path root) throws IOException {
+        ProjectSnapshot.Builder builder = new ProjectSnapshot.Builder(root, offHeap);
+        // filter to apply to the content of every directory being walked
+        Deque<TraversalFilter> filters = new ArrayDeque<>();
+        filters.push(filter);
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                TraversalFilter current = filters.element();
+                if (!dir.equals(root) && current.skipDirectory(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                filters.push(current.forDirectory(dir));
+                builder.enterDirectory(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                BasicFileAttributes fileAttrs = ProjectSnapshot.followFileLink(file, attrs);
+                if (fileAttrs.isRegularFile() && !filters.element().skipFile(file)) {
+                    builder.addFile(file, fileAttrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                filters.pop();
+                builder.exitDirectory(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Decide which folders are not walked at all while taking the snapshot of a project.
+ * A skipped folder is pruned with its whole subtree, so none of its files is ever listed.
+ */
+public interface TraversalFilter {
+
+    TraversalFilter NONE = directory -> false;
+
+    boolean skipDirectory(Path directory);
+
+    default boolean skipFile(Path file) {
+        return false;
+    }
+
+    /**
+     * Return the filter to use for the content of a directory that is going to be walked.
+     * It allows filters to take into account rules stored within the tree itself (e.g .gitignore files)
+     *
+     * @param directory directory about to be walked
+     * @return the filter to apply to the entries of the directory
+     * @throws IOException if an error occurred while reading the rules of the directory
+     */
+    default TraversalFilter forDirectory(Path directory) throws IOException {
+        return this;
+    }
+
+    /**
+     * Combine this filter with another one. An entry is skipped if any of the two filters skips it
+     *
+     * @param other other filter
+     * @return the combined filter
+     */
+    default TraversalFilter and(TraversalFilter other) {
+        TraversalFilter self = this;
+        return new TraversalFilter() {
+            @Override
+            public boolean skipDirectory(Path directory) {
+                return self.skipDirectory(directory) || other.skipDirectory(directory);
+            }
+
+            @Override
+            public boolean skipFile(Path file) {
+                return self.skipFile(file) || other.skipFile(file);
+            }
+
+            @Override
+            public TraversalFilter forDirectory(Path directory) throws IOException {
+                return self.forDirectory(directory).and(other.forDirectory(directory));
+            }
+        };
+    }
+}
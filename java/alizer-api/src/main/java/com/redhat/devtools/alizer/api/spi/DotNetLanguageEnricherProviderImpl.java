@@ -4,21 +4,19 @@ import com.redhat.devtools.alizer.api.Language;
 import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.spi.framework.nodejs.NodeJsFrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.utils.DocumentParser;
+import com.redhat.devtools.alizer.api.utils.XmlElement;
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.regex.Pattern;
@@ -31,6 +29,8 @@ import static com.redhat.devtools.alizer.api.Constants.VBNET;
 public class DotNetLanguageEnricherProviderImpl extends LanguageEnricherProvider {
 
     private static final Pattern PROJ_PATTERN = Pattern.compile(".*\\.\\w+proj");
+    private static final List<String> FRAMEWORK_TAGS = Arrays.asList("httpRuntime", "compilation", "TargetFrameworkVersion",
+            "TargetFramework", "TargetFrameworks");
 
     @Override
     public LanguageEnricherProvider create() {
@@ -55,6 +55,11 @@ public class DotNetLanguageEnricherProviderImpl extends LanguageEnricherProvider
         return language;
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return PROJ_PATTERN.matcher(file.getName()).matches();
+    }
+
     private List<String> getFrameworks(List<File> files) throws IOException {
         List<String> frameworks = new ArrayList<>();
         try {
@@ -64,38 +69,31 @@ public class DotNetLanguageEnricherProviderImpl extends LanguageEnricherProvider
                     frameworks.addAll(frameworksDetected);
                 }
             }
-        } catch (ParserConfigurationException | SAXException e) {
+        } catch (XMLStreamException e) {
 
         }
         return frameworks;
     }
 
-    private List<String> getFramework(File file) throws ParserConfigurationException, IOException, SAXException {
-        Node httpRuntimeNode = DocumentParser.getElementsByTag(file, "httpRuntime").item(0);
-        if (httpRuntimeNode != null) {
-            String framework = getFrameworkAttribute(httpRuntimeNode);
-            if (!framework.isEmpty()) {
-                return Collections.singletonList(framework);
-            }
+    private List<String> getFramework(File file) throws IOException, XMLStreamException {
+        // the first element of every tag is read in a single pass, then they are checked by priority
+        Map<String, List<XmlElement>> elements = DocumentParser.getElements(file, FRAMEWORK_TAGS, true);
+        String framework = getFrameworkAttribute(elements.get("httpRuntime"));
+        if (!framework.isEmpty()) {
+            return Collections.singletonList(framework);
         }
-        Node compilationNode = DocumentParser.getElementsByTag(file, "compilation").item(0);
-        if (compilationNode != null) {
-            String framework = getFrameworkAttribute(compilationNode);
-            if (!framework.isEmpty()) {
-                return Collections.singletonList(framework);
-            }
+        framework = getFrameworkAttribute(elements.get("compilation"));
+        if (!framework.isEmpty()) {
+            return Collections.singletonList(framework);
         }
-        NodeList targetFrameworkVersionNodeList = DocumentParser.getElementsByTag(file, "TargetFrameworkVersion");
-        if (targetFrameworkVersionNodeList.getLength() > 0) {
-            return Collections.singletonList(targetFrameworkVersionNodeList.item(0).getTextContent());
+        if (elements.containsKey("TargetFrameworkVersion")) {
+            return Collections.singletonList(elements.get("TargetFrameworkVersion").get(0).getText());
         }
-        NodeList targetFrameworkNodeList = DocumentParser.getElementsByTag(file, "TargetFramework");
-        if (targetFrameworkNodeList.getLength() > 0) {
-            return Collections.singletonList(targetFrameworkNodeList.item(0).getTextContent());
+        if (elements.containsKey("TargetFramework")) {
+            return Collections.singletonList(elements.get("TargetFramework").get(0).getText());
         }
-        NodeList targetFrameworksNodeList = DocumentParser.getElementsByTag(file, "TargetFrameworks");
-        if (targetFrameworksNodeList.getLength() > 0) {
-            String value = targetFrameworksNodeList.item(0).getTextContent();
+        if (elements.containsKey("TargetFrameworks")) {
+            String value = elements.get("TargetFrameworks").get(0).getText();
             if (value.contains(";")) {
                 return Arrays.stream(value.split(";")).filter(v -> !v.trim().isEmpty()).collect(Collectors.toList());
             }
@@ -103,17 +101,11 @@ public class DotNetLanguageEnricherProviderImpl extends LanguageEnricherProvider
         return Collections.emptyList();
     }
 
-    private String getFrameworkAttribute(Node node) {
-        NamedNodeMap attributes = node.getAttributes();
-        if (attributes == null) {
+    private String getFrameworkAttribute(List<XmlElement> elements) {
+        if (elements == null) {
             return "";
         }
-
-        Node targetFrameworkNode = attributes.getNamedItem("targetFramework");
-        if (targetFrameworkNode != null) {
-            return targetFrameworkNode.getTextContent();
-        }
-        return "";
+        return elements.get(0).getAttribute("targetFramework");
     }
 
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi;
+
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider;
+import com.redhat.devtools.alizer.api.utils.ContentProbe;
+import com.redhat.devtools.alizer.api.utils.TagMatcher;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Tags of all the framework detectors of a kind, so a configuration file is scanned once for every framework
+ * instead of once per detector.
+ *
+ * Only detectors keeping the check of their kind (looking for their tag in the file) are indexed. Detectors overriding
+ * hasFramework may look for something else, they are always asked.
+ */
+class FrameworkTagIndex<T extends FrameworkDetectorWithConfigFileProvider> {
+
+    private final List<T> detectors = new ArrayList<>();
+    // tag of every detector, null if it is not indexed
+    private final List<String> tags = new ArrayList<>();
+    private final TagMatcher matcher;
+
+    /**
+     * @param type kind of the detectors, declaring the hasFramework method looking for the tag
+     * @param detectors detectors, see {@link ProviderRegistry#getTagIndex(Class, Function)}
+     * @param tagFunction function returning the tag of a detector
+     */
+    FrameworkTagIndex(Class<T> type, List<T> detectors, Function<T, String> tagFunction) {
+        List<String> indexedTags = new ArrayList<>();
+        for (T detector : detectors) {
+            this.detectors.add(detector);
+            String tag = isTagCheck(type, detector) ? tagFunction.apply(detector) : null;
+            tags.add(tag);
+            if (tag != null) {
+                indexedTags.add(tag);
+            }
+        }
+        matcher = indexedTags.isEmpty() ? null : new TagMatcher(indexedTags);
+    }
+
+    private static boolean isTagCheck(Class<?> type, FrameworkDetectorWithConfigFileProvider detector) {
+        try {
+            return detector.getClass().getMethod("hasFramework", File.class).getDeclaringClass() == type;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param file configuration file
+     * @return frameworks of the detectors finding their framework in the file, in the order of the detectors
+     * @throws IOException if the file cannot be read
+     */
+    List<String> getFrameworks(File file) throws IOException {
+        Set<String> found = matcher == null ? Collections.emptySet() : ContentProbe.getDefault().find(file.toPath(), matcher);
+        List<String> frameworks = new ArrayList<>();
+        for (int i = 0; i < detectors.size(); i++) {
+            String tag = tags.get(i);
+            if (tag != null ? found.contains(tag) : detectors.get(i).hasFramework(file)) {
+                frameworks.addAll(detectors.get(i).getFrameworks());
+            }
+        }
+        return frameworks;
+    }
+}
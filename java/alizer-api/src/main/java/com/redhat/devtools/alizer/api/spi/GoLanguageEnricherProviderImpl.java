@@ -11,7 +11,6 @@
 package com.redhat.devtools.alizer.api.spi;
 
 import com.redhat.devtools.alizer.api.Language;
-import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.spi.framework.go.GoFrameworkDetectorProvider;
 
 import java.io.BufferedReader;
@@ -19,11 +18,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.ServiceLoader;
 import java.util.regex.Pattern;
 
 import static com.redhat.devtools.alizer.api.Constants.GO;
@@ -54,6 +51,11 @@ public class GoLanguageEnricherProviderImpl extends LanguageEnricherProvider{
         return language;
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return file.getName().equalsIgnoreCase("go.mod");
+    }
+
     private String getGoVersion(File goMod) throws IOException {
         Pattern goVersionLinePattern = Pattern.compile("^go\\s+");
         Optional<String> goVersionLine = Files.readAllLines(goMod.toPath()).stream()
@@ -66,16 +68,6 @@ public class GoLanguageEnricherProviderImpl extends LanguageEnricherProvider{
     }
 
     private List<String> getFrameworks(File file) throws IOException {
-        List<String> frameworks = new ArrayList<>();
-        ServiceLoader<FrameworkDetectorProvider> loader = ServiceLoader.load(FrameworkDetectorProvider.class, GoLanguageEnricherProviderImpl.class.getClassLoader());
-        for (FrameworkDetectorProvider provider : loader) {
-            if (provider instanceof GoFrameworkDetectorProvider) {
-                GoFrameworkDetectorProvider configProvider = (GoFrameworkDetectorProvider) provider.create();
-                if (configProvider.hasFramework(file)) {
-                    frameworks.addAll(configProvider.getFrameworks());
-                }
-            }
-        }
-        return frameworks;
+        return ProviderRegistry.get().getTagIndex(GoFrameworkDetectorProvider.class, GoFrameworkDetectorProvider::getFrameworkTag).getFrameworks(file);
     }
 }
@@ -12,19 +12,14 @@ package com.redhat.devtools.alizer.api.spi;
 
 import com.redhat.devtools.alizer.api.Language;
 import com.redhat.devtools.alizer.api.LanguageRecognizerImpl;
-import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.spi.framework.java.JavaFrameworkDetectorProvider;
-import com.redhat.devtools.alizer.api.utils.DocumentParser;
+import com.redhat.devtools.alizer.api.utils.ConfigModels;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.ServiceLoader;
-import javax.xml.parsers.ParserConfigurationException;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 
 import static com.redhat.devtools.alizer.api.Constants.JAVA;
@@ -60,15 +55,21 @@ public class JavaLanguageEnricherProviderImpl extends LanguageEnricherProvider {
         return language;
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return file.getName().equalsIgnoreCase("build.gradle")
+                || file.getName().equalsIgnoreCase("pom.xml")
+                || file.getName().equalsIgnoreCase("build.xml");
+    }
+
     private List<String> getFrameworks(File file) throws IOException {
+        if (file.getName().equalsIgnoreCase("build.gradle")) {
+            return ProviderRegistry.get().getTagIndex(JavaFrameworkDetectorProvider.class, JavaFrameworkDetectorProvider::getFrameworkTag).getFrameworks(file);
+        }
         List<String> frameworks = new ArrayList<>();
-        ServiceLoader<FrameworkDetectorProvider> loader = ServiceLoader.load(FrameworkDetectorProvider.class, JavaLanguageEnricherProviderImpl.class.getClassLoader());
-        for (FrameworkDetectorProvider provider : loader) {
-            if (provider instanceof JavaFrameworkDetectorProvider) {
-                JavaFrameworkDetectorProvider configProvider = (JavaFrameworkDetectorProvider) provider.create();
-                if (configProvider.hasFramework(file)) {
-                    frameworks.addAll(configProvider.getFrameworks());
-                }
+        for (JavaFrameworkDetectorProvider configProvider : ProviderRegistry.get().getFrameworkDetectors(JavaFrameworkDetectorProvider.class)) {
+            if (configProvider.hasFramework(file)) {
+                frameworks.addAll(configProvider.getFrameworks());
             }
         }
         return frameworks;
@@ -85,9 +86,8 @@ public class JavaLanguageEnricherProviderImpl extends LanguageEnricherProvider {
             return false;
         }
         try {
-            NodeList modules = DocumentParser.getElementsByTag(file, "modules");
-            return modules != null && modules.getLength() > 0;
-        } catch (IOException | SAXException | ParserConfigurationException e) {
+            return ConfigModels.getMavenModel(file).hasModules();
+        } catch (IOException e) {
             return false;
         }
     }
@@ -11,7 +11,6 @@
 package com.redhat.devtools.alizer.api.spi;
 
 import com.redhat.devtools.alizer.api.Language;
-import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.spi.framework.nodejs.NodeJsFrameworkDetectorProvider;
 import java.io.File;
 import java.io.IOException;
@@ -19,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.ServiceLoader;
 
 
 import static com.redhat.devtools.alizer.api.Constants.JAVASCRIPT;
@@ -48,15 +46,16 @@ public class JavaScriptLanguageEnricherProviderImpl extends LanguageEnricherProv
         return language;
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return file.getName().equalsIgnoreCase("package.json");
+    }
+
     private List<String> getFrameworks(File file) throws IOException {
         List<String> frameworks = new ArrayList<>();
-        ServiceLoader<FrameworkDetectorProvider> loader = ServiceLoader.load(FrameworkDetectorProvider.class, JavaScriptLanguageEnricherProviderImpl.class.getClassLoader());
-        for (FrameworkDetectorProvider provider : loader) {
-            if (provider instanceof NodeJsFrameworkDetectorProvider) {
-                NodeJsFrameworkDetectorProvider configProvider = (NodeJsFrameworkDetectorProvider) provider.create();
-                if (configProvider.hasFramework(file)) {
-                    frameworks.addAll(configProvider.getFrameworks());
-                }
+        for (NodeJsFrameworkDetectorProvider configProvider : ProviderRegistry.get().getFrameworkDetectors(NodeJsFrameworkDetectorProvider.class)) {
+            if (configProvider.hasFramework(file)) {
+                frameworks.addAll(configProvider.getFrameworks());
             }
         }
         return frameworks;
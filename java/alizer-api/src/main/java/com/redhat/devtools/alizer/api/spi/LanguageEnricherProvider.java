@@ -27,6 +27,17 @@ public abstract class LanguageEnricherProvider {
 
     public abstract Language getEnrichedLanguage(Language language, List<File> files) throws IOException;
 
+    /**
+     * Return true if the file may be used by getEnrichedLanguage. When files are streamed only the candidate files
+     * are kept to enrich the languages found, so enrichers should restrict this to the few files they actually read.
+     *
+     * @param file file to check
+     * @return true if the file may be needed to enrich the language, false otherwise
+     */
+    public boolean isCandidateFile(File file) {
+        return true;
+    }
+
     public boolean isConfigurationValidForComponent(String language, File file) {
         return isValidPathPerLanguage(file.toPath(), language);
     }
@@ -61,8 +72,8 @@ public abstract class LanguageEnricherProvider {
      * @return true if fullPath contain potentialSubFolderName, false otherwise
      */
     private boolean isFolderNameIncludedInPath(Path fullPath, String potentialSubFolderName) {
-        return isIncludedInPath(fullPath, (p) -> p.toFile().isDirectory()
-                && p.getFileName() != null
+        // every ancestor of the file is a folder, no need to hit the file system to check it
+        return isIncludedInPath(fullPath.getParent(), (p) -> p.getFileName() != null
                 && p.getFileName().toString().equalsIgnoreCase(potentialSubFolderName));
     }
 
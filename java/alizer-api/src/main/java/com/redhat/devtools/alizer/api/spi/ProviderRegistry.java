@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi;
+
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide registry of the language enrichers and framework detectors. Providers declared as services are loaded
+ * and instantiated once, the first time the registry is used, then enrichers are indexed by supported language and
+ * framework detectors by supported language and type (e.g with or without configuration file).
+ *
+ * The providers of alizer itself come from a table generated at compile time, so they are created without scanning the
+ * classpath. Only the providers of other jars (plugins) are then looked up from their service files, unless disabled
+ * with the {@link #PROVIDER_PLUGINS_PROPERTY} system property. When the table is disabled with the
+ * {@link #PROVIDER_TABLE_PROPERTY} system property, all providers are loaded with ServiceLoader.
+ *
+ * Providers can also be registered explicitly, e.g when alizer is embedded where its services are not visible.
+ * The registry is thread-safe: lookups read an immutable index and registering a provider publishes a new one.
+ * Providers are shared by all threads, they must not keep any state.
+ */
+public final class ProviderRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRegistry.class);
+
+    /**
+     * System property to set to false to load all providers with ServiceLoader instead of the generated table
+     */
+    public static final String PROVIDER_TABLE_PROPERTY = "alizer.providers.table";
+
+    /**
+     * System property to set to false to skip the providers declared as services by other jars, which saves scanning
+     * the service files of the whole classpath when no plugin is used
+     */
+    public static final String PROVIDER_PLUGINS_PROPERTY = "alizer.providers.plugins";
+
+    private volatile Index index;
+
+    private static class Holder {
+        private static final ProviderRegistry INSTANCE = new ProviderRegistry();
+    }
+
+    private ProviderRegistry() {
+        ClassLoader classLoader = ProviderRegistry.class.getClassLoader();
+        ProviderTable table = loadTable();
+        List<LanguageEnricherProvider> enrichers = new ArrayList<>();
+        List<FrameworkDetectorProvider> detectors = new ArrayList<>();
+        if (table != null) {
+            boolean plugins = Boolean.parseBoolean(System.getProperty(PROVIDER_PLUGINS_PROPERTY, "true"));
+            addProviders(enrichers, table.getEnrichers(), LanguageEnricherProvider.class, LanguageEnricherProvider::create, plugins, classLoader);
+            addProviders(detectors, table.getFrameworkDetectors(), FrameworkDetectorProvider.class, FrameworkDetectorProvider::create, plugins, classLoader);
+        } else {
+            for (LanguageEnricherProvider provider : ServiceLoader.load(LanguageEnricherProvider.class, classLoader)) {
+                enrichers.add(provider.create());
+            }
+            for (FrameworkDetectorProvider provider : ServiceLoader.load(FrameworkDetectorProvider.class, classLoader)) {
+                detectors.add(provider.create());
+            }
+        }
+        index = new Index(enrichers, detectors);
+    }
+
+    /**
+     * @return the table generated at compile time (the annotation processor always runs when building alizer-api),
+     * null if disabled
+     */
+    static ProviderTable loadTable() {
+        if (!Boolean.parseBoolean(System.getProperty(PROVIDER_TABLE_PROPERTY, "true"))) {
+            return null;
+        }
+        return new GeneratedProviderTable();
+    }
+
+    /**
+     * Add the providers of the table, then unless disabled the providers declared as services by other jars,
+     * in the order of the class loader as ServiceLoader would
+     */
+    private static <T> void addProviders(List<T> providers, List<T> tableProviders, Class<T> service,
+                                         UnaryOperator<T> create, boolean plugins, ClassLoader classLoader) {
+        Set<String> classNames = new HashSet<>();
+        for (T provider: tableProviders) {
+            classNames.add(provider.getClass().getName());
+            providers.add(create.apply(provider));
+        }
+        if (!plugins) {
+            return;
+        }
+        for (String className: readServiceFiles(service, classLoader)) {
+            if (classNames.add(className)) {
+                try {
+                    T provider = service.cast(Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance());
+                    providers.add(create.apply(provider));
+                } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                    logger.warn("Unable to load provider " + className + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the class names of all the service files of a service, in the format read by ServiceLoader
+     */
+    private static Set<String> readServiceFiles(Class<?> service, ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources("META-INF/services/" + service.getName());
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int comment = line.indexOf('#');
+                        String className = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                        if (!className.isEmpty()) {
+                            classNames.add(className);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to read the service files of " + service.getName() + ": " + e.getMessage());
+        }
+        return classNames;
+    }
+
+    public static ProviderRegistry get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Add an enricher. For a language supported by several enrichers, the first one registered is used.
+     *
+     * @param enricher enricher to add
+     */
+    public synchronized void register(LanguageEnricherProvider enricher) {
+        List<LanguageEnricherProvider> enrichers = new ArrayList<>(index.enrichers);
+        enrichers.add(enricher.create());
+        index = new Index(enrichers, index.detectors);
+    }
+
+    /**
+     * Add a framework detector
+     *
+     * @param detector detector to add
+     */
+    public synchronized void register(FrameworkDetectorProvider detector) {
+        List<FrameworkDetectorProvider> detectors = new ArrayList<>(index.detectors);
+        detectors.add(detector.create());
+        index = new Index(index.enrichers, detectors);
+    }
+
+    /**
+     * @return all the enrichers
+     */
+    public List<LanguageEnricherProvider> getEnrichers() {
+        return index.enrichers;
+    }
+
+    /**
+     * @param language name of a language, case insensitive
+     * @return the enricher supporting the language, null if none
+     */
+    public LanguageEnricherProvider getEnricherByLanguage(String language) {
+        return index.enrichersByLanguage.get(language.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param type type of the detectors
+     * @return all the detectors of the type
+     */
+    public <T extends FrameworkDetectorProvider> List<T> getFrameworkDetectors(Class<T> type) {
+        return getFrameworkDetectors(type, null);
+    }
+
+    /**
+     * @param type type of the detectors (e.g {@link com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider})
+     * @param language name of a language, case insensitive, null for all languages
+     * @return the detectors of the type supporting the language
+     */
+    public <T extends FrameworkDetectorProvider> List<T> getFrameworkDetectors(Class<T> type, String language) {
+        return index.getDetectors(type, language);
+    }
+
+    /**
+     * @return the tag index of all the detectors of a type, built once for the current detectors
+     */
+    @SuppressWarnings("unchecked")
+    <T extends FrameworkDetectorWithConfigFileProvider> FrameworkTagIndex<T> getTagIndex(Class<T> type, Function<T, String> tagFunction) {
+        Index current = index;
+        return (FrameworkTagIndex<T>) current.tagIndexes.computeIfAbsent(type, key -> new FrameworkTagIndex<>(type, current.getDetectors(type, null), tagFunction));
+    }
+
+    private static class Index {
+        private final List<LanguageEnricherProvider> enrichers;
+        private final List<FrameworkDetectorProvider> detectors;
+        private final Map<String, LanguageEnricherProvider> enrichersByLanguage = new HashMap<>();
+        private final Map<String, List<FrameworkDetectorProvider>> detectorsByLanguage = new HashMap<>();
+        // lookups computed on demand, they only depend on the providers of this index
+        private final Map<String, List<? extends FrameworkDetectorProvider>> detectorsByTypeAndLanguage = new ConcurrentHashMap<>();
+        private final Map<Class<?>, FrameworkTagIndex<?>> tagIndexes = new ConcurrentHashMap<>();
+
+        private Index(List<LanguageEnricherProvider> enrichers, List<FrameworkDetectorProvider> detectors) {
+            this.enrichers = Collections.unmodifiableList(enrichers);
+            this.detectors = Collections.unmodifiableList(detectors);
+            for (LanguageEnricherProvider enricher: enrichers) {
+                for (String language: enricher.getSupportedLanguages()) {
+                    enrichersByLanguage.putIfAbsent(language.toLowerCase(Locale.ROOT), enricher);
+                }
+            }
+            for (FrameworkDetectorProvider detector: detectors) {
+                for (String language: detector.getSupportedLanguages()) {
+                    detectorsByLanguage.computeIfAbsent(language.toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(detector);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends FrameworkDetectorProvider> List<T> getDetectors(Class<T> type, String language) {
+            String languageKey = language == null ? null : language.toLowerCase(Locale.ROOT);
+            List<FrameworkDetectorProvider> candidates = languageKey == null ? detectors : detectorsByLanguage.getOrDefault(languageKey, Collections.emptyList());
+            return (List<T>) detectorsByTypeAndLanguage.computeIfAbsent(type.getName() + "/" + (languageKey == null ? "" : languageKey),
+                    key -> Collections.unmodifiableList(candidates.stream().filter(type::isInstance).map(type::cast).collect(Collectors.toList())));
+        }
+    }
+}
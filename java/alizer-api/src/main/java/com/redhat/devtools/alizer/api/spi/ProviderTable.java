@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi;
+
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
+import java.util.List;
+
+/**
+ * Providers declared as services by alizer itself, instantiated without ServiceLoader. The implementation is generated
+ * at compile time from the META-INF/services files by
+ * {@link com.redhat.devtools.alizer.api.spi.processor.ProviderTableProcessor}.
+ */
+interface ProviderTable {
+
+    /**
+     * @return new instances of the enrichers, in the order of their service file
+     */
+    List<LanguageEnricherProvider> getEnrichers();
+
+    /**
+     * @return new instances of the framework detectors, in the order of their service file
+     */
+    List<FrameworkDetectorProvider> getFrameworkDetectors();
+}
@@ -12,14 +12,12 @@ package com.redhat.devtools.alizer.api.spi;
 
 import com.redhat.devtools.alizer.api.Language;
 import com.redhat.devtools.alizer.api.LanguageRecognizerImpl;
-import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
 import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithoutConfigFileProvider;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.ServiceLoader;
 
 
 import static com.redhat.devtools.alizer.api.Constants.PYTHON;
@@ -41,18 +39,23 @@ public class PythonLanguageEnricherProviderImpl extends LanguageEnricherProvider
         return language;
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return getNoConfigDetectors().stream().anyMatch(detector -> detector.isCandidateFile(file));
+    }
+
     private List<String> getFrameworks(List<File> files) throws IOException {
         List<String> frameworks = new ArrayList<>();
-        ServiceLoader<FrameworkDetectorProvider> loader = ServiceLoader.load(FrameworkDetectorProvider.class, PythonLanguageEnricherProviderImpl.class.getClassLoader());
-        for (FrameworkDetectorProvider provider : loader) {
-            if (provider instanceof FrameworkDetectorWithoutConfigFileProvider) {
-                FrameworkDetectorWithoutConfigFileProvider noConfigProvider = (FrameworkDetectorWithoutConfigFileProvider) provider.create();
-                if (noConfigProvider.getSupportedLanguages().contains(PYTHON) && noConfigProvider.hasFramework(files)) {
-                    frameworks.addAll(noConfigProvider.getFrameworks());
-                }
+        for (FrameworkDetectorWithoutConfigFileProvider noConfigProvider : getNoConfigDetectors()) {
+            if (noConfigProvider.hasFramework(files)) {
+                frameworks.addAll(noConfigProvider.getFrameworks());
             }
         }
         return frameworks;
     }
 
+    private List<FrameworkDetectorWithoutConfigFileProvider> getNoConfigDetectors() {
+        return ProviderRegistry.get().getFrameworkDetectors(FrameworkDetectorWithoutConfigFileProvider.class, PYTHON);
+    }
+
 }
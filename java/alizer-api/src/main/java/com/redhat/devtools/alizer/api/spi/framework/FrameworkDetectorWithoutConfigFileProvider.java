@@ -17,4 +17,14 @@ import java.util.List;
 public interface FrameworkDetectorWithoutConfigFileProvider extends FrameworkDetectorProvider {
 
     boolean hasFramework(List<File> files) throws IOException;
+
+    /**
+     * Return true if the file may be read by hasFramework. Only candidate files are kept when files are streamed.
+     *
+     * @param file file to check
+     * @return true if the file may be needed to detect the framework, false otherwise
+     */
+    default boolean isCandidateFile(File file) {
+        return true;
+    }
 }
@@ -30,7 +30,7 @@ public class BeegoFrameworkDetectorProviderImpl extends GoFrameworkDetectorProvi
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return BEEGO_TAG;
     }
 }
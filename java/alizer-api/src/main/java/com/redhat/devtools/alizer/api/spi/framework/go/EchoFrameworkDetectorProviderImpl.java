@@ -30,7 +30,7 @@ public class EchoFrameworkDetectorProviderImpl extends GoFrameworkDetectorProvid
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return ECHO_TAG;
     }
 }
@@ -30,7 +30,7 @@ public class FastHttpFrameworkDetectorProviderImpl extends GoFrameworkDetectorPr
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return FAST_HTTP_TAG;
     }
 }
@@ -30,7 +30,7 @@ public class GinFrameworkDetectorProviderImpl extends GoFrameworkDetectorProvide
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return GIN_TAG;
     }
 }
@@ -30,7 +30,7 @@ public class GoFiberFrameworkDetectorProviderImpl extends GoFrameworkDetectorPro
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return GOFIBER_TAG;
     }
 }
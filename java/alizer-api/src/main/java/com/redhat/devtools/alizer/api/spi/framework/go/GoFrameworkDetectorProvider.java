@@ -22,7 +22,7 @@ import static com.redhat.devtools.alizer.api.Constants.GO;
 
 public abstract class GoFrameworkDetectorProvider implements FrameworkDetectorWithConfigFileProvider {
 
-    protected abstract String getFrameworkTag();
+    public abstract String getFrameworkTag();
 
     @Override
     public List<String> getSupportedLanguages() {
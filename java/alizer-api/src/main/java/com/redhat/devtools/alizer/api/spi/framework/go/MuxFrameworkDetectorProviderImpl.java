@@ -30,7 +30,7 @@ public class MuxFrameworkDetectorProviderImpl extends GoFrameworkDetectorProvide
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return MUX_TAG;
     }
 }
@@ -11,22 +11,19 @@
 package com.redhat.devtools.alizer.api.spi.framework.java;
 
 import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider;
+import com.redhat.devtools.alizer.api.utils.ConfigModels;
 import com.redhat.devtools.alizer.api.utils.DocumentParser;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
-import javax.xml.parsers.ParserConfigurationException;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 
 import static com.redhat.devtools.alizer.api.Constants.JAVA;
 
 public abstract class JavaFrameworkDetectorProvider implements FrameworkDetectorWithConfigFileProvider {
 
-    protected abstract String getFrameworkTag();
+    public abstract String getFrameworkTag();
 
     @Override
     public List<String> getSupportedLanguages() {
@@ -38,23 +35,13 @@ public abstract class JavaFrameworkDetectorProvider implements FrameworkDetector
         if (file.getName().equalsIgnoreCase("build.gradle")) {
             return DocumentParser.isTagInFile(file, getFrameworkTag());
         } else {
-            try {
-                return hasGroupIdMaven(file, getFrameworkTag());
-            } catch (ParserConfigurationException | SAXException e) {
-                throw new IOException(e.getMessage());
-            }
+            return hasGroupIdMaven(file, getFrameworkTag());
         }
     }
 
-    protected boolean hasGroupIdMaven(File file, String groupId) throws ParserConfigurationException, IOException, SAXException {
-        NodeList nodeList = DocumentParser.getElementsByTag(file, "groupId");
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getTextContent().startsWith(groupId)) {
-                return true;
-            }
-        }
-        return false;
+    protected boolean hasGroupIdMaven(File file, String groupId) throws IOException {
+        // the pom is parsed once for all the detectors of the component
+        return ConfigModels.getMavenModel(file).hasGroupId(groupId);
     }
 
 }
@@ -31,7 +31,7 @@ public class MicronautFrameworkDetectorProviderImpl extends JavaFrameworkDetecto
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return MICRONAUT_TAG;
     }
 }
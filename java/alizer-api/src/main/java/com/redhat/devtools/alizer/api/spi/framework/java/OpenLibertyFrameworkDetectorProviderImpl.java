@@ -31,7 +31,7 @@ public class OpenLibertyFrameworkDetectorProviderImpl extends JavaFrameworkDetec
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return LIBERTY_TAG;
     }
 }
@@ -31,7 +31,7 @@ public class QuarkusFrameworkDetectorProviderImpl extends JavaFrameworkDetectorP
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return QUARKUS_TAG;
     }
 }
@@ -31,7 +31,7 @@ public class SpringFrameworkDetectorProviderImpl extends JavaFrameworkDetectorPr
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return SPRING_TAG;
     }
 }
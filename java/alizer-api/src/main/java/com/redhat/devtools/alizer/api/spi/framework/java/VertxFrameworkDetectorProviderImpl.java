@@ -31,7 +31,7 @@ public class VertxFrameworkDetectorProviderImpl extends JavaFrameworkDetectorPro
     }
 
     @Override
-    protected String getFrameworkTag() {
+    public String getFrameworkTag() {
         return VERTX_TAG;
     }
 }
@@ -10,14 +10,19 @@
  ******************************************************************************/
 package com.redhat.devtools.alizer.api.spi.framework.nodejs;
 
+import com.redhat.devtools.alizer.api.spi.ProviderRegistry;
 import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider;
-import com.redhat.devtools.alizer.api.utils.Utils;
+import com.redhat.devtools.alizer.api.utils.ConfigModels;
+import com.redhat.devtools.alizer.api.utils.LockfileModel;
+import com.redhat.devtools.alizer.api.utils.PackageJsonModel;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 
 import static com.redhat.devtools.alizer.api.Constants.JAVASCRIPT;
@@ -31,16 +36,38 @@ public abstract class NodeJsFrameworkDetectorProvider implements FrameworkDetect
 
     protected abstract String getFrameworkTag();
 
+    /**
+     * Look for the framework in the dependencies of the package.json, then in the lockfiles next to it as it may only
+     * be pulled in transitively. Packages only installed for development are not taken into account.
+     *
+     * @param file package.json
+     * @return true if the framework is a dependency of the package
+     * @throws IOException if a file cannot be read
+     */
     @Override
     public boolean hasFramework(File file) throws IOException {
-        return getDependenciesFromPackageJson(file).keySet().stream().anyMatch(dependency -> dependency.equals(getFrameworkTag()));
+        // the dependencies are read once for all the detectors of the component
+        PackageJsonModel packageJson = ConfigModels.getPackageJsonModel(file);
+        if (packageJson.hasDependency(getFrameworkTag())) {
+            return true;
+        }
+        for (String lockfileName: LockfileModel.LOCKFILES) {
+            // resolved through the path, the package.json may belong to any file system (e.g a zip archive)
+            Path lockfile = file.toPath().resolveSibling(lockfileName);
+            // lockfiles are scanned once for the tags of all the detectors, stopping once they are all found
+            if (Files.isRegularFile(lockfile) && ConfigModels.get(lockfile, LockfileModel.class,
+                    lock -> LockfileModel.parse(lock, getFrameworkTags(), packageJson.getRuntimeDependencies())).hasPackage(getFrameworkTag())) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private Map<?, ?> getDependenciesFromPackageJson(File file) throws IOException {
-        Map<?, ?> packageJsonContent = Utils.getJsonFileAsMap(file);
-        if (!packageJsonContent.containsKey("dependencies")) {
-            return Collections.emptyMap();
+    private static Set<String> getFrameworkTags() {
+        Set<String> tags = new HashSet<>();
+        for (NodeJsFrameworkDetectorProvider detector: ProviderRegistry.get().getFrameworkDetectors(NodeJsFrameworkDetectorProvider.class)) {
+            tags.add(detector.getFrameworkTag());
         }
-        return (Map<?, ?>) packageJsonContent.get("dependencies");
+        return tags;
     }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import static com.redhat.devtools.alizer.api.Constants.PYTHON;
 
 public class DjangoFrameworkDetectorProviderImpl implements FrameworkDetectorWithoutConfigFileProvider {
     private static final String DJANGO_TAG = "from django.";
+    private static final List<String> DJANGO_FILES = Arrays.asList("manage.py", "urls.py", "wsgi.py", "asgi.py");
 
     @Override
     public FrameworkDetectorWithoutConfigFileProvider create() {
@@ -40,6 +41,11 @@ public class DjangoFrameworkDetectorProviderImpl implements FrameworkDetectorWit
         return Arrays.asList(DJANGO);
     }
 
+    @Override
+    public boolean isCandidateFile(File file) {
+        return DJANGO_FILES.stream().anyMatch(name -> name.equalsIgnoreCase(file.getName()));
+    }
+
     @Override
     public boolean hasFramework(List<File> files) throws IOException {
         Optional<File> manage = files.stream().filter(file -> file.getName().equalsIgnoreCase("manage.py")).findFirst();
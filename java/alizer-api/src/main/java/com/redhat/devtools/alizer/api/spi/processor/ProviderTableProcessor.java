@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi.processor;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generate the provider table of alizer (see com.redhat.devtools.alizer.api.spi.ProviderTable) from the
+ * META-INF/services files of the module, so its own providers are created with plain constructor calls instead of
+ * being discovered by ServiceLoader at runtime.
+ *
+ * The service files are read from the class output, where resources are copied before compiling. Every provider
+ * listed must be a public concrete class with a public constructor without parameters.
+ *
+ * The processor is not declared as a service, it only runs when compiling alizer-api (see its pom.xml).
+ */
+@SupportedAnnotationTypes("*")
+public class ProviderTableProcessor extends AbstractProcessor {
+
+    private static final String PACKAGE = "com.redhat.devtools.alizer.api.spi";
+    private static final String CLASS_NAME = "GeneratedProviderTable";
+    private static final String ENRICHER = PACKAGE + ".LanguageEnricherProvider";
+    private static final String DETECTOR = PACKAGE + ".framework.FrameworkDetectorProvider";
+
+    private boolean generated = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || roundEnv.processingOver()) {
+            return false;
+        }
+        generated = true;
+        try {
+            List<String> enrichers = readServiceFile(ENRICHER);
+            List<String> detectors = readServiceFile(DETECTOR);
+            if (checkProviders(ENRICHER, enrichers) & checkProviders(DETECTOR, detectors)) {
+                writeTable(enrichers, detectors);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate the provider table: " + e);
+        }
+        return false;
+    }
+
+    /**
+     * @return the classes listed in the service file, in their order, empty if the file does not exist
+     */
+    private List<String> readServiceFile(String service) throws IOException {
+        List<String> providers = new ArrayList<>();
+        FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + service);
+        try (Reader reader = new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8);
+             BufferedReader lines = new BufferedReader(reader)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!provider.isEmpty() && !providers.contains(provider)) {
+                    providers.add(provider);
+                }
+            }
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "No service file for " + service + ", the provider table is empty");
+        }
+        return providers;
+    }
+
+    /**
+     * @return true if all providers can be created by the table, errors are reported otherwise
+     */
+    private boolean checkProviders(String service, List<String> providers) {
+        TypeElement serviceElement = processingEnv.getElementUtils().getTypeElement(service);
+        boolean valid = true;
+        for (String provider: providers) {
+            TypeElement element = processingEnv.getElementUtils().getTypeElement(provider);
+            String error = null;
+            if (element == null) {
+                error = "not found";
+            } else if (!element.getModifiers().contains(Modifier.PUBLIC) || element.getModifiers().contains(Modifier.ABSTRACT)
+                    || element.getKind() != ElementKind.CLASS || isInnerClass(element)) {
+                error = "must be a public concrete class";
+            } else if (!hasPublicDefaultConstructor(element)) {
+                error = "must have a public constructor without parameters";
+            } else if (serviceElement != null && !processingEnv.getTypeUtils().isAssignable(element.asType(),
+                    processingEnv.getTypeUtils().erasure(serviceElement.asType()))) {
+                error = "does not implement " + service;
+            }
+            if (error != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Provider " + provider + " " + error, element);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private static boolean isInnerClass(TypeElement element) {
+        Element enclosing = element.getEnclosingElement();
+        return enclosing.getKind() != ElementKind.PACKAGE && !element.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private static boolean hasPublicDefaultConstructor(TypeElement element) {
+        for (ExecutableElement constructor: ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeTable(List<String> enrichers, List<String> detectors) throws IOException {
+        JavaFileObject source = processingEnv.getFiler().createSourceFile(PACKAGE + "." + CLASS_NAME);
+        try (Writer writer = source.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + PACKAGE + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Generated by " + ProviderTableProcessor.class.getName() + " from the META-INF/services files, do not edit");
+            out.println(" */");
+            out.println("final class " + CLASS_NAME + " implements ProviderTable {");
+            writeMethod(out, "getEnrichers", ENRICHER, enrichers);
+            writeMethod(out, "getFrameworkDetectors", DETECTOR, detectors);
+            out.println("}");
+        }
+    }
+
+    private static void writeMethod(PrintWriter out, String name, String service, List<String> providers) {
+        out.println();
+        out.println("    @Override");
+        out.println("    public java.util.List<" + service + "> " + name + "() {");
+        out.println("        java.util.List<" + service + "> providers = new java.util.ArrayList<>(" + providers.size() + ");");
+        for (String provider: providers) {
+            out.println("        providers.add(new " + provider + "());");
+        }
+        out.println("        return providers;");
+        out.println("    }");
+    }
+}
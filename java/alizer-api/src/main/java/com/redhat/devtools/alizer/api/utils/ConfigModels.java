@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Models of the configuration files (e.g pom.xml, package.json) parsed during an analysis, so a file is parsed once whatever the
+ * number of enrichers and detectors reading it.
+ *
+ * Models are only kept while a scope is open on the current thread, e.g while a component is detected, and are
+ * dropped when the outermost scope is closed. Scopes opened within another one share its models. Without any scope
+ * open, every call parses the file again.
+ */
+public final class ConfigModels implements AutoCloseable {
+
+    private static final ThreadLocal<ConfigModels> CURRENT = new ThreadLocal<>();
+
+    private final boolean outermost;
+    private final Map<List<Object>, Object> models;
+
+    private ConfigModels(boolean outermost, Map<List<Object>, Object> models) {
+        this.outermost = outermost;
+        this.models = models;
+    }
+
+    /**
+     * @return a scope to close once the models are not needed anymore
+     */
+    public static ConfigModels open() {
+        ConfigModels current = CURRENT.get();
+        if (current != null) {
+            return new ConfigModels(false, current.models);
+        }
+        ConfigModels scope = new ConfigModels(true, new HashMap<>());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Run an action within a scope, closed once the action returns
+     *
+     * @param action action reading models
+     * @return the result of the action
+     * @throws E the exception thrown by the action
+     */
+    public static <T, E extends Exception> T run(Action<T, E> action) throws E {
+        ConfigModels scope = open();
+        try {
+            return action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (outermost) {
+            models.clear();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @param file pom.xml
+     * @return the model of the file, parsed once per scope
+     * @throws IOException if the file cannot be parsed
+     */
+    public static MavenModel getMavenModel(File file) throws IOException {
+        return get(file, MavenModel.class, MavenModel::parse);
+    }
+
+    /**
+     * @param file package.json
+     * @return the model of the file, parsed once per scope
+     * @throws IOException if the file cannot be parsed
+     */
+    public static PackageJsonModel getPackageJsonModel(File file) throws IOException {
+        return get(file, PackageJsonModel.class, PackageJsonModel::parse);
+    }
+
+    /**
+     * @param file configuration file
+     * @param type type of the model, a file may have several models
+     * @param parser parser creating the model from the file
+     * @return the model of the file, parsed once per scope
+     * @throws IOException if the file cannot be parsed, failures are not cached
+     */
+    public static <T> T get(File file, Class<T> type, Parser<T> parser) throws IOException {
+        return get(file.toPath(), type, path -> parser.parse(file));
+    }
+
+    /**
+     * @param path configuration file, of any file system (e.g the content of a zip archive)
+     * @param type type of the model, a file may have several models
+     * @param parser parser creating the model from the path
+     * @return the model of the file, parsed once per scope
+     * @throws IOException if the file cannot be parsed, failures are not cached
+     */
+    public static <T> T get(Path path, Class<T> type, PathParser<T> parser) throws IOException {
+        ConfigModels current = CURRENT.get();
+        if (current == null) {
+            return parser.parse(path);
+        }
+        // paths of distinct file systems are never equal, even with the same name
+        List<Object> key = Arrays.asList(type.getName(), path.toAbsolutePath());
+        Object model = current.models.get(key);
+        if (model == null) {
+            model = parser.parse(path);
+            current.models.put(key, model);
+        }
+        return type.cast(model);
+    }
+
+    /**
+     * @return number of models kept by the scope of the current thread, 0 if none is open
+     */
+    static int size() {
+        ConfigModels current = CURRENT.get();
+        return current == null ? 0 : current.models.size();
+    }
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(File file) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface PathParser<T> {
+        T parse(Path path) throws IOException;
+    }
+}
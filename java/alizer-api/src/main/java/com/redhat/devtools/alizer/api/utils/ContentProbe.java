@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Look for tags in files without decoding them. Files are read chunk by chunk through a channel into a buffer
+ * reused by the calling thread, tags are matched on the raw bytes and reading stops at the first match.
+ * Only the first bytes of a file are probed (4 MiB by default, see {@link #MAX_PROBE_SIZE_PROPERTY}), so huge
+ * generated files cannot slow the analysis down.
+ */
+public class ContentProbe {
+
+    /**
+     * System property setting the default maximum number of bytes probed per file
+     */
+    public static final String MAX_PROBE_SIZE_PROPERTY = "alizer.probe.maxSize";
+    private static final long DEFAULT_MAX_PROBE_SIZE = 4L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+    private static final ContentProbe DEFAULT = new ContentProbe(Long.getLong(MAX_PROBE_SIZE_PROPERTY, DEFAULT_MAX_PROBE_SIZE));
+
+    private final long maxProbeSize;
+
+    /**
+     * @param maxProbeSize maximum number of bytes read per file
+     */
+    public ContentProbe(long maxProbeSize) {
+        this.maxProbeSize = maxProbeSize;
+    }
+
+    public static ContentProbe getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param file file to probe
+     * @param tag text to look for, matched on its UTF-8 bytes
+     * @return true if the tag is found within the probed part of the file
+     * @throws IOException if the file cannot be read
+     */
+    public boolean contains(Path file, String tag) throws IOException {
+        return contains(file, tag.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean contains(Path file, byte[] tag) throws IOException {
+        if (tag.length == 0) {
+            return true;
+        }
+        ByteBuffer buffer = tag.length < BUFFER_SIZE ? BUFFERS.get() : ByteBuffer.allocate(tag.length * 2);
+        buffer.clear();
+        byte[] bytes = buffer.array();
+        long read = 0;
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            while (read < maxProbeSize) {
+                buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + maxProbeSize - read));
+                int count = channel.read(buffer);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+                int end = buffer.position();
+                if (indexOf(bytes, end, tag) >= 0) {
+                    return true;
+                }
+                // keep the end of the chunk, a tag may be split over two chunks
+                int kept = Math.min(tag.length - 1, end);
+                System.arraycopy(bytes, end - kept, bytes, 0, kept);
+                buffer.clear();
+                buffer.position(kept);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Look for all the tags of a matcher in a single pass over the file. Reading stops once every tag is found.
+     *
+     * @param file file to probe
+     * @param matcher tags to look for
+     * @return the tags found within the probed part of the file
+     * @throws IOException if the file cannot be read
+     */
+    public Set<String> find(Path file, TagMatcher matcher) throws IOException {
+        Set<String> found = new LinkedHashSet<>();
+        if (matcher.size() == 0) {
+            return found;
+        }
+        BitSet matched = new BitSet(matcher.size());
+        ByteBuffer buffer = BUFFERS.get();
+        byte[] bytes = buffer.array();
+        int state = matcher.start();
+        long read = 0;
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            while (read < maxProbeSize) {
+                // the automaton state carries partial matches over chunks, no need to keep the end of a chunk
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), maxProbeSize - read));
+                int count = channel.read(buffer);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+                for (int i = 0; i < count; i++) {
+                    state = matcher.next(state, bytes[i]);
+                    for (int tag: matcher.getMatches(state)) {
+                        if (!matched.get(tag)) {
+                            matched.set(tag);
+                            found.add(matcher.getTag(tag));
+                            if (found.size() == matcher.size()) {
+                                return found;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int indexOf(byte[] bytes, int end, byte[] tag) {
+        byte first = tag[0];
+        int last = end - tag.length;
+        for (int i = 0; i <= last; i++) {
+            if (bytes[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < tag.length && bytes[i + j] == tag[j]) {
+                j++;
+            }
+            if (j == tag.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -12,25 +12,146 @@ package com.redhat.devtools.alizer.api.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 public class DocumentParser {
 
+    // factories are not guaranteed to be thread-safe, every thread configures its own once
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORIES = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // no DTD nor external entity, configuration files are untrusted
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    });
+
     public static NodeList getElementsByTag(File file, String tag) throws IOException, SAXException, ParserConfigurationException {
+        return getDocument(file).getElementsByTagName(tag);
+    }
+
+    public static Document getDocument(File file) throws IOException, SAXException, ParserConfigurationException {
         DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+        // no DTD nor external entity, as for the streaming parser
+        dbFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        dbFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        dbFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        dbFactory.setXIncludeAware(false);
+        dbFactory.setExpandEntityReferences(false);
         DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(file);
+        Document doc;
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            doc = dBuilder.parse(stream);
+        }
         doc.getDocumentElement().normalize();
-        return doc.getElementsByTagName(tag);
+        return doc;
     }
 
     public static boolean isTagInFile(File file, String tag) throws IOException {
-        return Files.readAllLines(file.toPath()).stream().anyMatch(line -> line.contains(tag));
+        return ContentProbe.getDefault().contains(file.toPath(), tag);
+    }
+
+    /**
+     * Extract elements in a single forward pass, without building the document. Elements are matched by local name.
+     *
+     * @param file XML file to read
+     * @param tags local names of the elements to extract
+     * @param firstOnly true to only extract the first element started of every tag and stop reading once they are all read
+     * @return the elements extracted per tag, in document order, tags not found are missing
+     * @throws IOException if the file cannot be read
+     * @throws XMLStreamException if the file is not well-formed
+     */
+    public static Map<String, List<XmlElement>> getElements(File file, Collection<String> tags, boolean firstOnly) throws IOException, XMLStreamException {
+        Map<String, List<XmlElement>> elements = new LinkedHashMap<>();
+        Set<String> remaining = new HashSet<>(tags);
+        // open elements, only the ones extracted collect their text
+        Deque<OpenElement> open = new ArrayDeque<>();
+        int extractedOpen = 0;
+        int nextId = 0;
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            XMLStreamReader reader = INPUT_FACTORIES.get().createXMLStreamReader(stream);
+            try {
+                while (reader.hasNext() && (!remaining.isEmpty() || extractedOpen > 0)) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        OpenElement parent = open.peek();
+                        OpenElement element = new OpenElement(name, nextId++);
+                        if (remaining.contains(name)) {
+                            element.text = new StringBuilder();
+                            element.attributes = new HashMap<>();
+                            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                                element.attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                            }
+                            element.parentName = parent == null ? "" : parent.name;
+                            element.parentId = parent == null ? -1 : parent.id;
+                            // the slot is taken when the element starts, so elements nested in one another keep the document order
+                            List<XmlElement> extracted = elements.computeIfAbsent(name, key -> new ArrayList<>());
+                            element.index = extracted.size();
+                            extracted.add(null);
+                            extractedOpen++;
+                            if (firstOnly) {
+                                remaining.remove(name);
+                            }
+                        }
+                        open.push(element);
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        OpenElement element = open.pop();
+                        if (element.text != null) {
+                            elements.get(element.name).set(element.index, new XmlElement(element.name,
+                                    element.id, element.parentName, element.parentId, element.attributes, element.text.toString()));
+                            extractedOpen--;
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                            || event == XMLStreamConstants.SPACE) {
+                        for (OpenElement element: open) {
+                            if (element.text != null) {
+                                element.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return elements;
+    }
+
+    private static class OpenElement {
+        private final String name;
+        private final int id;
+        private String parentName;
+        private int parentId;
+        private int index;
+        private Map<String, String> attributes;
+        private StringBuilder text;
+
+        private OpenElement(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
     }
 }
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Count the lines of files without decoding them. Files are read chunk by chunk through a channel into a direct
+ * buffer reused by the calling thread, and newlines are counted eight bytes at a time with bitwise operations on
+ * longs, so counting is bound by the speed of the disk rather than by a loop over every byte.
+ */
+public class LineCounter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() ->
+            ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private LineCounter() {}
+
+    /**
+     * @param file file to read
+     * @return number of lines of the file, a last line without newline is counted too
+     * @throws IOException if the file cannot be read
+     */
+    public static long countLines(Path file) throws IOException {
+        ByteBuffer buffer = BUFFERS.get();
+        long lines = 0;
+        byte last = '\n';
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    last = buffer.get(buffer.limit() - 1);
+                }
+                lines += countNewlines(buffer);
+                // keep the bytes not counted yet, the next read completes them to a long
+                buffer.compact();
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                if (buffer.get() == '\n') {
+                    lines++;
+                }
+            }
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    /**
+     * Count the newlines of the complete longs remaining in the buffer and consume them
+     */
+    private static long countNewlines(ByteBuffer buffer) {
+        long count = 0;
+        while (buffer.remaining() >= Long.BYTES) {
+            // bytes equal to a newline become zero, then only the high bit of zero bytes is set
+            long word = buffer.getLong() ^ NEWLINES;
+            long zeros = ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+            count += Long.bitCount(zeros);
+        }
+        return count;
+    }
+}
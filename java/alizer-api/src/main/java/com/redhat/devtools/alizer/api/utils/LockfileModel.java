@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packages of interest installed according to a Node.js lockfile (package-lock.json, yarn.lock or pnpm-lock.yaml),
+ * direct or transitive dependencies alike. Packages only installed for development (e.g express pulled in by
+ * webpack-dev-server) are left out:
+ * - package-lock.json entries marked as dev are skipped
+ * - pnpm-lock.yaml is only looked at for the dependencies and optional dependencies of its importers
+ * - yarn.lock does not tell dev packages apart, only packages reachable from the runtime dependencies of the
+ * package.json are kept
+ *
+ * package-lock.json and pnpm-lock.yaml can be huge, they are streamed token by token and only the names looked for
+ * are kept, so memory does not depend on the size of the file. Reading stops once all the names are found. yarn.lock
+ * is read line by line, the names of the dependencies of each package are kept to walk the graph.
+ */
+public final class LockfileModel {
+
+    public static final List<String> LOCKFILES = Arrays.asList("package-lock.json", "yarn.lock", "pnpm-lock.yaml");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+    // objects keyed by package name (or path within node_modules) in package-lock.json, v1 nests them in entries
+    private static final List<String> PACKAGE_FIELDS = Arrays.asList("packages", "dependencies");
+    // objects keyed by package name in the importers of pnpm-lock.yaml (or at the root before lockfile v9)
+    private static final List<String> IMPORTER_FIELDS = Arrays.asList("dependencies", "optionalDependencies");
+    private static final String IMPORTERS = "importers";
+    // dependency blocks of a yarn.lock package, peer dependencies are installed by the dependent package
+    private static final List<String> YARN_DEPENDENCY_FIELDS = Arrays.asList("dependencies:", "optionalDependencies:");
+    private static final String NODE_MODULES = "node_modules/";
+
+    private final Set<String> packages;
+
+    private LockfileModel(Set<String> packages) {
+        this.packages = Collections.unmodifiableSet(packages);
+    }
+
+    /**
+     * @param path lockfile, see {@link #LOCKFILES}, of any file system
+     * @param names names of the packages to look for
+     * @param roots runtime dependencies of the package.json (see {@link PackageJsonModel#getRuntimeDependencies()}),
+     *              only used for yarn.lock
+     * @return the model of the file, empty if the file is not a known lockfile
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static LockfileModel parse(Path path, Collection<String> names, Collection<String> roots) throws IOException {
+        Set<String> remaining = new HashSet<>(names);
+        Set<String> found = new HashSet<>();
+        String name = path.getFileName() == null ? "" : path.getFileName().toString();
+        if (name.equals("yarn.lock")) {
+            scanYarnLock(path, roots, remaining, found);
+        } else if (name.equals("package-lock.json")) {
+            try (InputStream stream = Files.newInputStream(path);
+                 JsonParser parser = JSON_FACTORY.createParser(stream)) {
+                scanPackageLock(parser, remaining, found);
+            }
+        } else if (name.equals("pnpm-lock.yaml")) {
+            try (InputStream stream = Files.newInputStream(path);
+                 JsonParser parser = YAML_FACTORY.createParser(stream)) {
+                scanPnpmLock(parser, remaining, found);
+            }
+        }
+        return new LockfileModel(found);
+    }
+
+    /**
+     * Look at the keys of the package objects, values are never deserialized. Only the dev flag of the entries looked
+     * for is read, an entry is kept once its object is over. Keys with a value other than an object are version
+     * ranges (e.g the dependencies of a v2 entry), not installed packages.
+     */
+    private static void scanPackageLock(JsonParser parser, Set<String> remaining, Set<String> found) throws IOException {
+        // entries looked for which are being read, innermost last
+        Deque<Entry> entries = new ArrayDeque<>();
+        String pending = null;
+        int depth = 0;
+        JsonToken token;
+        while (!remaining.isEmpty() && (token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                depth++;
+                if (pending != null) {
+                    entries.addLast(new Entry(pending, depth));
+                }
+                pending = null;
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                depth--;
+                if (!entries.isEmpty() && entries.peekLast().depth > depth) {
+                    Entry entry = entries.removeLast();
+                    if (!entry.dev) {
+                        check(entry.name, remaining, found);
+                    }
+                }
+            } else if (token == JsonToken.FIELD_NAME) {
+                pending = null;
+                JsonStreamContext container = parser.getParsingContext().getParent();
+                if (container != null && PACKAGE_FIELDS.contains(container.getCurrentName())) {
+                    String name = getPackageName(parser.getCurrentName());
+                    if (remaining.contains(name)) {
+                        pending = name;
+                    }
+                } else if (parser.getCurrentName().equals("dev") && !entries.isEmpty() && entries.peekLast().depth == depth) {
+                    entries.peekLast().dev = parser.nextToken() == JsonToken.VALUE_TRUE;
+                    parser.skipChildren();
+                }
+            } else {
+                if (token == JsonToken.START_ARRAY) {
+                    depth++;
+                }
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Look at the keys of the dependencies of the importers only, packages of pnpm-lock.yaml do not tell dev
+     * packages apart since lockfile v9
+     */
+    private static void scanPnpmLock(JsonParser parser, Set<String> remaining, Set<String> found) throws IOException {
+        JsonToken token;
+        while (!remaining.isEmpty() && (token = parser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                JsonStreamContext container = parser.getParsingContext().getParent();
+                if (container != null && IMPORTER_FIELDS.contains(container.getCurrentName()) && isImporter(container.getParent())) {
+                    check(getPackageName(parser.getCurrentName()), remaining, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param context context of the parent of a dependencies object
+     * @return true if it is the document (a single project before lockfile v9) or an entry of the importers
+     */
+    private static boolean isImporter(JsonStreamContext context) {
+        if (context == null) {
+            return false;
+        }
+        if (context.inRoot()) {
+            return true;
+        }
+        JsonStreamContext importers = context.getParent();
+        return importers != null && IMPORTERS.equals(importers.getCurrentName())
+                && importers.getParent() != null && importers.getParent().inRoot();
+    }
+
+    /**
+     * yarn.lock (classic or berry) lists every package at the start of a line, e.g
+     * "express@^4.17.1, express@^4.0.0:" or "\"@babel/core@npm:^7.0.0\":", followed by its indented dependencies,
+     * e.g "    react \"^17.0.2\"" or "    react: ^17.0.2". The graph is walked from the roots.
+     */
+    private static void scanYarnLock(Path path, Collection<String> roots, Set<String> remaining, Set<String> found) throws IOException {
+        Map<String, Set<String>> graph = new HashMap<>();
+        List<String> current = Collections.emptyList();
+        boolean inDependencies = false;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                if (!Character.isWhitespace(line.charAt(0))) {
+                    current = new ArrayList<>();
+                    inDependencies = false;
+                    if (line.endsWith(":")) {
+                        for (String descriptor: line.substring(0, line.length() - 1).split(",")) {
+                            current.add(getPackageName(descriptor.trim().replace("\"", "")));
+                        }
+                    }
+                } else if (!line.startsWith("    ")) {
+                    inDependencies = YARN_DEPENDENCY_FIELDS.contains(line.trim());
+                } else if (inDependencies) {
+                    String dependency = getYarnDependencyName(line.trim());
+                    for (String name: current) {
+                        graph.computeIfAbsent(name, key -> new HashSet<>()).add(dependency);
+                    }
+                }
+            }
+        }
+        Deque<String> queue = new ArrayDeque<>(roots);
+        Set<String> visited = new HashSet<>();
+        while (!remaining.isEmpty() && !queue.isEmpty()) {
+            String name = queue.removeFirst();
+            if (visited.add(name)) {
+                check(name, remaining, found);
+                queue.addAll(graph.getOrDefault(name, Collections.emptySet()));
+            }
+        }
+    }
+
+    /**
+     * @param line dependency of a yarn.lock package, e.g react "^17.0.2", "@babel/core" "^7.0.0" or react: ^17.0.2
+     * @return the name of the dependency
+     */
+    private static String getYarnDependencyName(String line) {
+        if (line.startsWith("\"")) {
+            int end = line.indexOf('"', 1);
+            return end > 0 ? line.substring(1, end) : line.substring(1);
+        }
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == ':') {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static void check(String packageName, Set<String> remaining, Set<String> found) {
+        if (remaining.remove(packageName)) {
+            found.add(packageName);
+        }
+    }
+
+    /**
+     * @param key package key of a lockfile, e.g express, node_modules/a/node_modules/express, /express/4.17.1,
+     *            /@types/node@16.0.0 or express@^4.17.1
+     * @return the name of the package
+     */
+    static String getPackageName(String key) {
+        int nodeModules = key.lastIndexOf(NODE_MODULES);
+        String name = nodeModules >= 0 ? key.substring(nodeModules + NODE_MODULES.length()) : key;
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        // a scope is part of the name, the version comes after the first separator following it
+        int from = name.startsWith("@") ? name.indexOf('/') + 1 : 0;
+        if (from == 0 && name.startsWith("@")) {
+            return name;
+        }
+        for (int i = from; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '@' || c == '/' || c == '(') {
+                return name.substring(0, i);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * @return the names looked for which are installed
+     */
+    public Set<String> getPackages() {
+        return packages;
+    }
+
+    public boolean hasPackage(String name) {
+        return packages.contains(name);
+    }
+
+    private static final class Entry {
+        private final String name;
+        // depth of the object of the entry
+        private final int depth;
+        private boolean dev = false;
+
+        private Entry(String name, int depth) {
+            this.name = name;
+            this.depth = depth;
+        }
+    }
+}
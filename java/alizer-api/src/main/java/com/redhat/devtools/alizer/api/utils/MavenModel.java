@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * What the detectors read from a pom.xml, extracted in a single streaming pass. Use {@link ConfigModels#getMavenModel(File)} to share the model
+ * of a file with all the detectors of an analysis.
+ */
+public final class MavenModel {
+
+    private static final List<String> TAGS = Arrays.asList("groupId", "artifactId", "modules", "module", "dependency", "plugin");
+
+    private final List<String> groupIds;
+    private final boolean hasModules;
+    private final List<String> modules;
+    private final List<String> dependencies;
+    private final List<String> plugins;
+
+    private MavenModel(List<String> groupIds, boolean hasModules, List<String> modules, List<String> dependencies,
+                       List<String> plugins) {
+        this.groupIds = Collections.unmodifiableList(groupIds);
+        this.hasModules = hasModules;
+        this.modules = Collections.unmodifiableList(modules);
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.plugins = Collections.unmodifiableList(plugins);
+    }
+
+    /**
+     * @param file pom.xml to parse
+     * @return the model of the file
+     * @throws IOException if the file cannot be read or is not valid XML
+     */
+    public static MavenModel parse(File file) throws IOException {
+        Map<String, List<XmlElement>> elements;
+        try {
+            elements = DocumentParser.getElements(file, TAGS, false);
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        List<String> groupIds = getTexts(elements.get("groupId"));
+        List<String> modules = getTexts(elements.get("module"));
+        // groupId:artifactId of the dependencies and plugins, from their child elements
+        Map<Integer, String[]> coordinates = new TreeMap<>();
+        Map<Integer, Boolean> isPlugin = new HashMap<>();
+        for (String tag: Arrays.asList("dependency", "plugin")) {
+            for (XmlElement element: elements.getOrDefault(tag, Collections.emptyList())) {
+                coordinates.put(element.getId(), new String[] { "", "" });
+                isPlugin.put(element.getId(), tag.equals("plugin"));
+            }
+        }
+        for (String tag: Arrays.asList("groupId", "artifactId")) {
+            for (XmlElement element: elements.getOrDefault(tag, Collections.emptyList())) {
+                String[] coordinate = coordinates.get(element.getParentId());
+                if (coordinate != null) {
+                    coordinate[tag.equals("groupId") ? 0 : 1] = element.getText().trim();
+                }
+            }
+        }
+        List<String> dependencies = new ArrayList<>();
+        List<String> plugins = new ArrayList<>();
+        coordinates.forEach((id, coordinate) -> (isPlugin.get(id) ? plugins : dependencies).add(coordinate[0] + ":" + coordinate[1]));
+        return new MavenModel(groupIds, elements.containsKey("modules"), modules, dependencies, plugins);
+    }
+
+    private static List<String> getTexts(List<XmlElement> elements) {
+        if (elements == null) {
+            return new ArrayList<>();
+        }
+        List<String> texts = new ArrayList<>(elements.size());
+        for (XmlElement element: elements) {
+            texts.add(element.getText().trim());
+        }
+        return texts;
+    }
+
+    /**
+     * @return all the groupIds of the file (project, parent, dependencies, plugins...), in document order
+     */
+    public List<String> getGroupIds() {
+        return groupIds;
+    }
+
+    /**
+     * @param prefix start of a groupId (e.g io.quarkus)
+     * @return true if a groupId of the file starts with the prefix
+     */
+    public boolean hasGroupId(String prefix) {
+        return groupIds.stream().anyMatch(groupId -> groupId.startsWith(prefix));
+    }
+
+    /**
+     * @return true if the file declares modules, i.e it is a parent module
+     */
+    public boolean hasModules() {
+        return hasModules;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    /**
+     * @return groupId:artifactId of all the dependencies, managed ones included
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return groupId:artifactId of all the plugins
+     */
+    public List<String> getPlugins() {
+        return plugins;
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Names of the packages a package.json depends on, read in a single streaming pass. Only the keys of the dependency
+ * objects are kept, every other value (scripts, configuration blocks, versions...) is skipped without being
+ * deserialized. Use {@link ConfigModels#getPackageJsonModel(File)} to share the model of a file with all the detectors
+ * of an analysis.
+ */
+public final class PackageJsonModel {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // dev and peer dependencies are not installed with the package, they don't tell which frameworks it uses
+    private static final List<String> DEPENDENCY_FIELDS = Collections.singletonList("dependencies");
+    // dependencies installed in production
+    private static final List<String> RUNTIME_FIELDS = Arrays.asList("dependencies", "optionalDependencies");
+
+    private final Set<String> dependencies;
+    private final Set<String> runtimeDependencies;
+
+    private PackageJsonModel(Set<String> dependencies, Set<String> runtimeDependencies) {
+        this.dependencies = Collections.unmodifiableSet(dependencies);
+        this.runtimeDependencies = Collections.unmodifiableSet(runtimeDependencies);
+    }
+
+    /**
+     * @param file package.json to parse
+     * @return the model of the file
+     * @throws IOException if the file cannot be read or is not valid JSON
+     */
+    public static PackageJsonModel parse(File file) throws IOException {
+        Set<String> dependencies = new HashSet<>();
+        Set<String> runtimeDependencies = new HashSet<>();
+        try (InputStream stream = Files.newInputStream(file.toPath());
+             JsonParser parser = JSON_FACTORY.createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new PackageJsonModel(dependencies, runtimeDependencies);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                boolean declared = DEPENDENCY_FIELDS.contains(field);
+                boolean runtime = RUNTIME_FIELDS.contains(field);
+                if (value == JsonToken.START_OBJECT && (declared || runtime)) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        if (declared) {
+                            dependencies.add(parser.getCurrentName());
+                        }
+                        if (runtime) {
+                            runtimeDependencies.add(parser.getCurrentName());
+                        }
+                        parser.nextToken();
+                        parser.skipChildren();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new PackageJsonModel(dependencies, runtimeDependencies);
+    }
+
+    /**
+     * @return names of the dependencies, dev and peer dependencies are not included
+     */
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return names of the dependencies and optional dependencies, the ones installed in production
+     */
+    public Set<String> getRuntimeDependencies() {
+        return runtimeDependencies;
+    }
+
+    public boolean hasDependency(String name) {
+        return dependencies.contains(name);
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton matching several tags at once on the UTF-8 bytes of a content.
+ * Every byte is read once whatever the number of tags. Instances are immutable and can be shared between threads.
+ */
+public class TagMatcher {
+
+    private static final int[] NO_MATCH = new int[0];
+
+    private final String[] tags;
+    // transitions[state][byte], complete so matching never follows failure links
+    private final int[][] transitions;
+    // indexes of the tags ending at each state
+    private final int[][] matches;
+
+    public TagMatcher(Collection<String> tags) {
+        this.tags = new LinkedHashSet<>(tags).toArray(new String[0]);
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newState());
+        ends.add(new ArrayList<>());
+        for (int i = 0; i < this.tags.length; i++) {
+            int state = 0;
+            for (byte b: this.tags[i].getBytes(StandardCharsets.UTF_8)) {
+                int next = trie.get(state)[b & 0xFF];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.get(state)[b & 0xFF] = next;
+                    trie.add(newState());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(i);
+        }
+
+        // breadth-first: failure links of a state only depend on states closer to the root
+        int[] failures = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int b = 0; b < 256; b++) {
+            if (root[b] < 0) {
+                root[b] = 0;
+            } else {
+                failures[root[b]] = 0;
+                queue.add(root[b]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            ends.get(state).addAll(ends.get(failures[state]));
+            int[] transition = trie.get(state);
+            for (int b = 0; b < 256; b++) {
+                int next = transition[b];
+                if (next < 0) {
+                    transition[b] = trie.get(failures[state])[b];
+                } else {
+                    failures[next] = trie.get(failures[state])[b];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.matches = new int[ends.size()][];
+        for (int state = 0; state < ends.size(); state++) {
+            List<Integer> stateEnds = ends.get(state);
+            matches[state] = stateEnds.isEmpty() ? NO_MATCH : stateEnds.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    private static int[] newState() {
+        int[] state = new int[256];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    /**
+     * @return number of distinct tags
+     */
+    public int size() {
+        return tags.length;
+    }
+
+    public String getTag(int index) {
+        return tags[index];
+    }
+
+    /**
+     * @return the initial state
+     */
+    int start() {
+        return 0;
+    }
+
+    int next(int state, byte b) {
+        return transitions[state][b & 0xFF];
+    }
+
+    /**
+     * @return indexes of the tags ending at state
+     */
+    int[] getMatches(int state) {
+        return matches[state];
+    }
+}
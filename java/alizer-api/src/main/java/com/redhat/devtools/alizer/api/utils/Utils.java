@@ -12,25 +12,28 @@ package com.redhat.devtools.alizer.api.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.spi.ProviderRegistry;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
 
 public class Utils {
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
 
     public static LanguageEnricherProvider getEnricherByLanguage(String language) {
-        ServiceLoader<LanguageEnricherProvider> loader = ServiceLoader.load(LanguageEnricherProvider.class, Utils.class.getClassLoader());
-        for (LanguageEnricherProvider provider : loader) {
-            if (provider.create().getSupportedLanguages().stream().anyMatch(supported -> supported.equalsIgnoreCase(language))) {
-                return provider;
-            }
-        }
-        return null;
+        return ProviderRegistry.get().getEnricherByLanguage(language);
+    }
+
+    public static List<LanguageEnricherProvider> getEnrichers() {
+        return ProviderRegistry.get().getEnrichers();
     }
 
     public static Map getJsonFileAsMap(File file) throws IOException {
-        return JSON_MAPPER.readValue(file, Map.class);
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            return JSON_MAPPER.readValue(stream, Map.class);
+        }
     }
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Element extracted by {@link DocumentParser#getElements(java.io.File, java.util.Collection, boolean)}: its name,
+ * attributes and text, plus its position in the document so elements sharing a parent can be grouped.
+ */
+public final class XmlElement {
+
+    private final String name;
+    private final int id;
+    private final String parentName;
+    private final int parentId;
+    private final Map<String, String> attributes;
+    private final String text;
+
+    XmlElement(String name, int id, String parentName, int parentId, Map<String, String> attributes, String text) {
+        this.name = name;
+        this.id = id;
+        this.parentName = parentName;
+        this.parentId = parentId;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.text = text;
+    }
+
+    /**
+     * @return local name of the element, without namespace prefix
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return index of the element among all the elements of the document, in document order
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return local name of the parent element, empty for the root element
+     */
+    public String getParentName() {
+        return parentName;
+    }
+
+    /**
+     * @return index of the parent element, -1 for the root element
+     */
+    public int getParentId() {
+        return parentId;
+    }
+
+    /**
+     * @param name local name of an attribute
+     * @return the value of the attribute, empty if not set
+     */
+    public String getAttribute(String name) {
+        return attributes.getOrDefault(name, "");
+    }
+
+    /**
+     * @return text of the element and its descendants, as DOM getTextContent
+     */
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import com.redhat.devtools.alizer.api.spi.LanguageEnricherProvider;
+import com.redhat.devtools.alizer.api.spi.ProviderRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AnalysisCacheTest {
+    private Path project;
+    private Path cache;
+
+    @Before
+    public void setup() throws IOException {
+        project = Files.createTempDirectory("alizer-project").toRealPath();
+        cache = Files.createTempDirectory("alizer-cache").toRealPath();
+        FileUtils.copyDirectory(new File("../../resources/projects/double-components"), project.toFile());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(project.toFile());
+        FileUtils.deleteDirectory(cache.toFile());
+    }
+
+    @Test
+    public void testFingerprints() throws IOException {
+        ProjectSnapshot snapshot = ProjectSnapshot.of(project);
+        assertEquals(snapshot.getFingerprint(project), ProjectSnapshot.of(project).getFingerprint(project));
+
+        Path file = snapshot.getFiles(project.resolve("frontend")).get(0).toPath();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 10000));
+        ProjectSnapshot modified = ProjectSnapshot.of(project);
+        assertNotEquals(snapshot.getFingerprint(project), modified.getFingerprint(project));
+        assertNotEquals(snapshot.getFingerprint(project.resolve("frontend")), modified.getFingerprint(project.resolve("frontend")));
+        assertEquals(snapshot.getFingerprint(project.resolve("backend")), modified.getFingerprint(project.resolve("backend")));
+    }
+
+    @Test
+    public void testKeyDependsOnProviders() {
+        AnalysisCache analysisCache = new AnalysisCache(cache, 1024);
+        String key = analysisCache.getKey("languages", project, "fingerprint");
+        assertEquals(key, analysisCache.getKey("languages", project, "fingerprint"));
+        // results of the previous providers are not reused, e.g after a plugin is added
+        ProviderRegistry.get().register(new KeyTestEnricher());
+        assertNotEquals(key, analysisCache.getKey("languages", project, "fingerprint"));
+    }
+
+    private static class KeyTestEnricher extends LanguageEnricherProvider {
+        @Override
+        public LanguageEnricherProvider create() {
+            return new KeyTestEnricher();
+        }
+
+        @Override
+        public List<String> getSupportedLanguages() {
+            return Collections.singletonList("Alizer Key Test Language");
+        }
+
+        @Override
+        public Language getEnrichedLanguage(Language language, List<File> files) {
+            return language;
+        }
+    }
+
+    @Test
+    public void testCachedComponents() throws IOException {
+        ComponentRecognizer recognizer = new RecognizerFactory().withCache(cache, 10 * 1024 * 1024).createComponentRecognizer();
+        List<Component> expected = new RecognizerFactory().createComponentRecognizer().analyze(project);
+
+        assertSameComponents(expected, recognizer.analyze(project));
+        long entries = countEntries();
+        assertTrue(entries > 0);
+        assertSameComponents(expected, recognizer.analyze(project));
+        assertEquals(entries, countEntries());
+
+        Files.write(project.resolve("frontend/extra.js"), "console.log('extra');".getBytes(StandardCharsets.UTF_8));
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(project), recognizer.analyze(project));
+        assertTrue(countEntries() > entries);
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        ComponentRecognizer recognizer = new RecognizerFactory().withCache(cache, 1).createComponentRecognizer();
+        List<Component> expected = new RecognizerFactory().createComponentRecognizer().analyze(project);
+        assertSameComponents(expected, recognizer.analyze(project));
+        assertEquals(0, countEntries());
+    }
+
+    private long countEntries() throws IOException {
+        try (Stream<Path> files = Files.list(cache)) {
+            return files.filter(file -> file.toString().endsWith(".json")).count();
+        }
+    }
+
+    private void assertSameComponents(List<Component> expected, List<Component> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPath(), actual.get(i).getPath());
+            List<Language> expectedLanguages = expected.get(i).getLanguages();
+            List<Language> actualLanguages = actual.get(i).getLanguages();
+            assertEquals(expectedLanguages.size(), actualLanguages.size());
+            for (int j = 0; j < expectedLanguages.size(); j++) {
+                assertEquals(expectedLanguages.get(j).getName(), actualLanguages.get(j).getName());
+                assertEquals(expectedLanguages.get(j).getUsageInPercentage(), actualLanguages.get(j).getUsageInPercentage(), 0.001);
+                assertEquals(expectedLanguages.get(j).getFrameworks(), actualLanguages.get(j).getFrameworks());
+                assertEquals(expectedLanguages.get(j).getTools(), actualLanguages.get(j).getTools());
+            }
+        }
+    }
+}
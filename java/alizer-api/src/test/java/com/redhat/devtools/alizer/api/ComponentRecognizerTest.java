@@ -83,6 +83,14 @@ public class ComponentRecognizerTest extends AbstractRecognizerTest {
         assertEquals("JavaScript", components.get(1).getLanguages().get(0).getName());
     }
 
+    @Test
+    public void testRootComponents() throws IOException {
+        assertEquals(0, recognizer.analyzeRoot(new File("../../resources/projects/double-components").getCanonicalPath()).size());
+        List<Component> components = recognizer.analyzeRoot(new File("../../resources/projects/double-components/backend").getCanonicalPath());
+        assertEquals(1, components.size());
+        assertEquals("JavaScript", components.get(0).getLanguages().get(0).getName());
+    }
+
     @Test
     public void testWrappedComponents() throws IOException {
         List<Component> components = recognizer.analyze(new File("../../resources/projects/component-wrapped-in-folder").getCanonicalPath());
@@ -103,6 +111,20 @@ public class ComponentRecognizerTest extends AbstractRecognizerTest {
         assertEquals(1, components.stream().filter(component -> "go".equalsIgnoreCase(component.getLanguages().get(0).getName())).count());
     }
 
+    @Test
+    public void testMultipleComponentsWithPrunedFolders() throws IOException {
+        ComponentRecognizer pruningRecognizer = new RecognizerFactory().withExcludedFoldersPruned(true).createComponentRecognizer();
+        List<Component> components = pruningRecognizer.analyze(new File("../../resources/projects").getCanonicalPath());
+        assertEquals(13, components.size());
+    }
+
+    @Test
+    public void testMultipleComponentsWithGitIgnore() throws IOException {
+        ComponentRecognizer gitIgnoreRecognizer = new RecognizerFactory().withGitIgnore(true).createComponentRecognizer();
+        List<Component> components = gitIgnoreRecognizer.analyze(new File("../../resources/projects").getCanonicalPath());
+        assertEquals(13, components.size());
+    }
+
     @Test
     public void testDotNetComponent() throws IOException {
         List<Component> components = recognizer.analyze(new File("../../resources/projects/s2i-dotnetcore-ex").getCanonicalPath());
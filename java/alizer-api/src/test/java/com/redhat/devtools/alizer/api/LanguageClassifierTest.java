@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LanguageClassifierTest {
+    // held out snippets, none of them is part of the samples the classifier is trained on
+    private static final String C_HEADER = "#ifndef RING_BUFFER_H\n#define RING_BUFFER_H\n\n#include <stdint.h>\n\n"
+            + "struct ring_buffer {\n    uint8_t *data;\n    unsigned int capacity;\n    unsigned int read_pos;\n    unsigned int write_pos;\n};\n\n"
+            + "int ring_buffer_init(struct ring_buffer *rb, unsigned int capacity);\n"
+            + "unsigned int ring_buffer_write(struct ring_buffer *rb, const uint8_t *src, unsigned int len);\n\n#endif\n";
+    private static final String C_SOURCE = "#include <stdlib.h>\n#include \"ring_buffer.h\"\n\n"
+            + "int ring_buffer_init(struct ring_buffer *rb, unsigned int capacity)\n{\n    rb->data = malloc(capacity);\n"
+            + "    if (rb->data == NULL) {\n        return -1;\n    }\n    rb->capacity = capacity;\n    rb->read_pos = 0;\n"
+            + "    rb->write_pos = 0;\n    return 0;\n}\n";
+    private static final String CPP_HEADER = "#pragma once\n\n#include <map>\n#include <string>\n\nnamespace config {\n\n"
+            + "template <typename Value>\nclass Settings {\npublic:\n    explicit Settings(std::string prefix) : prefix_(std::move(prefix)) {}\n"
+            + "    void set(const std::string& key, Value value) { values_[prefix_ + key] = value; }\n"
+            + "    bool contains(const std::string& key) const { return values_.count(prefix_ + key) > 0; }\n\n"
+            + "private:\n    std::string prefix_;\n    std::map<std::string, Value> values_;\n};\n\n}\n";
+    private static final String CPP_SOURCE = "#include <iostream>\n#include \"settings.h\"\n\nint main() {\n"
+            + "    config::Settings<int> settings(\"app.\");\n    settings.set(\"threads\", 4);\n"
+            + "    std::cout << std::boolalpha << settings.contains(\"threads\") << std::endl;\n    return 0;\n}\n";
+    private static final String OBJECTIVE_C_HEADER = "#import <Foundation/Foundation.h>\n\n@protocol PlayerDelegate;\n\n"
+            + "@interface Player : NSObject\n@property (nonatomic, copy) NSString *nickname;\n"
+            + "@property (nonatomic, weak) id<PlayerDelegate> delegate;\n- (instancetype)initWithNickname:(NSString *)nickname;\n"
+            + "- (void)joinGame:(NSString *)gameId;\n@end\n";
+
+    private final LanguageClassifier classifier = train();
+
+    @Test
+    public void testClassifyHeaders() {
+        assertEquals("C", classify(".h", C_HEADER));
+        assertEquals("C++", classify(".h", CPP_HEADER));
+        assertEquals("Objective-C", classify(".h", OBJECTIVE_C_HEADER));
+    }
+
+    @Test
+    public void testClassifyM() {
+        assertEquals("Objective-C", classify(".m", "#import \"Player.h\"\n\n@implementation Player\n\n"
+                + "- (instancetype)initWithNickname:(NSString *)nickname {\n    self = [super init];\n    if (self) {\n"
+                + "        _nickname = [nickname copy];\n    }\n    return self;\n}\n\n- (void)joinGame:(NSString *)gameId {\n"
+                + "    NSLog(@\"%@ joins %@\", self.nickname, gameId);\n}\n\n@end\n"));
+        assertEquals("MATLAB", classify(".m", "function result = moving_average(values, window)\n"
+                + "% MOVING_AVERAGE Smooth a vector with a sliding window.\nif window < 1\n    error('window must be positive');\nend\n"
+                + "result = zeros(size(values));\nfor k = 1:numel(values)\n    first = max(1, k - window + 1);\n"
+                + "    result(k) = mean(values(first:k));\nend\nend\n"));
+        assertEquals("Mathematica", classify(".m", "ClearAll[collatz]\ncollatz[1] := {1}\n"
+                + "collatz[n_Integer?EvenQ] := Prepend[collatz[n/2], n]\ncollatz[n_Integer?OddQ] := Prepend[collatz[3 n + 1], n]\n"
+                + "lengths = Table[Length[collatz[k]], {k, 1, 50}];\nListPlot[lengths, PlotStyle -> Red, AxesLabel -> {\"n\", \"steps\"}]\n"));
+        assertEquals("Mercury", classify(".m", ":- module stack.\n:- interface.\n\n:- import_module list.\n\n"
+                + ":- type stack(T) == list(T).\n\n:- pred push(T::in, stack(T)::in, stack(T)::out) is det.\n"
+                + ":- pred pop(T::out, stack(T)::in, stack(T)::out) is semidet.\n\n:- implementation.\n\n"
+                + "push(X, S, [X | S]).\npop(X, [X | S], S).\n"));
+    }
+
+    @Test
+    public void testClassifyPl() {
+        assertEquals("Perl", classify(".pl", "#!/usr/bin/perl\nuse strict;\nuse warnings;\n\nmy %totals;\n"
+                + "while (my $line = <STDIN>) {\n    chomp $line;\n    my ($user, $amount) = split /,/, $line;\n"
+                + "    $totals{$user} += $amount;\n}\nforeach my $user (sort keys %totals) {\n"
+                + "    printf \"%-10s %8.2f\\n\", $user, $totals{$user};\n}\n"));
+        assertEquals("Prolog", classify(".pl", ":- initialization(main).\n\nedge(a, b).\nedge(b, c).\nedge(c, d).\n\n"
+                + "path(X, Y) :- edge(X, Y).\npath(X, Y) :- edge(X, Z), path(Z, Y).\n\n"
+                + "main :- findall(Y, path(a, Y), Reachable), format(\"~w~n\", [Reachable]), halt.\n"));
+    }
+
+    @Test
+    public void testClassifyRs() {
+        assertEquals("Rust", classify(".rs", "use std::io::{self, BufRead};\n\n"
+                + "fn parse_line(line: &str) -> Option<(String, i64)> {\n    let mut parts = line.splitn(2, '=');\n"
+                + "    let key = parts.next()?.trim().to_string();\n    let value = parts.next()?.trim().parse().ok()?;\n"
+                + "    Some((key, value))\n}\n\nfn main() {\n    let stdin = io::stdin();\n    for line in stdin.lock().lines() {\n"
+                + "        if let Some((key, value)) = parse_line(&line.unwrap()) {\n            println!(\"{} -> {}\", key, value);\n"
+                + "        }\n    }\n}\n"));
+        assertEquals("RenderScript", classify(".rs", "#pragma version(1)\n#pragma rs java_package_name(com.example.filters)\n\n"
+                + "float gContrast = 1.2f;\n\nuchar4 RS_KERNEL contrast(uchar4 in) {\n    float4 pixel = rsUnpackColor8888(in);\n"
+                + "    float3 adjusted = clamp((pixel.rgb - 0.5f) * gContrast + 0.5f, 0.f, 1.f);\n"
+                + "    return rsPackColorTo8888(adjusted.r, adjusted.g, adjusted.b, pixel.a);\n}\n"));
+    }
+
+    @Test
+    public void testResolveMatch() throws IOException {
+        LanguageMatcher.Match match = LanguageFileHandler.get().getMatcher().match("Program.cs");
+        assertTrue(LanguageClassifier.get().canClassify(match));
+        Path file = Files.createTempFile("alizer-classifier", ".cs");
+        try {
+            Files.write(file, "using System;\n\nnamespace App\n{\n    public class Program\n    {\n        public static void Main(string[] args)\n        {\n            Console.WriteLine(\"Hello\");\n        }\n    }\n}\n".getBytes(StandardCharsets.UTF_8));
+            LanguageMatcher.Match resolution = LanguageClassifier.get().classify(match, file);
+            assertEquals(1, resolution.getLanguages().size());
+            assertEquals("C#", resolution.getLanguages().get(0).getName());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testNotAmbiguous() {
+        LanguageMatcher.Match match = LanguageFileHandler.get().getMatcher().match("Main.java");
+        assertFalse(LanguageClassifier.get().canClassify(match));
+        assertSame(match, LanguageClassifier.get().classify(match, Paths.get("Main.java")));
+    }
+
+    @Test
+    public void testModelRoundTrip() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        classifier.write(output);
+        LanguageClassifier read = LanguageClassifier.read(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(classifier.getLabels(), read.getLabels());
+        byte[] content = OBJECTIVE_C_HEADER.getBytes(StandardCharsets.UTF_8);
+        assertEquals(classify(".h", OBJECTIVE_C_HEADER), read.classify(getCandidates(".h"), content, content.length));
+    }
+
+    @Test
+    public void testAnalyzeAmbiguousFiles() throws IOException {
+        Path project = Files.createTempDirectory("alizer-ambiguous").toRealPath();
+        try {
+            Files.write(project.resolve("ring_buffer.h"), C_HEADER.getBytes(StandardCharsets.UTF_8));
+            Files.write(project.resolve("ring_buffer.c"), C_SOURCE.getBytes(StandardCharsets.UTF_8));
+            Files.write(project.resolve("settings.h"), CPP_HEADER.getBytes(StandardCharsets.UTF_8));
+            Files.write(project.resolve("main.cpp"), CPP_SOURCE.getBytes(StandardCharsets.UTF_8));
+            List<Language> languages = new RecognizerFactory().createLanguageRecognizer().analyze(project);
+            assertFalse(find(languages, "Objective-C").isPresent());
+            assertEquals(50, find(languages, "C").get().getUsageInPercentage(), 0.001);
+            assertEquals(50, find(languages, "C++").get().getUsageInPercentage(), 0.001);
+        } finally {
+            FileUtils.deleteDirectory(project.toFile());
+        }
+    }
+
+    /**
+     * @param extension ambiguous extension, the languages sharing it are the candidates
+     */
+    private String classify(String extension, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return classifier.classify(getCandidates(extension), bytes, bytes.length);
+    }
+
+    /**
+     * @return the languages of the extension known by the model, e.g MUF has no sample
+     */
+    private List<String> getCandidates(String extension) {
+        return LanguageFileHandler.get().getLanguagesByExtension(extension).stream()
+                .map(LanguageFileItem::getName)
+                .filter(classifier.getLabels()::contains)
+                .collect(Collectors.toList());
+    }
+
+    private static Optional<Language> find(List<Language> languages, String name) {
+        return languages.stream().filter(language -> language.getName().equals(name)).findFirst();
+    }
+
+    private static LanguageClassifier train() {
+        try {
+            return LanguageClassifier.train(Paths.get("../../resources/samples"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LanguageFileHandlerTest {
+
+    @Test
+    public void testLookups() {
+        LanguageFileHandler handler = LanguageFileHandler.get();
+        assertEquals("JavaScript", handler.getLanguageByName("javascript").getName());
+        assertEquals("JavaScript", handler.getLanguageByNameOrAlias("JAVASCRIPT").getName());
+        assertEquals("JavaScript", handler.getLanguageByAlias("JS").getName());
+        assertNull(handler.getLanguageByName("not a language"));
+        assertNull(handler.getLanguageByNameOrAlias("not a language"));
+    }
+
+    @Test
+    public void testMixedCaseAliases() {
+        LanguageFileHandler handler = LanguageFileHandler.get();
+        // aliases declared with upper case letters in languages.yml
+        assertEquals("AutoIt", handler.getLanguageByAlias("AutoIt3").getName());
+        assertEquals("AutoIt", handler.getLanguageByAlias("autoitscript").getName());
+        assertEquals("CoNLL-U", handler.getLanguageByAlias("CONLL").getName());
+    }
+
+    @Test
+    public void testGroupLanguage() {
+        LanguageFileHandler handler = LanguageFileHandler.get();
+        LanguageFileItem jsx = handler.getLanguageByName("JSX");
+        assertSame(handler.getLanguageByName("JavaScript"), handler.getGroupLanguage(jsx));
+        LanguageFileItem java = handler.getLanguageByName("Java");
+        assertSame(java, handler.getGroupLanguage(java));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedLanguagesAreImmutable() {
+        LanguageFileItem java = LanguageFileHandler.get().getLanguageByName("Java");
+        assertTrue(java.getConfigurationFiles().contains("pom.xml"));
+        java.getConfigurationFiles().clear();
+    }
+
+    @Test
+    public void testConfigurationMapping() {
+        Map<String, List<String>> mapping = LanguageFileHandler.get().getConfigurationPerLanguageMapping();
+        assertSame(mapping, LanguageFileHandler.get().getConfigurationPerLanguageMapping());
+        assertTrue(mapping.get("pom.xml").contains("Java"));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<LanguageFileHandler>> tasks = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                tasks.add(LanguageFileHandler::get);
+            }
+            for (Future<LanguageFileHandler> handler: executor.invokeAll(tasks)) {
+                assertSame(LanguageFileHandler.get(), handler.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LanguageHistogramTest {
+    private final LanguageHistogram.Builder builder = new LanguageHistogram.Builder(10);
+
+    @Test
+    public void testBuild() {
+        LanguageHistogram histogram = builder.add(7, 2).add(3, 1).add(7, 5).build();
+        assertEquals(2, histogram.size());
+        assertEquals(7, histogram.get(7));
+        assertEquals(1, histogram.get(3));
+        assertEquals(0, histogram.get(4));
+        // the builder is reset once built
+        assertSame(LanguageHistogram.EMPTY, builder.build());
+        assertEquals(4, builder.add(3, 4).build().get(3));
+    }
+
+    @Test
+    public void testMerge() {
+        LanguageHistogram first = builder.add(1, 1).add(5, 2).build();
+        LanguageHistogram second = builder.add(5, 3).add(9, 4).build();
+        LanguageHistogram third = builder.add(0, 5).add(9, 6).build();
+
+        LanguageHistogram left = LanguageHistogram.merge(LanguageHistogram.merge(first, second), third);
+        LanguageHistogram right = LanguageHistogram.merge(first, LanguageHistogram.merge(third, second));
+        for (LanguageHistogram histogram: new LanguageHistogram[] { left, right }) {
+            assertEquals(4, histogram.size());
+            assertEquals(5, histogram.get(0));
+            assertEquals(1, histogram.get(1));
+            assertEquals(5, histogram.get(5));
+            assertEquals(10, histogram.get(9));
+        }
+        assertSame(first, LanguageHistogram.merge(first, LanguageHistogram.EMPTY));
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LanguageIndexTest {
+    private static final Path RESOURCES = Paths.get("../../resources");
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        LanguageIndex expected = loadYaml();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        expected.write(output);
+        LanguageIndex actual = LanguageIndex.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(expected.getEntries().size(), actual.getEntries().size());
+        for (int i = 0; i < expected.getEntries().size(); i++) {
+            LanguageIndex.Entry expectedEntry = expected.getEntries().get(i);
+            LanguageIndex.Entry actualEntry = actual.getEntries().get(i);
+            LanguageFileItem expectedLanguage = expectedEntry.getLanguage();
+            LanguageFileItem actualLanguage = actualEntry.getLanguage();
+            assertEquals(expectedLanguage.getName(), actualLanguage.getName());
+            assertEquals(expectedLanguage.getType(), actualLanguage.getType());
+            assertEquals(expectedLanguage.getGroup(), actualLanguage.getGroup());
+            assertEquals(expectedLanguage.getAliases(), actualLanguage.getAliases());
+            assertEquals(expectedLanguage.getConfigurationFiles(), actualLanguage.getConfigurationFiles());
+            assertEquals(expectedLanguage.getExcludeFolders(), actualLanguage.getExcludeFolders());
+            assertEquals(expectedLanguage.canBeComponent(), actualLanguage.canBeComponent());
+            assertEquals(expectedEntry.getExtensions(), actualEntry.getExtensions());
+            assertEquals(expectedEntry.getFileNames(), actualEntry.getFileNames());
+        }
+        // the digest does not depend on the source of the languages
+        assertTrue(Arrays.equals(expected.digest(), actual.digest()));
+        assertTrue(Arrays.equals(expected.digest(), LanguageFileHandler.get().getIndexDigest()));
+    }
+
+    @Test
+    public void testCustomizations() throws IOException {
+        LanguageIndex index = loadYaml();
+        assertFalse(index.getEntries().stream().anyMatch(entry -> entry.getLanguage().getName().equals("GCC Machine Description")));
+        LanguageFileItem java = index.getEntries().stream().map(LanguageIndex.Entry::getLanguage)
+                .filter(language -> language.getName().equals("Java")).findFirst().get();
+        assertTrue(java.canBeComponent());
+        assertTrue(java.getConfigurationFiles().contains("pom.xml"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidIndex() throws IOException {
+        LanguageIndex.read(new ByteArrayInputStream(new byte[] { 'L', 'a', 'n', 'g', 0, 0, 0, 1 }));
+    }
+
+    private LanguageIndex loadYaml() throws IOException {
+        try (InputStream languages = Files.newInputStream(RESOURCES.resolve(LanguageIndex.LANGUAGES_YAML_PATH));
+             InputStream customization = Files.newInputStream(RESOURCES.resolve(LanguageIndex.LANGUAGES_CUSTOMIZATION_YAML_PATH))) {
+            return LanguageIndex.fromYaml(languages, customization);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LanguageMatcherTest {
+    private final LanguageMatcher matcher = LanguageFileHandler.get().getMatcher();
+
+    @Test
+    public void testExtension() {
+        assertEquals(".java", matcher.match("Main.java").getName());
+        assertTrue(getLanguageNames("Main.java").contains("Java"));
+        assertEquals(".java", matcher.match("archive.tar.java").getName());
+    }
+
+    @Test
+    public void testCompoundExtension() {
+        assertEquals(".blade.php", matcher.match("welcome.blade.php").getName());
+        assertTrue(getLanguageNames("welcome.blade.php").contains("Blade"));
+        assertEquals(".php", matcher.match("index.php").getName());
+    }
+
+    @Test
+    public void testFileName() {
+        assertEquals("Dockerfile", matcher.match("Dockerfile").getName());
+        assertTrue(getLanguageNames("Makefile").contains("Makefile"));
+        // a filename only matches the whole name
+        assertNull(matcher.match("MyDockerfile"));
+    }
+
+    @Test
+    public void testUnknown() {
+        assertNull(matcher.match("README"));
+        assertNull(matcher.match("file.unknown-extension"));
+        assertNull(matcher.match(""));
+    }
+
+    @Test
+    public void testDenseIds() {
+        for (int i = 0; i < matcher.size(); i++) {
+            assertEquals(i, matcher.get(i).getId());
+        }
+    }
+
+    private List<String> getLanguageNames(String fileName) {
+        return matcher.match(fileName).getLanguages().stream().map(LanguageFileItem::getName).collect(Collectors.toList());
+    }
+}
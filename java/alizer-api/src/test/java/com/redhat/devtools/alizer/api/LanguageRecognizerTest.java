@@ -11,14 +11,28 @@
 package com.redhat.devtools.alizer.api;
 
 import java.io.File;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class LanguageRecognizerTest extends AbstractRecognizerTest {
@@ -96,4 +110,205 @@ public class LanguageRecognizerTest extends AbstractRecognizerTest {
         assertTrue(cSharpLang.getFrameworks().stream().anyMatch(f -> f.equalsIgnoreCase("net5.0")));
         assertTrue(cSharpLang.getFrameworks().stream().anyMatch(f -> f.equalsIgnoreCase("netcoreapp3.1")));
     }
+
+    @Test
+    public void testNodeFrameworkFromLockfile() throws IOException {
+        Path project = Files.createTempDirectory("alizer-lockfile");
+        try {
+            Files.write(project.resolve("package.json"), "{\"name\": \"app\", \"dependencies\": {\"react-scripts\": \"4.0.3\"}}"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(project.resolve("index.js"), "console.log(1);\n".getBytes(StandardCharsets.UTF_8));
+            List<Language> languages = recognizer.analyze(project);
+            assertFalse(languages.get(0).getFrameworks().contains("React"));
+
+            // react is only pulled in transitively
+            Files.write(project.resolve("yarn.lock"), ("react-scripts@4.0.3:\n  version \"4.0.3\"\n  dependencies:\n    react \"^17.0.2\"\n\n"
+                    + "react@^17.0.2:\n  version \"17.0.2\"\n").getBytes(StandardCharsets.UTF_8));
+            languages = recognizer.analyze(project);
+            assertEquals("JavaScript", languages.get(0).getName());
+            assertTrue(languages.get(0).getFrameworks().contains("React"));
+            assertFalse(languages.get(0).getFrameworks().contains("Express"));
+
+            // the lockfile is found next to the package.json of a zip archive too
+            Path archive = Files.createTempFile("alizer-lockfile", ".zip");
+            try {
+                try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+                    for (String name: Arrays.asList("package.json", "index.js", "yarn.lock")) {
+                        zip.putNextEntry(new ZipEntry(name));
+                        Files.copy(project.resolve(name), zip);
+                        zip.closeEntry();
+                    }
+                }
+                try (FileSystem zipFileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null)) {
+                    languages = recognizer.analyze(zipFileSystem.getPath("/"));
+                    assertTrue(languages.get(0).getFrameworks().contains("React"));
+                }
+            } finally {
+                Files.delete(archive);
+            }
+        } finally {
+            FileUtils.deleteDirectory(project.toFile());
+        }
+    }
+
+    @Test
+    public void testNodeDevFrameworkFromLockfile() throws IOException {
+        Path project = Files.createTempDirectory("alizer-lockfile");
+        try {
+            Files.write(project.resolve("package.json"), ("{\"name\": \"app\", \"dependencies\": {\"react\": \"^17.0.2\"},"
+                    + " \"devDependencies\": {\"webpack-dev-server\": \"^4.0.0\", \"express\": \"^4.17.1\"}}").getBytes(StandardCharsets.UTF_8));
+            Files.write(project.resolve("index.js"), "console.log(1);\n".getBytes(StandardCharsets.UTF_8));
+            List<Language> languages = recognizer.analyze(project);
+            assertFalse(languages.get(0).getFrameworks().contains("Express"));
+
+            // express is only installed to serve the application during development
+            Files.write(project.resolve("package-lock.json"), ("{\"name\": \"app\", \"lockfileVersion\": 2, \"packages\": {"
+                    + "\"\": {\"dependencies\": {\"react\": \"^17.0.2\"}, \"devDependencies\": {\"webpack-dev-server\": \"^4.0.0\"}},"
+                    + " \"node_modules/express\": {\"version\": \"4.17.1\", \"dev\": true},"
+                    + " \"node_modules/react\": {\"version\": \"17.0.2\"},"
+                    + " \"node_modules/webpack-dev-server\": {\"version\": \"4.0.0\", \"dependencies\": {\"express\": \"^4.17.1\"}, \"dev\": true}}}")
+                    .getBytes(StandardCharsets.UTF_8));
+            languages = recognizer.analyze(project);
+            assertEquals("JavaScript", languages.get(0).getName());
+            assertTrue(languages.get(0).getFrameworks().contains("React"));
+            assertFalse(languages.get(0).getFrameworks().contains("Express"));
+        } finally {
+            FileUtils.deleteDirectory(project.toFile());
+        }
+    }
+
+    @Test
+    public void testWeights() throws IOException {
+        Path project = Files.createTempDirectory("alizer-weights");
+        try {
+            StringBuilder main = new StringBuilder("public class Main {\n");
+            for (int i = 0; i < 96; i++) {
+                main.append("    // line ").append(i).append('\n');
+            }
+            main.append("}\n");
+            Files.write(project.resolve("Main.java"), main.toString().getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 3; i++) {
+                Files.write(project.resolve("script" + i + ".py"), "print(1)\n".getBytes(StandardCharsets.UTF_8));
+            }
+
+            assertEquals(25, getUsage(recognizer.analyze(project), "Java"), 0.001);
+            List<Language> byLines = new RecognizerFactory().withWeight(LanguageWeight.LINES).createLanguageRecognizer().analyze(project);
+            assertEquals(100 * 98.0 / 101, getUsage(byLines, "Java"), 0.001);
+            List<Language> byBytes = new RecognizerFactory().withWeight(LanguageWeight.BYTES).createLanguageRecognizer().analyze(project);
+            assertEquals(100.0 * main.length() / (main.length() + 27), getUsage(byBytes, "Java"), 0.001);
+
+            List<Language> streamed;
+            try (Stream<Path> files = Files.list(project)) {
+                streamed = new RecognizerFactory().withWeight(LanguageWeight.LINES).createLanguageRecognizer().analyze(files);
+            }
+            assertEquals(getUsage(byLines, "Java"), getUsage(streamed, "Java"), 0.001);
+        } finally {
+            FileUtils.deleteDirectory(project.toFile());
+        }
+    }
+
+    private static double getUsage(List<Language> languages, String name) {
+        return languages.stream().filter(lang -> lang.getName().equals(name)).findFirst().get().getUsageInPercentage();
+    }
+
+    @Test
+    public void testAnalyzeTree() throws IOException {
+        Path project = new File("../../resources/projects/double-components").getCanonicalFile().toPath();
+        Map<Path, List<Language>> tree = recognizer.analyzeTree(project);
+        assertEquals(project, tree.keySet().iterator().next());
+        for (Path directory: Arrays.asList(project, project.resolve("frontend"), project.resolve("backend"), project.resolve("frontend/src"))) {
+            List<Language> analyzed = recognizer.analyze(directory);
+            List<Language> fromTree = tree.get(directory);
+            assertEquals(analyzed.size(), fromTree.size());
+            for (int i = 0; i < analyzed.size(); i++) {
+                assertEquals(analyzed.get(i).getName(), fromTree.get(i).getName());
+                assertEquals(analyzed.get(i).getUsageInPercentage(), fromTree.get(i).getUsageInPercentage(), 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testStreamedFiles() throws IOException {
+        List<Language> status;
+        try (Stream<Path> files = Files.walk(new File("../../resources/projects/quarkus").getCanonicalFile().toPath())) {
+            status = recognizer.analyze(files.filter(Files::isRegularFile));
+        }
+        Optional<Language> javaLang = status.stream().filter(lang -> lang.getName().equalsIgnoreCase("JAVA")).findFirst();
+        assertTrue(javaLang.isPresent());
+        assertEquals("Maven", javaLang.get().getTools().get(0));
+        assertTrue(javaLang.get().getFrameworks().contains("Quarkus"));
+    }
+
+    @Test
+    public void testZipArchive() throws IOException {
+        Path project = new File("../../resources/projects/quarkus").getCanonicalFile().toPath();
+        Path archive = Files.createTempFile("alizer-quarkus", ".zip");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive));
+                 Stream<Path> files = Files.walk(project)) {
+                for (Path file: files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    zip.putNextEntry(new ZipEntry(project.relativize(file).toString().replace(File.separatorChar, '/')));
+                    Files.copy(file, zip);
+                    zip.closeEntry();
+                }
+            }
+            try (FileSystem zipFileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null)) {
+                List<Language> status = recognizer.analyze(zipFileSystem.getPath("/"));
+                Optional<Language> javaLang = status.stream().filter(lang -> lang.getName().equalsIgnoreCase("JAVA")).findFirst();
+                assertTrue(javaLang.isPresent());
+                assertEquals("Maven", javaLang.get().getTools().get(0));
+                assertTrue(javaLang.get().getFrameworks().contains("Quarkus"));
+
+                List<File> files = new Recognizer(new RecognizerFactory()).getFilesInDirectory(zipFileSystem.getPath("/"));
+                assertTrue(files.stream().anyMatch(file -> file.getName().equals("pom.xml") && file.isFile()));
+            }
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    public void testEstimateWithoutSampling() throws IOException {
+        String path = new File("../../resources/projects/quarkus").getCanonicalPath();
+        List<Language> analyzed = recognizer.analyze(path);
+        List<LanguageEstimate> estimated = recognizer.estimate(path, Duration.ofSeconds(30));
+        assertEquals(analyzed.size(), estimated.size());
+        for (int i = 0; i < analyzed.size(); i++) {
+            assertEquals(analyzed.get(i).getName(), estimated.get(i).getLanguage().getName());
+            assertEquals(analyzed.get(i).getUsageInPercentage(), estimated.get(i).getLanguage().getUsageInPercentage(), 0.001);
+            assertEquals(0, estimated.get(i).getMarginOfError(), 0);
+        }
+    }
+
+    @Test
+    public void testEstimateWithSampling() throws IOException {
+        Path root = new File("../../resources/projects").getCanonicalFile().toPath();
+        LanguageEstimator estimator = new LanguageEstimator(new LanguageRecognizerImpl(new RecognizerFactory()), TraversalFilter.NONE, 2);
+        List<LanguageEstimate> estimated = estimator.estimate(root, Duration.ofSeconds(30));
+        assertFalse(estimated.isEmpty());
+        assertTrue(estimated.stream().mapToDouble(estimate -> estimate.getLanguage().getUsageInPercentage()).sum() <= 100.001);
+        assertTrue(estimated.stream().allMatch(estimate -> estimate.getMarginOfError() >= 0));
+    }
+
+    @Test
+    public void testEstimateWithoutBudget() throws IOException {
+        Path root = Files.createTempDirectory("alizer-estimate");
+        try {
+            for (String file: Arrays.asList("Main.java", "Util.java", "Model.java", "index.js")) {
+                Files.write(root.resolve(file), "".getBytes(StandardCharsets.UTF_8));
+            }
+            Files.createDirectories(root.resolve("scripts"));
+            for (int i = 0; i < 10; i++) {
+                Files.write(root.resolve("scripts/script" + i + ".py"), "".getBytes(StandardCharsets.UTF_8));
+            }
+            // only the root is listed, the pass is incomplete so there is no margin of error
+            List<LanguageEstimate> estimated = recognizer.estimate(root, Duration.ZERO);
+            assertEquals(Arrays.asList("Java", "JavaScript"), estimated.stream().map(estimate -> estimate.getLanguage().getName()).collect(Collectors.toList()));
+            assertEquals(75, estimated.get(0).getLanguage().getUsageInPercentage(), 0.001);
+            assertEquals(25, estimated.get(1).getLanguage().getUsageInPercentage(), 0.001);
+            assertTrue(estimated.stream().allMatch(estimate -> Double.isNaN(estimate.getMarginOfError())));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
 }
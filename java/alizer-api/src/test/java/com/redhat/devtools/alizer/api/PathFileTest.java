@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PathFileTest {
+
+    @Test
+    public void testSerializedAsPlainFile() throws IOException, ClassNotFoundException {
+        Path archive = Files.createTempFile("alizer-pathfile", ".zip");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+                zip.putNextEntry(new ZipEntry("pom.xml"));
+                zip.closeEntry();
+            }
+            try (FileSystem zipFileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null)) {
+                Path pom = zipFileSystem.getPath("/pom.xml");
+                File file = PathFile.of(pom);
+                assertSame(pom, file.toPath());
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                    output.writeObject(file);
+                }
+                try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                    File deserialized = (File) input.readObject();
+                    assertEquals(File.class, deserialized.getClass());
+                    assertEquals(file.getPath(), deserialized.getPath());
+                }
+            }
+        } finally {
+            Files.delete(archive);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectSnapshotTest {
+
+    @Test
+    public void testSubtreeMatchesWalk() throws IOException {
+        Path root = new File("../../resources/projects").getCanonicalFile().toPath();
+        ProjectSnapshot snapshot = ProjectSnapshot.of(root);
+        Path quarkus = root.resolve("quarkus");
+        try (Stream<Path> paths = Files.walk(quarkus)) {
+            List<File> walked = paths.filter(Files::isRegularFile).map(Path::toFile).sorted().collect(Collectors.toList());
+            assertEquals(walked, snapshot.getFiles(quarkus).stream().sorted().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testFilesInDirectory() throws IOException {
+        Path root = new File("../../resources/projects/quarkus").getCanonicalFile().toPath();
+        ProjectSnapshot snapshot = ProjectSnapshot.of(root);
+        List<File> files = snapshot.getFilesInDirectory(root);
+        assertTrue(files.stream().anyMatch(file -> file.getName().equals("pom.xml")));
+        assertTrue(files.stream().allMatch(file -> file.toPath().getParent().equals(root)));
+        assertTrue(snapshot.getFiles(root.resolve("missing")).isEmpty());
+    }
+
+    @Test
+    public void testPrunedFolders() throws IOException {
+        Path root = new File("../../resources/projects/double-components").getCanonicalFile().toPath();
+        ProjectSnapshot snapshot = ProjectSnapshot.of(root, new FolderNameTraversalFilter(Collections.singletonList("FRONTEND")));
+        assertFalse(snapshot.containsDirectory(root.resolve("frontend")));
+        assertTrue(snapshot.containsDirectory(root.resolve("backend")));
+        assertTrue(snapshot.getFiles().stream().noneMatch(file -> file.getPath().contains("frontend")));
+    }
+
+    @Test
+    public void testParallelWalkerMatchesSequentialWalker() throws IOException {
+        Path root = new File("../../resources/projects").getCanonicalFile().toPath();
+        ProjectSnapshot sequential = new SequentialProjectWalker(TraversalFilter.NONE).walk(root);
+        ProjectSnapshot parallel = new ParallelProjectWalker(TraversalFilter.NONE, 4).walk(root);
+        assertEquals(sequential.getFiles(), parallel.getFiles());
+        assertEquals(sequential.getDirectories(), parallel.getDirectories());
+        Path quarkus = root.resolve("quarkus");
+        assertEquals(sequential.getFiles(quarkus), parallel.getFiles(quarkus));
+    }
+
+    @Test
+    public void testOffHeapFileList() throws IOException {
+        Path root = new File("../../resources/projects").getCanonicalFile().toPath();
+        PathTable onHeap = new SequentialProjectWalker(TraversalFilter.NONE).walk(root).getFiles();
+        PathTable offHeap = new SequentialProjectWalker(TraversalFilter.NONE, true).walk(root).getFiles();
+        assertEquals(onHeap, offHeap);
+        for (int i = 0; i < offHeap.size(); i++) {
+            assertEquals(offHeap.get(i).getName(), offHeap.getName(i));
+            assertEquals(offHeap.get(i).toPath().getParent(), offHeap.getDirectory(i));
+        }
+    }
+
+    @Test
+    public void testLinkedFiles() throws IOException {
+        Path root = Files.createTempDirectory("alizer-links");
+        try {
+            Files.createDirectories(root.resolve("src"));
+            write(root.resolve("src/main.js"), "console.log(1);");
+            Files.createSymbolicLink(root.resolve("link.js"), root.resolve("src/main.js"));
+            Files.createSymbolicLink(root.resolve("folder"), root.resolve("src"));
+            Files.createSymbolicLink(root.resolve("broken.js"), root.resolve("missing.js"));
+            for (ProjectWalker walker: Arrays.asList(new SequentialProjectWalker(TraversalFilter.NONE),
+                    new ParallelProjectWalker(TraversalFilter.NONE, 2))) {
+                ProjectSnapshot snapshot = walker.walk(root);
+                assertEquals(Arrays.asList("link.js", "src/main.js"), getRelativeFiles(root, snapshot));
+                // the size is the one of the target
+                assertEquals(15, snapshot.getFiles().getSize(0));
+                assertEquals(15, snapshot.getFiles().getSize(1));
+            }
+
+            Files.createDirectories(root.resolve(".git"));
+            writeIndex(root.resolve(".git/index"), false, "broken.js:symlink", "folder:symlink", "link.js:symlink", "src/main.js");
+            assertEquals(Arrays.asList("link.js", "src/main.js"), getRelativeFiles(root, walkIndex(root)));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testGitIgnoredFiles() throws IOException {
+        Path root = Files.createTempDirectory("alizer-gitignore");
+        Files.createDirectories(root.resolve(".git/info"));
+        Files.createDirectories(root.resolve("build"));
+        Files.createDirectories(root.resolve("src/sub"));
+        write(root.resolve(".git/info/exclude"), "secret.txt");
+        write(root.resolve(".gitignore"), "# comment\n*.log\nbuild/\n!keep.log\n/src/generated.js");
+        write(root.resolve("src/sub/.gitignore"), "!debug.log");
+        for (String file: Arrays.asList("app.js", "error.log", "keep.log", "secret.txt", "build/out.js",
+                "src/generated.js", "src/main.js", "src/trace.log", "src/sub/debug.log", "src/sub/other.log")) {
+            write(root.resolve(file), "");
+        }
+
+        try {
+            for (ProjectWalker walker: Arrays.asList(new SequentialProjectWalker(new GitIgnoreTraversalFilter()),
+                    new ParallelProjectWalker(new GitIgnoreTraversalFilter(), 2))) {
+                List<String> files = walker.walk(root).getFiles().stream()
+                        .map(file -> root.relativize(file.toPath()).toString().replace(File.separatorChar, '/'))
+                        .sorted()
+                        .collect(Collectors.toList());
+                assertEquals(Arrays.asList(".gitignore", "app.js", "keep.log", "src/main.js", "src/sub/.gitignore", "src/sub/debug.log"), files);
+            }
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testGitExcludeOfRootOnly() throws IOException {
+        Path root = Files.createTempDirectory("alizer-gitignore");
+        try {
+            // vendor/lib is a nested repository, its exclude file is not read
+            Files.createDirectories(root.resolve("vendor/lib/.git/info"));
+            write(root.resolve("vendor/lib/.git/info/exclude"), "local.js");
+            write(root.resolve("vendor/lib/local.js"), "");
+            write(root.resolve("app.js"), "");
+            for (ProjectWalker walker: Arrays.asList(new SequentialProjectWalker(new GitIgnoreTraversalFilter()),
+                    new ParallelProjectWalker(new GitIgnoreTraversalFilter(), 2))) {
+                assertEquals(Arrays.asList("app.js", "vendor/lib/local.js"), getRelativeFiles(root, walker.walk(root)));
+            }
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testGitIgnoreEscapedCharacters() {
+        assertTrue(GitIgnoreTraversalFilter.Rule.parse("back\\\\slash.txt").matches("back\\slash.txt"));
+        assertFalse(GitIgnoreTraversalFilter.Rule.parse("back\\\\slash.txt").matches("backslash.txt"));
+        assertTrue(GitIgnoreTraversalFilter.Rule.parse("\\#notes").matches("#notes"));
+        assertTrue(GitIgnoreTraversalFilter.Rule.parse("\\!important").matches("!important"));
+        assertTrue(GitIgnoreTraversalFilter.Rule.parse("a\\ ").matches("a "));
+        assertTrue(GitIgnoreTraversalFilter.Rule.parse("*\\\\*.txt").matches("a\\b.txt"));
+    }
+
+    @Test
+    public void testGitIndexMatchesWalk() throws IOException {
+        // the samples are tracked by the repository of alizer, its index must list the same files as the walk
+        Path root = new File("../../resources/projects/quarkus").getCanonicalFile().toPath();
+        ProjectSnapshot walked = ProjectSnapshot.of(root);
+        ProjectSnapshot indexed = new GitIndexProjectWalker(TraversalFilter.NONE, new SequentialProjectWalker(TraversalFilter.NONE), false).walk(root);
+        assertEquals(walked.getFiles().stream().sorted().collect(Collectors.toList()),
+                indexed.getFiles().stream().sorted().collect(Collectors.toList()));
+        assertEquals(walked.getDirectories().stream().sorted().collect(Collectors.toList()),
+                indexed.getDirectories().stream().sorted().collect(Collectors.toList()));
+        Path src = root.resolve("src");
+        assertEquals(walked.getFiles(src).stream().sorted().collect(Collectors.toList()),
+                indexed.getFiles(src).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGitIndexWithoutRepository() throws IOException {
+        Path root = Files.createTempDirectory("alizer-no-git");
+        try {
+            write(root.resolve("app.js"), "");
+            Files.createDirectories(root.resolve("src"));
+            write(root.resolve("src/main.js"), "");
+            assertEquals(Arrays.asList("app.js", "src/main.js"), getRelativeFiles(root, walkIndex(root)));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testGitIndexOnlyKeepsWorkTreeFiles() throws IOException {
+        Path root = Files.createTempDirectory("alizer-git-index");
+        try {
+            Files.createDirectories(root.resolve(".git"));
+            Files.createDirectories(root.resolve("lib/sub/src"));
+            for (String file: Arrays.asList("app.js", "sparse.js", "untracked.js", "lib/sub/index.js", "lib/sub/src/util.js")) {
+                write(root.resolve(file), "");
+            }
+            // deleted.js and gone/ are deleted but not staged, sparse.js is outside the sparse checkout, lib/sub is a submodule
+            writeIndex(root.resolve(".git/index"), false, "app.js", "deleted.js", "gone/main.js", "lib/sub:gitlink", "sparse.js:skip");
+            assertEquals(Arrays.asList("app.js", "lib/sub/index.js", "lib/sub/src/util.js"), getRelativeFiles(root, walkIndex(root)));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testSplitGitIndex() throws IOException {
+        Path root = Files.createTempDirectory("alizer-split-index");
+        try {
+            Files.createDirectories(root.resolve(".git"));
+            write(root.resolve("app.js"), "");
+            write(root.resolve("shared.js"), "");
+            // only the entries changed since the shared index are in the split index, the file system is walked instead
+            writeIndex(root.resolve(".git/index"), true, "app.js");
+            assertEquals(Arrays.asList("app.js", "shared.js"), getRelativeFiles(root, walkIndex(root)).stream()
+                    .filter(file -> !file.startsWith(".git/")).collect(Collectors.toList()));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    private static ProjectSnapshot walkIndex(Path root) throws IOException {
+        return new GitIndexProjectWalker(TraversalFilter.NONE, new SequentialProjectWalker(TraversalFilter.NONE), false).walk(root);
+    }
+
+    private static List<String> getRelativeFiles(Path root, ProjectSnapshot snapshot) {
+        return snapshot.getFiles().stream()
+                .map(file -> root.relativize(file.toPath()).toString().replace(File.separatorChar, '/'))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Write a version 3 git index, entries are paths optionally followed by ":gitlink", ":symlink" or ":skip" (skip-worktree)
+     */
+    private static void writeIndex(Path index, boolean split, String... entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        buffer.put("DIRC".getBytes(StandardCharsets.US_ASCII)).putInt(3).putInt(entries.length);
+        for (String entry: entries) {
+            String[] parts = entry.split(":");
+            byte[] name = parts[0].getBytes(StandardCharsets.UTF_8);
+            boolean gitlink = parts.length > 1 && parts[1].equals("gitlink");
+            boolean symlink = parts.length > 1 && parts[1].equals("symlink");
+            boolean skipWorktree = parts.length > 1 && parts[1].equals("skip");
+            int start = buffer.position();
+            buffer.put(new byte[24]); // ctime, mtime, dev, ino
+            buffer.putInt(gitlink ? 0160000 : symlink ? 0120000 : 0100644);
+            buffer.put(new byte[12 + 20]); // uid, gid, size, sha-1
+            buffer.putShort((short) (name.length | (skipWorktree ? 0x4000 : 0)));
+            if (skipWorktree) {
+                buffer.putShort((short) 0x4000);
+            }
+            buffer.put(name);
+            int length = buffer.position() - start + 1;
+            buffer.put(new byte[((length + 7) & ~7) - length + 1]);
+        }
+        if (split) {
+            buffer.put("link".getBytes(StandardCharsets.US_ASCII)).putInt(20).put(new byte[20]);
+        }
+        buffer.put(new byte[20]); // checksum
+        Files.write(index, Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    private void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
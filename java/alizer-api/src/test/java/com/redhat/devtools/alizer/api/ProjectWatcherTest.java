@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectWatcherTest {
+    private Path root;
+    private ProjectWatcher watcher;
+    private final List<Component[]> changes = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("alizer-watcher").toRealPath();
+        FileUtils.copyDirectory(new File("../../resources/projects/quarkus"), root.toFile());
+        watcher = new RecognizerFactory().createProjectWatcher(root);
+        watcher.addListener((previous, current) -> changes.add(new Component[] { previous, current }));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        watcher.close();
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Test
+    public void testInitialComponents() throws IOException {
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+    }
+
+    @Test
+    public void testFileAdded() throws IOException, InterruptedException {
+        Files.write(root.resolve("src/script.py"), "print('hello')".getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> !changes.isEmpty());
+        assertEquals(root, changes.get(0)[1].getPath());
+        assertTrue(changes.get(0)[1].getLanguages().get(0).getFrameworks().contains("Quarkus"));
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+    }
+
+    @Test
+    public void testComponentAdded() throws IOException, InterruptedException {
+        FileUtils.copyDirectory(new File("../../resources/projects/nodejs-ex"), root.resolve("frontend").toFile());
+        waitFor(() -> watcher.getComponents().size() == 2);
+        assertTrue(changes.stream().anyMatch(change -> change[0] == null && change[1].getPath().equals(root.resolve("frontend"))));
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+
+        FileUtils.deleteDirectory(root.resolve("frontend").toFile());
+        waitFor(() -> watcher.getComponents().size() == 1);
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+    }
+
+    @Test
+    public void testComponentWithoutConfigFile() throws IOException, InterruptedException {
+        // a project whose only component is in a sub-folder, so folders outside it may become Python components
+        watcher.close();
+        FileUtils.deleteDirectory(root.toFile());
+        root = Files.createTempDirectory("alizer-watcher").toRealPath();
+        FileUtils.copyDirectory(new File("../../resources/projects/nodejs-ex"), root.resolve("frontend").toFile());
+        Files.createDirectories(root.resolve("scripts"));
+        watcher = new RecognizerFactory().createProjectWatcher(root);
+        assertEquals(1, watcher.getComponents().size());
+
+        Files.write(root.resolve("scripts/main.py"), "print('hello')".getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> watcher.getComponents().size() == 2);
+        assertEquals(root.resolve("scripts"), watcher.getComponents().get(1).getPath());
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+
+        Files.delete(root.resolve("scripts/main.py"));
+        waitFor(() -> watcher.getComponents().size() == 1);
+        assertSameComponents(new RecognizerFactory().createComponentRecognizer().analyze(root), watcher.getComponents());
+    }
+
+    @Test
+    public void testFilesDeletedWhileFolderAdded() throws IOException, InterruptedException {
+        Path generated = Files.createTempDirectory("alizer-generated").toRealPath();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                Files.write(generated.resolve("file" + i + ".js"), "console.log(1);".getBytes(StandardCharsets.UTF_8));
+            }
+            watcher.start();
+            // the folder appears at once, its files are deleted while the watcher lists it
+            Files.move(generated, root.resolve("generated"));
+            Thread deleter = new Thread(() -> {
+                for (int i = 1999; i >= 0; i--) {
+                    try {
+                        Files.deleteIfExists(root.resolve("generated/file" + i + ".js"));
+                    } catch (IOException e) {
+                        // checked below
+                    }
+                }
+            });
+            deleter.start();
+            deleter.join();
+
+            // the watcher still applies the next events
+            Files.write(root.resolve("src/script.py"), "print('hello')".getBytes(StandardCharsets.UTF_8));
+            ComponentRecognizer recognizer = new RecognizerFactory().createComponentRecognizer();
+            for (int i = 0; i < 100 && !hasSameComponents(recognizer.analyze(root), watcher.getComponents()); i++) {
+                Thread.sleep(100);
+            }
+            assertSameComponents(recognizer.analyze(root), watcher.getComponents());
+        } finally {
+            FileUtils.deleteDirectory(generated.toFile());
+        }
+    }
+
+    private static boolean hasSameComponents(List<Component> expected, List<Component> actual) {
+        try {
+            assertSameComponents(expected, actual);
+            return true;
+        } catch (AssertionError e) {
+            return false;
+        }
+    }
+
+    private void waitFor(BooleanSupplier condition) throws IOException, InterruptedException {
+        for (int i = 0; i < 20 && !condition.getAsBoolean(); i++) {
+            watcher.poll(500, TimeUnit.MILLISECONDS);
+        }
+        // let the remaining events of the same change be applied
+        while (watcher.poll(500, TimeUnit.MILLISECONDS)) {
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static void assertSameComponents(List<Component> expected, List<Component> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPath(), actual.get(i).getPath());
+            List<Language> expectedLanguages = expected.get(i).getLanguages();
+            List<Language> actualLanguages = actual.get(i).getLanguages();
+            assertEquals(expectedLanguages.size(), actualLanguages.size());
+            for (int j = 0; j < expectedLanguages.size(); j++) {
+                assertEquals(expectedLanguages.get(j).getName(), actualLanguages.get(j).getName());
+                assertEquals(expectedLanguages.get(j).getUsageInPercentage(), actualLanguages.get(j).getUsageInPercentage(), 0.001);
+                assertEquals(expectedLanguages.get(j).getFrameworks(), actualLanguages.get(j).getFrameworks());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi;
+
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
+import com.redhat.devtools.alizer.api.spi.framework.go.GinFrameworkDetectorProviderImpl;
+import com.redhat.devtools.alizer.api.spi.framework.go.GoFrameworkDetectorProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameworkTagIndexTest {
+    private Path goMod;
+
+    @Before
+    public void setup() throws IOException {
+        goMod = Files.createTempFile("alizer-go", ".mod");
+        Files.write(goMod, "module app\n\ngo 1.15\n\nrequire (\n\tgithub.com/gin-gonic/gin v1.7.2\n\tgithub.com/acme/router v1.0.0\n)\n"
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(goMod);
+    }
+
+    @Test
+    public void testOverriddenCheck() throws IOException {
+        // detectors overriding the check decide, whether their tag is in the file or not
+        FrameworkTagIndex<GoFrameworkDetectorProvider> index = new FrameworkTagIndex<>(GoFrameworkDetectorProvider.class,
+                Arrays.asList(new RouterDetector(), new GinFrameworkDetectorProviderImpl(), new RouterDetector("not/required")),
+                GoFrameworkDetectorProvider::getFrameworkTag);
+        assertEquals(Arrays.asList("Router", "Gin"), index.getFrameworks(goMod.toFile()));
+    }
+
+    private static class RouterDetector extends GoFrameworkDetectorProvider {
+        private final String module;
+
+        private RouterDetector() {
+            this("github.com/acme/router");
+        }
+
+        private RouterDetector(String module) {
+            this.module = module;
+        }
+
+        @Override
+        public FrameworkDetectorProvider create() {
+            return new RouterDetector(module);
+        }
+
+        @Override
+        public List<String> getFrameworks() {
+            return Collections.singletonList("Router");
+        }
+
+        @Override
+        public String getFrameworkTag() {
+            return "acme";
+        }
+
+        @Override
+        public boolean hasFramework(File file) throws IOException {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).contains(module + " v1");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.spi;
+
+import com.redhat.devtools.alizer.api.Language;
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorProvider;
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithConfigFileProvider;
+import com.redhat.devtools.alizer.api.spi.framework.FrameworkDetectorWithoutConfigFileProvider;
+import com.redhat.devtools.alizer.api.spi.framework.java.JavaFrameworkDetectorProvider;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import org.junit.Test;
+
+
+import static com.redhat.devtools.alizer.api.Constants.PYTHON;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProviderRegistryTest {
+    private final ProviderRegistry registry = ProviderRegistry.get();
+
+    @Test
+    public void testEnricherByLanguage() {
+        assertTrue(registry.getEnricherByLanguage("java") instanceof JavaLanguageEnricherProviderImpl);
+        assertSame(registry.getEnricherByLanguage("Java"), registry.getEnricherByLanguage("JAVA"));
+        assertNull(registry.getEnricherByLanguage("not a language"));
+    }
+
+    @Test
+    public void testDetectorsByType() {
+        List<JavaFrameworkDetectorProvider> javaDetectors = registry.getFrameworkDetectors(JavaFrameworkDetectorProvider.class);
+        assertFalse(javaDetectors.isEmpty());
+        assertSame(javaDetectors, registry.getFrameworkDetectors(JavaFrameworkDetectorProvider.class));
+        assertTrue(registry.getFrameworkDetectors(FrameworkDetectorWithConfigFileProvider.class, "Java").containsAll(javaDetectors));
+        assertTrue(registry.getFrameworkDetectors(FrameworkDetectorWithoutConfigFileProvider.class, "python").stream()
+                .allMatch(detector -> detector.getSupportedLanguages().contains(PYTHON)));
+        assertTrue(registry.getFrameworkDetectors(JavaFrameworkDetectorProvider.class, "Python").isEmpty());
+    }
+
+    @Test
+    public void testGeneratedTable() {
+        ProviderTable table = ProviderRegistry.loadTable();
+        assertNotNull(table);
+        assertEquals(getClassNames(ServiceLoader.load(LanguageEnricherProvider.class)), getClassNames(table.getEnrichers()));
+        assertEquals(getClassNames(ServiceLoader.load(FrameworkDetectorProvider.class)), getClassNames(table.getFrameworkDetectors()));
+    }
+
+    private static List<String> getClassNames(Iterable<?> providers) {
+        List<String> classNames = new ArrayList<>();
+        providers.forEach(provider -> classNames.add(provider.getClass().getName()));
+        return classNames;
+    }
+
+    @Test
+    public void testRegister() {
+        registry.register(new TestEnricher());
+        assertTrue(registry.getEnricherByLanguage("alizer test language") instanceof TestEnricher);
+        assertTrue(registry.getEnrichers().stream().anyMatch(enricher -> enricher instanceof TestEnricher));
+        // services loaded are kept
+        assertTrue(registry.getEnricherByLanguage("java") instanceof JavaLanguageEnricherProviderImpl);
+    }
+
+    private static class TestEnricher extends LanguageEnricherProvider {
+        @Override
+        public LanguageEnricherProvider create() {
+            return new TestEnricher();
+        }
+
+        @Override
+        public List<String> getSupportedLanguages() {
+            return Collections.singletonList("Alizer Test Language");
+        }
+
+        @Override
+        public Language getEnrichedLanguage(Language language, List<File> files) {
+            return language;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigModelsTest {
+    private Path pom;
+
+    @Before
+    public void setup() throws IOException {
+        pom = Files.createTempFile("alizer-pom", ".xml");
+        Files.write(pom, ("<project>\n"
+                + "  <groupId>org.acme</groupId>\n"
+                + "  <artifactId>parent</artifactId>\n"
+                + "  <modules>\n    <module>api</module>\n    <module>impl</module>\n  </modules>\n"
+                + "  <dependencies>\n"
+                + "    <dependency>\n      <groupId>io.quarkus</groupId>\n      <artifactId>quarkus-resteasy</artifactId>\n    </dependency>\n"
+                + "  </dependencies>\n"
+                + "  <build><plugins><plugin><artifactId>maven-compiler-plugin</artifactId></plugin></plugins></build>\n"
+                + "</project>\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(pom);
+    }
+
+    @Test
+    public void testMavenModel() throws IOException {
+        MavenModel model = MavenModel.parse(pom.toFile());
+        assertEquals(Arrays.asList("org.acme", "io.quarkus"), model.getGroupIds());
+        assertTrue(model.hasGroupId("io.quarkus"));
+        assertFalse(model.hasGroupId("io.micronaut"));
+        assertTrue(model.hasModules());
+        assertEquals(Arrays.asList("api", "impl"), model.getModules());
+        assertEquals(Arrays.asList("io.quarkus:quarkus-resteasy"), model.getDependencies());
+        assertEquals(Arrays.asList(":maven-compiler-plugin"), model.getPlugins());
+    }
+
+    @Test
+    public void testParsedOncePerScope() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+        ConfigModels.Parser<MavenModel> parser = file -> {
+            parses.incrementAndGet();
+            return MavenModel.parse(file);
+        };
+        File file = pom.toFile();
+        ConfigModels.run(() -> {
+            MavenModel model = ConfigModels.get(file, MavenModel.class, parser);
+            assertSame(model, ConfigModels.run(() -> ConfigModels.get(file, MavenModel.class, parser)));
+            // closing a nested scope keeps the models
+            assertSame(model, ConfigModels.get(file, MavenModel.class, parser));
+            assertEquals(1, ConfigModels.size());
+            return model;
+        });
+        assertEquals(1, parses.get());
+        assertEquals(0, ConfigModels.size());
+        // without scope files are parsed every time
+        assertNotSame(ConfigModels.get(file, MavenModel.class, parser), ConfigModels.get(file, MavenModel.class, parser));
+        assertEquals(3, parses.get());
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ContentProbeTest {
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("alizer-probe", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testTagFound() throws IOException {
+        Files.write(file, "module example.com/app\n\nrequire github.com/gin-gonic/gin v1.7.2\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(ContentProbe.getDefault().contains(file, "github.com/gin-gonic/gin"));
+        assertFalse(ContentProbe.getDefault().contains(file, "github.com/labstack/echo"));
+    }
+
+    @Test
+    public void testTagOverChunks() throws IOException {
+        // the tag starts right before the end of the first 64 KiB chunk
+        byte[] content = new byte[200 * 1024];
+        Arrays.fill(content, (byte) 'a');
+        byte[] tag = "quarkus".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(tag, 0, content, 64 * 1024 - 3, tag.length);
+        Files.write(file, content);
+        assertTrue(ContentProbe.getDefault().contains(file, "quarkus"));
+        assertFalse(ContentProbe.getDefault().contains(file, "quarkusio"));
+    }
+
+    @Test
+    public void testMaxProbeSize() throws IOException {
+        byte[] content = new byte[10 * 1024];
+        Arrays.fill(content, (byte) ' ');
+        byte[] tag = "django".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(tag, 0, content, content.length - tag.length, tag.length);
+        Files.write(file, content);
+        assertTrue(new ContentProbe(content.length).contains(file, "django"));
+        assertFalse(new ContentProbe(content.length - 1).contains(file, "django"));
+    }
+
+    @Test
+    public void testFindAllTags() throws IOException {
+        Files.write(file, ("module example.com/app\n\nrequire (\n\tgithub.com/gorilla/mux v1.8.0\n"
+                + "\tgithub.com/gin-gonic/gin v1.7.2\n)\n").getBytes(StandardCharsets.UTF_8));
+        TagMatcher matcher = new TagMatcher(Arrays.asList("github.com/gin-gonic/gin", "github.com/labstack/echo",
+                "github.com/gorilla/mux", "gin-gonic"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("github.com/gorilla/mux", "gin-gonic", "github.com/gin-gonic/gin")),
+                ContentProbe.getDefault().find(file, matcher));
+    }
+
+    @Test
+    public void testFindTagsOverChunks() throws IOException {
+        byte[] content = new byte[200 * 1024];
+        Arrays.fill(content, (byte) 'a');
+        byte[] tag = "io.quarkus".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(tag, 0, content, 64 * 1024 - 3, tag.length);
+        Files.write(file, content);
+        TagMatcher matcher = new TagMatcher(Arrays.asList("io.quarkus", "io.vertx", "aaab"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("io.quarkus")), ContentProbe.getDefault().find(file, matcher));
+        assertEquals(new LinkedHashSet<>(), new ContentProbe(64 * 1024).find(file, matcher));
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class DocumentParserTest {
+    private Path file;
+    private Path secret;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("alizer-document", ".csproj");
+        secret = Files.createTempFile("alizer-secret", ".txt");
+        Files.write(secret, "secret".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        Files.delete(secret);
+    }
+
+    @Test
+    public void testGetElements() throws IOException, XMLStreamException {
+        write("<Project xmlns=\"http://schemas.microsoft.com/developer/msbuild/2003\">\n"
+                + "  <PropertyGroup>\n    <TargetFramework>net5.0</TargetFramework>\n  </PropertyGroup>\n"
+                + "  <system.web><httpRuntime targetFramework=\"4.5\"/></system.web>\n"
+                + "  <PropertyGroup>\n    <TargetFramework><![CDATA[net6.0]]></TargetFramework>\n  </PropertyGroup>\n"
+                + "</Project>\n");
+        Map<String, List<XmlElement>> elements = DocumentParser.getElements(file.toFile(),
+                Arrays.asList("TargetFramework", "httpRuntime", "compilation"), false);
+        assertEquals(Arrays.asList("TargetFramework", "httpRuntime"), Arrays.asList(elements.keySet().toArray()));
+        assertEquals("net5.0", elements.get("TargetFramework").get(0).getText());
+        assertEquals("net6.0", elements.get("TargetFramework").get(1).getText());
+        assertEquals("PropertyGroup", elements.get("TargetFramework").get(0).getParentName());
+        assertEquals("4.5", elements.get("httpRuntime").get(0).getAttribute("targetFramework"));
+        assertEquals("", elements.get("httpRuntime").get(0).getAttribute("debug"));
+    }
+
+    @Test
+    public void testStopOnceAllFound() throws IOException, XMLStreamException {
+        // the end of the file is never read
+        write("<Project><TargetFramework>net5.0</TargetFramework><TargetFramework>net6.0</TargetFramework><broken>");
+        Map<String, List<XmlElement>> elements = DocumentParser.getElements(file.toFile(), Arrays.asList("TargetFramework"), true);
+        assertEquals(1, elements.get("TargetFramework").size());
+        assertEquals("net5.0", elements.get("TargetFramework").get(0).getText());
+        try {
+            DocumentParser.getElements(file.toFile(), Arrays.asList("TargetFramework"), false);
+            fail("The document is not well-formed");
+        } catch (XMLStreamException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFirstStartedElement() throws IOException, XMLStreamException {
+        write("<Project><Import><Import>inner</Import>outer</Import></Project>");
+        Map<String, List<XmlElement>> elements = DocumentParser.getElements(file.toFile(), Arrays.asList("Import"), true);
+        assertEquals(1, elements.get("Import").size());
+        assertEquals("innerouter", elements.get("Import").get(0).getText());
+        assertEquals("Project", elements.get("Import").get(0).getParentName());
+        elements = DocumentParser.getElements(file.toFile(), Arrays.asList("Import"), false);
+        assertEquals("innerouter", elements.get("Import").get(0).getText());
+        assertEquals("inner", elements.get("Import").get(1).getText());
+    }
+
+    @Test
+    public void testExternalEntitiesIgnored() throws IOException {
+        write("<?xml version=\"1.0\"?>\n<!DOCTYPE Project [<!ENTITY xxe SYSTEM \"" + secret.toUri() + "\">]>\n"
+                + "<Project><TargetFramework>&xxe;</TargetFramework></Project>\n");
+        try {
+            Map<String, List<XmlElement>> elements = DocumentParser.getElements(file.toFile(), Arrays.asList("TargetFramework"), true);
+            assertFalse(elements.containsKey("TargetFramework") && elements.get("TargetFramework").get(0).getText().contains("secret"));
+        } catch (XMLStreamException e) {
+            // rejecting the undeclared entity is fine too
+        }
+    }
+
+    @Test
+    public void testDocumentExternalEntitiesIgnored() throws IOException, ParserConfigurationException {
+        write("<?xml version=\"1.0\"?>\n<!DOCTYPE Project [<!ENTITY xxe SYSTEM \"" + secret.toUri() + "\">]>\n"
+                + "<Project><TargetFramework>&xxe;</TargetFramework></Project>\n");
+        try {
+            NodeList elements = DocumentParser.getElementsByTag(file.toFile(), "TargetFramework");
+            assertFalse(elements.item(0).getTextContent().contains("secret"));
+        } catch (SAXException e) {
+            // rejecting the entity is fine too
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
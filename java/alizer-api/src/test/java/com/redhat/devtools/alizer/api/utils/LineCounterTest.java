@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+
+public class LineCounterTest {
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("alizer-lines", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testShortFiles() throws IOException {
+        assertEquals(0, countLines(""));
+        assertEquals(1, countLines("a"));
+        assertEquals(1, countLines("a\n"));
+        assertEquals(2, countLines("a\nb"));
+        assertEquals(3, countLines("\n\n\n"));
+        assertEquals(2, countLines("line one\r\nline two\r\n"));
+    }
+
+    @Test
+    public void testLinesOverChunks() throws IOException {
+        // newlines at every position of the longs read, across the 64 KiB chunks
+        byte[] content = new byte[200 * 1024 + 5];
+        Arrays.fill(content, (byte) 'a');
+        int newlines = 0;
+        for (int i = 0; i < content.length; i += 7) {
+            content[i] = '\n';
+            newlines++;
+        }
+        // non ASCII bytes must not be taken for newlines
+        content[1] = (byte) 0x8A;
+        content[2] = (byte) 0xFF;
+        Files.write(file, content);
+        assertEquals(newlines + 1, LineCounter.countLines(file));
+    }
+
+    private long countLines(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return LineCounter.countLines(file);
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LockfileModelTest {
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("alizer-lockfile");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void testPackageName() {
+        assertEquals("express", LockfileModel.getPackageName("express"));
+        assertEquals("express", LockfileModel.getPackageName("node_modules/a/node_modules/express"));
+        assertEquals("@types/node", LockfileModel.getPackageName("node_modules/@types/node"));
+        assertEquals("express", LockfileModel.getPackageName("/express/4.17.1"));
+        assertEquals("@babel/core", LockfileModel.getPackageName("/@babel/core/7.0.0"));
+        assertEquals("@babel/core", LockfileModel.getPackageName("/@babel/core@7.0.0(supports-color@8.1.1)"));
+        assertEquals("react", LockfileModel.getPackageName("react@^17.0.2"));
+        assertEquals("react", LockfileModel.getPackageName("react@npm:^17.0.2"));
+    }
+
+    @Test
+    public void testPackageLock() throws IOException {
+        // v1 nests dependencies, v2+ lists paths within node_modules
+        Path v1 = write("package-lock.json", "{\"name\": \"app\", \"lockfileVersion\": 1, \"dependencies\": {"
+                + "\"body-parser\": {\"version\": \"1.19.0\", \"requires\": {\"bytes\": \"3.1.0\"},"
+                + " \"dependencies\": {\"express\": {\"version\": \"4.17.1\"}}}}}");
+        assertEquals(Collections.singleton("express"), parse(v1, "express", "react", "bytes"));
+        Path v2 = write("package-lock.json", "{\"lockfileVersion\": 2, \"packages\": {\"\": {\"name\": \"app\"},"
+                + " \"node_modules/react-scripts/node_modules/react\": {\"version\": \"17.0.2\"}}}");
+        assertEquals(Collections.singleton("react"), parse(v2, "express", "react"));
+    }
+
+    @Test
+    public void testPackageLockDevEntries() throws IOException {
+        Path v1 = write("package-lock.json", "{\"lockfileVersion\": 1, \"dependencies\": {"
+                + "\"webpack-dev-server\": {\"version\": \"4.0.0\", \"dev\": true,"
+                + " \"dependencies\": {\"express\": {\"version\": \"4.17.1\", \"dev\": true}}},"
+                + " \"react\": {\"version\": \"17.0.2\", \"dev\": false}}}");
+        assertEquals(Collections.singleton("react"), parse(v1, "express", "react"));
+        // versions declared by an entry are not installed packages
+        Path v2 = write("package-lock.json", "{\"lockfileVersion\": 2, \"packages\": {"
+                + "\"\": {\"dependencies\": {\"react\": \"^17.0.2\"}, \"devDependencies\": {\"webpack-dev-server\": \"^4.0.0\"}},"
+                + " \"node_modules/webpack-dev-server\": {\"dependencies\": {\"express\": \"^4.17.1\"}, \"dev\": true},"
+                + " \"node_modules/express\": {\"version\": \"4.17.1\", \"dev\": true},"
+                + " \"node_modules/react\": {\"version\": \"17.0.2\"}}}");
+        assertEquals(Collections.singleton("react"), parse(v2, "express", "react"));
+    }
+
+    @Test
+    public void testYarnLock() throws IOException {
+        Path lockfile = write("yarn.lock", "# yarn lockfile v1\n\n"
+                + "\"@babel/core@^7.0.0\", \"@babel/core@^7.12.3\":\n  version \"7.15.0\"\n  dependencies:\n    react \"^17.0.2\"\n\n"
+                + "express@^4.17.1:\n  version \"4.17.1\"\n\n"
+                + "react@^17.0.2:\n  version \"17.0.2\"\n");
+        LockfileModel model = LockfileModel.parse(lockfile, Arrays.asList("express", "react", "@babel/core"),
+                Collections.singletonList("@babel/core"));
+        // express is not a dependency of the package, e.g it is pulled in by a dev dependency
+        assertEquals(new HashSet<>(Arrays.asList("react", "@babel/core")), model.getPackages());
+        assertFalse(model.hasPackage("express"));
+    }
+
+    @Test
+    public void testYarnBerryLock() throws IOException {
+        Path lockfile = write("yarn.lock", "__metadata:\n  version: 6\n\n"
+                + "\"react-scripts@npm:4.0.3\":\n  version: 4.0.3\n  dependencies:\n    \"@babel/core\": ^7.12.3\n    react: ^17.0.2\n"
+                + "  peerDependencies:\n    express: ^4.17.1\n\n"
+                + "\"webpack-dev-server@npm:^4.0.0\":\n  dependencies:\n    express: ^4.17.1\n");
+        assertEquals(new HashSet<>(Arrays.asList("react", "@babel/core")),
+                LockfileModel.parse(lockfile, Arrays.asList("express", "react", "@babel/core"),
+                        Collections.singletonList("react-scripts")).getPackages());
+    }
+
+    @Test
+    public void testPnpmLock() throws IOException {
+        // a single project lists its dependencies at the root before lockfile v9
+        Path lockfile = write("pnpm-lock.yaml", "lockfileVersion: 5.3\n\nspecifiers:\n  vue: ^3.0.0\n\n"
+                + "dependencies:\n  vue: 3.2.0\n\ndevDependencies:\n  '@types/node': 16.0.0\n\n"
+                + "packages:\n\n  /express/4.17.1:\n    resolution: {integrity: sha512-abc}\n    dev: true\n\n"
+                + "  /@types/node/16.0.0:\n    dev: true\n");
+        assertEquals(Collections.singleton("vue"), parse(lockfile, "express", "@types/node", "vue"));
+        lockfile = write("pnpm-lock.yaml", "lockfileVersion: '9.0'\n\nimporters:\n\n  .:\n    dependencies:\n"
+                + "      react:\n        specifier: ^17.0.2\n        version: 17.0.2\n    devDependencies:\n"
+                + "      webpack-dev-server:\n        specifier: ^4.0.0\n        version: 4.0.0\n\n"
+                + "  packages/api:\n    optionalDependencies:\n      '@nestjs/core':\n        specifier: ^8.0.0\n        version: 8.0.0\n\n"
+                + "packages:\n\n  express@4.17.1:\n    resolution: {integrity: sha512-abc}\n\n"
+                + "snapshots:\n\n  webpack-dev-server@4.0.0:\n    dependencies:\n      express: 4.17.1\n");
+        assertEquals(new HashSet<>(Arrays.asList("react", "@nestjs/core")), parse(lockfile, "express", "react", "@nestjs/core"));
+    }
+
+    @Test
+    public void testStopOnceAllFound() throws IOException {
+        // what follows the packages found is never parsed
+        Path lockfile = write("package-lock.json", "{\"packages\": {\"node_modules/express\": {}, \"broken\": ");
+        assertEquals(Collections.singleton("express"), parse(lockfile, "express"));
+    }
+
+    private static Set<String> parse(Path lockfile, String... names) throws IOException {
+        return LockfileModel.parse(lockfile, Arrays.asList(names), Collections.emptyList()).getPackages();
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc.
+ ******************************************************************************/
+package com.redhat.devtools.alizer.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PackageJsonModelTest {
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("alizer-package", ".json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testDependencies() throws IOException {
+        write("{\n"
+                + "  \"name\": \"app\",\n"
+                + "  \"scripts\": { \"start\": \"node server.js\", \"dependencies\": \"not a dependency\" },\n"
+                + "  \"config\": { \"dependencies\": { \"vue\": \"3.0.0\" }, \"list\": [1, [2, {\"a\": null}]] },\n"
+                + "  \"dependencies\": { \"express\": \"^4.17.1\", \"odd\": { \"version\": \"1.0.0\" } },\n"
+                + "  \"devDependencies\": { \"react\": \"17.0.2\" },\n"
+                + "  \"peerDependencies\": { \"react-dom\": \"17.0.2\" },\n"
+                + "  \"optionalDependencies\": { \"fsevents\": \"2.3.2\" }\n"
+                + "}\n");
+        PackageJsonModel model = PackageJsonModel.parse(file.toFile());
+        assertEquals(new HashSet<>(Arrays.asList("express", "odd")), model.getDependencies());
+        assertTrue(model.hasDependency("express"));
+        assertFalse(model.hasDependency("react"));
+        assertFalse(model.hasDependency("react-dom"));
+        assertFalse(model.hasDependency("vue"));
+        assertEquals(new HashSet<>(Arrays.asList("express", "odd", "fsevents")), model.getRuntimeDependencies());
+    }
+
+    @Test
+    public void testNotAnObject() throws IOException {
+        write("[\"express\"]");
+        assertTrue(PackageJsonModel.parse(file.toFile()).getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testSharedWithinScope() throws IOException {
+        write("{ \"dependencies\": { \"express\": \"^4.17.1\" } }");
+        ConfigModels.run(() -> {
+            assertSame(ConfigModels.getPackageJsonModel(file.toFile()), ConfigModels.getPackageJsonModel(file.toFile()));
+            return null;
+        });
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
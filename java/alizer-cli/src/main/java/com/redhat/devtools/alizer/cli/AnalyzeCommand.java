@@ -12,6 +12,7 @@ package com.redhat.devtools.alizer.cli;
 
 import com.redhat.devtools.alizer.api.Language;
 import com.redhat.devtools.alizer.api.LanguageRecognizer;
+import com.redhat.devtools.alizer.api.LanguageWeight;
 import com.redhat.devtools.alizer.api.RecognizerFactory;
 import io.quarkus.qute.TemplateInstance;
 import io.quarkus.qute.api.CheckedTemplate;
@@ -28,9 +29,12 @@ public class AnalyzeCommand extends BaseCommand implements Runnable{
         public static native TemplateInstance result(List<Language> result);
     }
 
+    @CommandLine.Option(names = {"--weight"}, description = "How much a file counts in the usage of its languages: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+    LanguageWeight weight = LanguageWeight.FILES;
+
     @Override
     public void run() {
-        LanguageRecognizer reco = new RecognizerFactory().createLanguageRecognizer();
+        LanguageRecognizer reco = new RecognizerFactory().withWeight(weight).createLanguageRecognizer();
 
             try {
                 List<Language> languages = reco.analyze(name);
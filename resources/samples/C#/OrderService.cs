@@ -0,0 +1,38 @@
+using System;
+using System.Collections.Generic;
+using System.Linq;
+using System.Threading.Tasks;
+
+namespace Shop.Services
+{
+    public interface IOrderService
+    {
+        Task<Order> GetOrderAsync(int id);
+    }
+
+    public class OrderService : IOrderService
+    {
+        private readonly IRepository<Order> _repository;
+
+        public OrderService(IRepository<Order> repository)
+        {
+            _repository = repository ?? throw new ArgumentNullException(nameof(repository));
+        }
+
+        public async Task<Order> GetOrderAsync(int id)
+        {
+            var orders = await _repository.ListAsync();
+            return orders.FirstOrDefault(o => o.Id == id);
+        }
+
+        public IEnumerable<string> GetNames(IList<Order> orders)
+        {
+            foreach (var order in orders.Where(o => o.Total > 0m))
+            {
+                yield return $"{order.Id}: {order.Name}";
+            }
+        }
+
+        public override string ToString() => nameof(OrderService);
+    }
+}
@@ -0,0 +1,30 @@
+#include <iostream>
+#include <map>
+#include <string>
+#include "shape.h"
+
+using namespace geometry;
+
+namespace {
+
+template <typename Container>
+void print(const Container& container) {
+    for (const auto& item : container) {
+        std::cout << item->name() << ": " << item->area() << std::endl;
+    }
+}
+
+}  // namespace
+
+int main(int argc, char** argv) {
+    Registry<Shape> registry;
+    registry.add(std::make_unique<Circle>(2.0));
+    std::map<std::string, int> counts;
+    for (const auto& shape : registry.items()) {
+        ++counts[shape->name()];
+    }
+    print(registry.items());
+    static_cast<void>(argc);
+    static_cast<void>(argv);
+    return 0;
+}
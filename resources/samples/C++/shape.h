@@ -0,0 +1,36 @@
+#pragma once
+
+#include <memory>
+#include <string>
+#include <vector>
+
+namespace geometry {
+
+class Shape {
+public:
+    virtual ~Shape() = default;
+    virtual double area() const = 0;
+    virtual std::string name() const = 0;
+};
+
+template <typename T>
+class Registry {
+public:
+    void add(std::unique_ptr<T> item) { items_.push_back(std::move(item)); }
+    const std::vector<std::unique_ptr<T>>& items() const noexcept { return items_; }
+
+private:
+    std::vector<std::unique_ptr<T>> items_;
+};
+
+class Circle : public Shape {
+public:
+    explicit Circle(double radius) : radius_(radius) {}
+    double area() const override { return 3.14159 * radius_ * radius_; }
+    std::string name() const override { return "circle"; }
+
+private:
+    double radius_;
+};
+
+}  // namespace geometry
@@ -0,0 +1,38 @@
+#include <stdio.h>
+#include <string.h>
+#include "buffer.h"
+
+struct buffer *buffer_new(size_t capacity)
+{
+    struct buffer *buf = malloc(sizeof(struct buffer));
+    if (buf == NULL) {
+        return NULL;
+    }
+    buf->data = malloc(capacity);
+    buf->length = 0;
+    buf->capacity = capacity;
+    return buf;
+}
+
+int buffer_append(struct buffer *buf, const char *data, size_t length)
+{
+    if (buf->length + length > buf->capacity) {
+        size_t capacity = buf->capacity * 2;
+        char *data_new = realloc(buf->data, capacity);
+        if (data_new == NULL) {
+            fprintf(stderr, "out of memory\n");
+            return -1;
+        }
+        buf->data = data_new;
+        buf->capacity = capacity;
+    }
+    memcpy(buf->data + buf->length, data, length);
+    buf->length += length;
+    return 0;
+}
+
+void buffer_free(struct buffer *buf)
+{
+    free(buf->data);
+    free(buf);
+}
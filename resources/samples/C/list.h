@@ -0,0 +1,27 @@
+#ifndef LIST_H
+#define LIST_H
+
+#include <stddef.h>
+#include <stdlib.h>
+
+typedef struct node {
+    void *value;
+    struct node *next;
+} node_t;
+
+typedef struct list {
+    node_t *head;
+    size_t size;
+} list_t;
+
+list_t *list_new(void);
+void list_free(list_t *list, void (*free_value)(void *));
+int list_push(list_t *list, void *value);
+void *list_pop(list_t *list);
+
+static inline size_t list_size(const list_t *list)
+{
+    return list == NULL ? 0 : list->size;
+}
+
+#endif /* LIST_H */
@@ -0,0 +1,25 @@
+Require Import Arith.
+Require Import List.
+Import ListNotations.
+
+Fixpoint length {A : Type} (l : list A) : nat :=
+  match l with
+  | [] => 0
+  | _ :: t => S (length t)
+  end.
+
+Definition double (n : nat) : nat := n + n.
+
+Theorem length_app : forall (A : Type) (l1 l2 : list A),
+  length (l1 ++ l2) = length l1 + length l2.
+Proof.
+  intros A l1 l2.
+  induction l1 as [| h t IH].
+  - simpl. reflexivity.
+  - simpl. rewrite IH. reflexivity.
+Qed.
+
+Lemma double_plus : forall n, double n = n + n.
+Proof.
+  intros n. unfold double. auto.
+Qed.
@@ -0,0 +1,32 @@
+module Shop.Orders
+
+open System
+open System.Collections.Generic
+
+type OrderStatus =
+    | Pending
+    | Shipped of DateTime
+    | Cancelled of reason: string
+
+type Order =
+    { Id: int
+      Customer: string
+      Total: decimal
+      Status: OrderStatus }
+
+let describe order =
+    match order.Status with
+    | Pending -> sprintf "%d pending" order.Id
+    | Shipped date -> sprintf "%d shipped on %O" order.Id date
+    | Cancelled reason -> sprintf "%d cancelled: %s" order.Id reason
+
+let totalByCustomer (orders: Order list) =
+    orders
+    |> List.groupBy (fun o -> o.Customer)
+    |> List.map (fun (customer, os) -> customer, os |> List.sumBy (fun o -> o.Total))
+
+[<EntryPoint>]
+let main argv =
+    let orders = [ { Id = 1; Customer = "a"; Total = 10m; Status = Pending } ]
+    orders |> List.iter (describe >> printfn "%s")
+    0
@@ -0,0 +1,28 @@
+\ Simple stack utilities in Forth
+
+: square ( n -- n^2 )  dup * ;
+: cube ( n -- n^3 )  dup square * ;
+
+variable counter
+0 counter !
+
+: increment ( -- )  1 counter +! ;
+
+: sum-to ( n -- sum )
+  0 swap 1+ 1 ?do i + loop ;
+
+: countdown ( n -- )
+  begin dup . 1- dup 0= until drop ;
+
+create buffer 64 allot
+
+: show ( addr u -- )  type cr ;
+
+: main
+  5 square . cr
+  3 cube . cr
+  10 sum-to . cr
+  increment counter @ . cr
+  s" done" show ;
+
+main bye
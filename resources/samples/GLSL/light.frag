@@ -0,0 +1,25 @@
+#version 330 core
+
+in vec3 vNormal;
+in vec3 vPosition;
+in vec2 vTexCoord;
+
+uniform sampler2D uTexture;
+uniform vec3 uLightPosition;
+uniform vec3 uViewPosition;
+
+out vec4 fragColor;
+
+void main()
+{
+    vec3 normal = normalize(vNormal);
+    vec3 lightDir = normalize(uLightPosition - vPosition);
+    float diffuse = max(dot(normal, lightDir), 0.0);
+
+    vec3 viewDir = normalize(uViewPosition - vPosition);
+    vec3 reflectDir = reflect(-lightDir, normal);
+    float specular = pow(max(dot(viewDir, reflectDir), 0.0), 32.0);
+
+    vec4 color = texture(uTexture, vTexCoord);
+    fragColor = vec4(color.rgb * (0.1 + diffuse) + vec3(0.5) * specular, color.a);
+}
@@ -0,0 +1,37 @@
+<?hh // strict
+
+namespace App\Data;
+
+use namespace HH\Lib\{C, Vec, Str};
+
+final class Repository<T as Entity> {
+  private dict<int, T> $entities = dict[];
+
+  public function __construct(private string $name) {}
+
+  public function add(T $entity): void {
+    $this->entities[$entity->getId()] = $entity;
+  }
+
+  public function find(int $id): ?T {
+    return idx($this->entities, $id);
+  }
+
+  public function names(): vec<string> {
+    return Vec\map($this->entities, ($e) ==> $e->getName());
+  }
+
+  public async function countAsync(): Awaitable<int> {
+    return C\count($this->entities);
+  }
+
+  public function describe(): string {
+    return Str\format('%s (%d)', $this->name, C\count($this->entities));
+  }
+}
+
+<<__EntryPoint>>
+async function main(): Awaitable<void> {
+  $repo = new Repository<User>('users');
+  echo await $repo->countAsync();
+}
@@ -0,0 +1,33 @@
+'use strict';
+
+const express = require('express');
+const path = require('path');
+
+const app = express();
+const port = process.env.PORT || 8080;
+
+app.use(express.static(path.join(__dirname, 'public')));
+
+function findUser(users, id) {
+  return users.find((user) => user.id === id);
+}
+
+app.get('/users/:id', async (req, res) => {
+  const users = await loadUsers();
+  const user = findUser(users, parseInt(req.params.id, 10));
+  if (!user) {
+    return res.status(404).json({ error: 'not found' });
+  }
+  res.json(user);
+});
+
+module.exports = { findUser };
+
+app.listen(port, () => {
+  console.log(`Listening on port ${port}`);
+});
+
+document.addEventListener('DOMContentLoaded', function () {
+  var items = document.querySelectorAll('.item');
+  items.forEach(function (item) { item.classList.add('ready'); });
+});
@@ -0,0 +1,25 @@
+Hello: module
+{
+	PATH: con "/dis/hello.dis";
+
+	init: fn(ctxt: ref Draw->Context, argv: list of string);
+	greet: fn(name: string): string;
+};
+
+implement Hello;
+
+include "sys.m";
+	sys: Sys;
+include "draw.m";
+
+init(ctxt: ref Draw->Context, argv: list of string)
+{
+	sys = load Sys Sys->PATH;
+	for(l := tl argv; l != nil; l = tl l)
+		sys->print("%s\n", greet(hd l));
+}
+
+greet(name: string): string
+{
+	return "hello, " + name;
+}
@@ -0,0 +1,37 @@
+local Player = {}
+Player.__index = Player
+
+function Player.new(name, x, y)
+  local self = setmetatable({}, Player)
+  self.name = name
+  self.x = x or 0
+  self.y = y or 0
+  self.items = {}
+  return self
+end
+
+function Player:move(dx, dy)
+  self.x = self.x + dx
+  self.y = self.y + dy
+end
+
+function Player:add(item)
+  table.insert(self.items, item)
+end
+
+local function distance(a, b)
+  return math.sqrt((a.x - b.x) ^ 2 + (a.y - b.y) ^ 2)
+end
+
+local players = { Player.new("a"), Player.new("b", 3, 4) }
+for i, player in ipairs(players) do
+  print(i, player.name, #player.items)
+end
+
+if distance(players[1], players[2]) > 2 then
+  print("far away")
+elseif players[1].x ~= nil then
+  print("close")
+end
+
+return Player
@@ -0,0 +1,24 @@
+ROUTINE ; sample MUMPS routine
+ ;
+START ; entry point
+ NEW I,TOTAL,NAME
+ SET TOTAL=0
+ FOR I=1:1:10 DO
+ . SET TOTAL=TOTAL+I
+ . QUIT:TOTAL>40
+ WRITE "Total: ",TOTAL,!
+ SET ^PATIENT(1,"NAME")="DOE,JOHN"
+ SET NAME=$GET(^PATIENT(1,"NAME"))
+ IF NAME="" WRITE "No patient",! QUIT
+ WRITE $PIECE(NAME,",",2)," ",$PIECE(NAME,",",1),!
+ DO REPORT(.TOTAL)
+ QUIT
+ ;
+REPORT(VALUE) ;
+ NEW X
+ SET X=$ORDER(^PATIENT(""))
+ WHILE X'="" DO
+ . WRITE X,": ",$GET(^PATIENT(X,"NAME")),!
+ . SET X=$ORDER(^PATIENT(X))
+ KILL ^TMP($JOB)
+ QUIT
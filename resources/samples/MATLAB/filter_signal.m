@@ -0,0 +1,28 @@
+function [filtered, energy] = filter_signal(signal, fs, cutoff)
+% FILTER_SIGNAL Apply a low-pass filter to a signal.
+%   [filtered, energy] = filter_signal(signal, fs, cutoff)
+
+if nargin < 3
+    cutoff = 100;
+end
+
+[b, a] = butter(4, cutoff / (fs / 2), 'low');
+filtered = filtfilt(b, a, signal);
+energy = zeros(1, numel(filtered));
+
+for k = 1:numel(filtered)
+    energy(k) = sum(filtered(1:k) .^ 2);
+end
+
+if isempty(filtered)
+    error('filter_signal:empty', 'Signal is empty');
+else
+    fprintf('Energy: %f\n', energy(end));
+end
+
+figure;
+plot((0:numel(filtered)-1) / fs, filtered, 'b-');
+xlabel('Time (s)');
+ylabel('Amplitude');
+title('Filtered signal');
+end
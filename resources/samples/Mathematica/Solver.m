@@ -0,0 +1,23 @@
+BeginPackage["Solver`"]
+
+SolveQuadratic::usage = "SolveQuadratic[a, b, c] returns the roots of a x^2 + b x + c.";
+PlotRoots::usage = "PlotRoots[a, b, c] plots the polynomial and its roots.";
+
+Begin["`Private`"]
+
+SolveQuadratic[a_, b_, c_] := Module[{x},
+  x /. Solve[a x^2 + b x + c == 0, x]
+]
+
+PlotRoots[a_?NumericQ, b_?NumericQ, c_?NumericQ] := Module[{roots = SolveQuadratic[a, b, c]},
+  Show[
+    Plot[a #^2 + b # + c &[t], {t, -10, 10}],
+    ListPlot[Table[{Re[r], 0}, {r, roots}], PlotStyle -> Red]
+  ]
+]
+
+Table[SolveQuadratic[1, n, 1], {n, 1, 5}] // N
+
+End[]
+
+EndPackage[]
@@ -0,0 +1,30 @@
+:- module queue.
+:- interface.
+
+:- import_module list.
+:- import_module int.
+
+:- type queue(T) ---> queue(list(T), list(T)).
+
+:- func init = queue(T).
+:- pred put(T::in, queue(T)::in, queue(T)::out) is det.
+:- pred get(T::out, queue(T)::in, queue(T)::out) is semidet.
+:- func length(queue(T)) = int.
+
+:- implementation.
+
+init = queue([], []).
+
+put(X, queue(Front, Back), queue(Front, [X | Back])).
+
+get(X, queue(Front0, Back0), Queue) :-
+    (
+        Front0 = [X | Front],
+        Queue = queue(Front, Back0)
+    ;
+        Front0 = [],
+        list.reverse(Back0, [X | Front]),
+        Queue = queue(Front, [])
+    ).
+
+length(queue(Front, Back)) = list.length(Front) + list.length(Back).
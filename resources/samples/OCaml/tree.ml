@@ -0,0 +1,29 @@
+type 'a tree =
+  | Leaf
+  | Node of 'a tree * 'a * 'a tree
+
+let rec insert x = function
+  | Leaf -> Node (Leaf, x, Leaf)
+  | Node (l, v, r) as t ->
+    if x < v then Node (insert x l, v, r)
+    else if x > v then Node (l, v, insert x r)
+    else t
+
+let rec to_list = function
+  | Leaf -> []
+  | Node (l, v, r) -> to_list l @ [v] @ to_list r
+
+module StringMap = Map.Make (String)
+
+let count_words words =
+  List.fold_left
+    (fun acc w ->
+       let n = try StringMap.find w acc with Not_found -> 0 in
+       StringMap.add w (n + 1) acc)
+    StringMap.empty words
+
+let () =
+  let t = List.fold_left (fun t x -> insert x t) Leaf [5; 3; 8; 1] in
+  to_list t |> List.iter (Printf.printf "%d\n");
+  let counts = count_words ["a"; "b"; "a"] in
+  StringMap.iter (fun k v -> Printf.printf "%s: %d\n" k v) counts
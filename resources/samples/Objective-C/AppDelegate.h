@@ -0,0 +1,26 @@
+#import <UIKit/UIKit.h>
+#import <Foundation/Foundation.h>
+
+NS_ASSUME_NONNULL_BEGIN
+
+@class ViewController;
+
+@protocol DataSourceDelegate <NSObject>
+@required
+- (void)dataSource:(id)dataSource didLoadItems:(NSArray<NSString *> *)items;
+@optional
+- (BOOL)shouldReload;
+@end
+
+@interface AppDelegate : UIResponder <UIApplicationDelegate>
+
+@property (strong, nonatomic) UIWindow *window;
+@property (nonatomic, weak, nullable) id<DataSourceDelegate> delegate;
+@property (nonatomic, copy) NSString *title;
+
++ (instancetype)sharedDelegate;
+- (void)reloadWithCompletion:(void (^)(BOOL finished))completion;
+
+@end
+
+NS_ASSUME_NONNULL_END
@@ -0,0 +1,27 @@
+#import "ViewController.h"
+
+@interface ViewController ()
+@property (nonatomic, strong) NSMutableArray *items;
+@end
+
+@implementation ViewController
+
+- (void)viewDidLoad {
+    [super viewDidLoad];
+    self.items = [[NSMutableArray alloc] init];
+    [self.items addObject:@"First"];
+    [self.tableView registerClass:[UITableViewCell class] forCellReuseIdentifier:@"Cell"];
+}
+
+- (NSInteger)tableView:(UITableView *)tableView numberOfRowsInSection:(NSInteger)section {
+    return [self.items count];
+}
+
+- (UITableViewCell *)tableView:(UITableView *)tableView cellForRowAtIndexPath:(NSIndexPath *)indexPath {
+    UITableViewCell *cell = [tableView dequeueReusableCellWithIdentifier:@"Cell" forIndexPath:indexPath];
+    cell.textLabel.text = self.items[indexPath.row];
+    NSLog(@"row %ld", (long)indexPath.row);
+    return cell;
+}
+
+@end
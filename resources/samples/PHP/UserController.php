@@ -0,0 +1,33 @@
+<?php
+
+namespace App\Http\Controllers;
+
+use App\Models\User;
+use Illuminate\Http\Request;
+
+class UserController extends Controller
+{
+    private $users;
+
+    public function __construct(User $users)
+    {
+        $this->users = $users;
+    }
+
+    public function index(Request $request)
+    {
+        $query = $request->input('q', '');
+        $users = $this->users->where('name', 'like', "%{$query}%")->get();
+        return view('users.index', ['users' => $users]);
+    }
+
+    public function show($id)
+    {
+        $user = $this->users->find($id);
+        if ($user === null) {
+            abort(404);
+        }
+        echo htmlspecialchars($user->name);
+        return array_map(function ($role) { return $role->name; }, $user->roles->all());
+    }
+}
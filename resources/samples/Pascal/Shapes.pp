@@ -0,0 +1,44 @@
+program Shapes;
+
+{$mode objfpc}{$H+}
+
+uses
+  SysUtils, Classes;
+
+type
+  TShape = class
+  public
+    function Area: Double; virtual; abstract;
+  end;
+
+  TCircle = class(TShape)
+  private
+    FRadius: Double;
+  public
+    constructor Create(ARadius: Double);
+    function Area: Double; override;
+  end;
+
+constructor TCircle.Create(ARadius: Double);
+begin
+  inherited Create;
+  FRadius := ARadius;
+end;
+
+function TCircle.Area: Double;
+begin
+  Result := Pi * FRadius * FRadius;
+end;
+
+var
+  Circle: TCircle;
+  I: Integer;
+begin
+  Circle := TCircle.Create(2.0);
+  try
+    for I := 1 to 3 do
+      WriteLn(Format('Area %d: %.2f', [I, Circle.Area]));
+  finally
+    Circle.Free;
+  end;
+end.
@@ -0,0 +1,37 @@
+package Config::Parser;
+
+use strict;
+use warnings;
+use Carp qw(croak);
+
+our $VERSION = '1.02';
+
+sub new {
+    my ($class, %args) = @_;
+    my $self = {
+        file    => $args{file} || croak("file is required"),
+        entries => {},
+    };
+    return bless $self, $class;
+}
+
+sub parse {
+    my $self = shift;
+    open(my $fh, '<', $self->{file}) or die "Cannot open $self->{file}: $!";
+    while (my $line = <$fh>) {
+        chomp $line;
+        next if $line =~ /^\s*(#|$)/;
+        my ($key, $value) = split /\s*=\s*/, $line, 2;
+        $self->{entries}{$key} = $value;
+    }
+    close $fh;
+    return scalar keys %{ $self->{entries} };
+}
+
+sub get {
+    my ($self, $key) = @_;
+    return exists $self->{entries}{$key} ? $self->{entries}{$key} : undef;
+}
+
+1;
+__END__
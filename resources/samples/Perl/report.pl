@@ -0,0 +1,23 @@
+#!/usr/bin/perl
+use strict;
+use warnings;
+use Getopt::Long;
+
+my $verbose = 0;
+my @files;
+GetOptions('verbose!' => \$verbose, 'file=s' => \@files) or die "usage: $0 --file FILE\n";
+
+my %count;
+foreach my $file (@files) {
+    open my $in, '<', $file or die "$file: $!";
+    while (<$in>) {
+        $count{$_}++ for grep { length } split /\W+/;
+    }
+    close $in;
+}
+
+for my $word (sort { $count{$b} <=> $count{$a} } keys %count) {
+    printf "%-20s %d\n", $word, $count{$word};
+    last if $verbose == 0 && $count{$word} < 2;
+}
+print "done\n" if $verbose;
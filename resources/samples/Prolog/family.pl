@@ -0,0 +1,30 @@
+:- module(family, [ancestor/2, sibling/2]).
+:- use_module(library(lists)).
+
+parent(tom, bob).
+parent(tom, liz).
+parent(bob, ann).
+parent(bob, pat).
+parent(pat, jim).
+
+male(tom).
+male(bob).
+female(liz).
+female(ann).
+
+ancestor(X, Y) :- parent(X, Y).
+ancestor(X, Y) :- parent(X, Z), ancestor(Z, Y).
+
+sibling(X, Y) :-
+    parent(P, X),
+    parent(P, Y),
+    X \= Y.
+
+count_children(Parent, Count) :-
+    findall(Child, parent(Parent, Child), Children),
+    length(Children, Count).
+
+print_descendants(X) :-
+    forall(ancestor(X, Y), (write(Y), nl)).
+
+:- initialization((print_descendants(tom), halt)).
@@ -0,0 +1,32 @@
+# Class: nginx
+class nginx (
+  String $version = 'present',
+  Boolean $manage_service = true,
+  Array[String] $sites = [],
+) {
+  package { 'nginx':
+    ensure => $version,
+  }
+
+  file { '/etc/nginx/nginx.conf':
+    ensure  => file,
+    owner   => 'root',
+    group   => 'root',
+    mode    => '0644',
+    content => template('nginx/nginx.conf.erb'),
+    require => Package['nginx'],
+    notify  => Service['nginx'],
+  }
+
+  $sites.each |String $site| {
+    nginx::site { $site: }
+  }
+
+  if $manage_service {
+    service { 'nginx':
+      ensure    => running,
+      enable    => true,
+      hasstatus => true,
+    }
+  }
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env python3
+import os
+import sys
+from collections import Counter
+
+
+class WordCounter:
+    """Count the words of files."""
+
+    def __init__(self, paths):
+        self.paths = list(paths)
+        self.counts = Counter()
+
+    def run(self):
+        for path in self.paths:
+            with open(path, encoding="utf-8") as f:
+                for line in f:
+                    self.counts.update(word.lower() for word in line.split())
+        return self
+
+    def top(self, n=10):
+        return self.counts.most_common(n)
+
+
+def main(argv=None):
+    argv = argv if argv is not None else sys.argv[1:]
+    if not argv:
+        print("usage: app.py FILE...", file=sys.stderr)
+        return 1
+    for word, count in WordCounter(argv).run().top():
+        print(f"{word}: {count}")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,29 @@
+use v6;
+
+unit class Inventory;
+
+has Str $.name is required;
+has %!items;
+
+method add(Str:D $item, Int:D $count = 1 --> Int) {
+    %!items{$item} += $count;
+}
+
+method report() {
+    for %!items.sort(*.value).reverse -> (:$key, :$value) {
+        say "$key: $value";
+    }
+}
+
+multi sub MAIN(Str $name) {
+    my $inventory = Inventory.new(:$name);
+    $inventory.add('apple', 3);
+    $inventory.add('pear');
+    $inventory.report;
+    my @squares = (1..10).map(* ** 2);
+    say @squares.grep(* %% 2).join(', ');
+    given $name {
+        when /^ \d+ $/ { say "numeric name" }
+        default        { say "name: $name" }
+    }
+}
@@ -0,0 +1,33 @@
+REBOL [
+    Title: "Word counter"
+    Author: "Example"
+    Version: 1.0.0
+    Purpose: {Count the words of a file}
+]
+
+count-words: func [
+    "Count words in a text"
+    text [string!] "Text to scan"
+    /local words counts
+][
+    words: parse text none
+    counts: make map! []
+    foreach word words [
+        either counts/:word [
+            counts/:word: counts/:word + 1
+        ][
+            put counts word 1
+        ]
+    ]
+    counts
+]
+
+file: %input.txt
+if exists? file [
+    result: count-words read file
+    foreach [word count] body-of result [
+        print rejoin [word ": " count]
+    ]
+]
+probe length? result
+halt
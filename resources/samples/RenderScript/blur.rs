@@ -0,0 +1,30 @@
+#pragma version(1)
+#pragma rs java_package_name(com.example.imageprocessing)
+#pragma rs_fp_relaxed
+
+rs_allocation gIn;
+int gWidth;
+int gHeight;
+float gRadius = 3.f;
+
+static float4 sample(int x, int y) {
+    x = clamp(x, 0, gWidth - 1);
+    y = clamp(y, 0, gHeight - 1);
+    return rsUnpackColor8888(rsGetElementAt_uchar4(gIn, x, y));
+}
+
+uchar4 RS_KERNEL blur(uchar4 in, uint32_t x, uint32_t y) {
+    float4 sum = 0;
+    int count = 0;
+    for (int dx = -gRadius; dx <= gRadius; dx++) {
+        sum += sample(x + dx, y);
+        count++;
+    }
+    return rsPackColorTo8888(sum / count);
+}
+
+void root(const uchar4 *v_in, uchar4 *v_out, uint32_t x, uint32_t y) {
+    float4 f4 = rsUnpackColor8888(*v_in);
+    float3 mono = dot(f4.rgb, (float3){0.299f, 0.587f, 0.114f});
+    *v_out = rsPackColorTo8888(mono);
+}
@@ -0,0 +1,37 @@
+#!/usr/bin/env ruby
+require 'json'
+require 'sinatra'
+
+module Shop
+  class Inventory
+    attr_reader :items
+
+    def initialize
+      @items = Hash.new(0)
+    end
+
+    def add(name, count = 1)
+      @items[name] += count
+      self
+    end
+
+    def to_json(*args)
+      @items.to_json(*args)
+    end
+  end
+end
+
+inventory = Shop::Inventory.new
+
+get '/items' do
+  content_type :json
+  inventory.to_json
+end
+
+post '/items/:name' do |name|
+  inventory.add(name, (params[:count] || 1).to_i)
+  status 201
+end
+
+%w[apple pear].each { |fruit| inventory.add(fruit) }
+puts "Loaded #{inventory.items.size} items" unless inventory.items.empty?
@@ -0,0 +1,52 @@
+use std::collections::HashMap;
+use std::fmt;
+
+#[derive(Debug, Clone, PartialEq)]
+pub struct Item {
+    pub name: String,
+    pub count: u32,
+}
+
+pub trait Store {
+    fn add(&mut self, item: Item) -> Result<(), String>;
+    fn get(&self, name: &str) -> Option<&Item>;
+}
+
+#[derive(Default)]
+pub struct MemoryStore {
+    items: HashMap<String, Item>,
+}
+
+impl Store for MemoryStore {
+    fn add(&mut self, item: Item) -> Result<(), String> {
+        match self.items.get_mut(&item.name) {
+            Some(existing) => existing.count += item.count,
+            None => {
+                self.items.insert(item.name.clone(), item);
+            }
+        }
+        Ok(())
+    }
+
+    fn get(&self, name: &str) -> Option<&Item> {
+        self.items.get(name)
+    }
+}
+
+impl fmt::Display for Item {
+    fn fmt(&self, f: &mut fmt::Formatter<'_>) -> fmt::Result {
+        write!(f, "{} x{}", self.name, self.count)
+    }
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+
+    #[test]
+    fn add_twice() {
+        let mut store = MemoryStore::default();
+        store.add(Item { name: "a".to_string(), count: 1 }).unwrap();
+        assert_eq!(store.get("a").map(|i| i.count), Some(1));
+    }
+}
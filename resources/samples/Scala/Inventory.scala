@@ -0,0 +1,34 @@
+package shop
+
+import scala.collection.mutable
+import scala.concurrent.{ExecutionContext, Future}
+
+case class Item(name: String, count: Int)
+
+sealed trait Event
+case class Added(item: Item) extends Event
+case object Cleared extends Event
+
+class Inventory(implicit ec: ExecutionContext) {
+  private val items = mutable.Map.empty[String, Item]
+
+  def add(item: Item): Future[Unit] = Future {
+    items.update(item.name, items.get(item.name) match {
+      case Some(existing) => existing.copy(count = existing.count + item.count)
+      case None => item
+    })
+  }
+
+  def names: Seq[String] = items.keys.toSeq.sorted
+
+  def handle(event: Event): Unit = event match {
+    case Added(item) => add(item)
+    case Cleared => items.clear()
+  }
+}
+
+object Main extends App {
+  implicit val ec: ExecutionContext = ExecutionContext.global
+  val inventory = new Inventory
+  inventory.add(Item("apple", 2)).foreach(_ => println(inventory.names.mkString(", ")))
+}
@@ -0,0 +1,31 @@
+#!/bin/bash
+set -euo pipefail
+
+APP_DIR="${APP_DIR:-/opt/app}"
+LOG_FILE="/var/log/deploy.log"
+
+log() {
+    echo "$(date '+%Y-%m-%d %H:%M:%S') $*" | tee -a "$LOG_FILE"
+}
+
+if [ $# -lt 1 ]; then
+    echo "usage: $0 VERSION" >&2
+    exit 1
+fi
+
+VERSION="$1"
+log "deploying version $VERSION"
+
+for host in $(cat hosts.txt); do
+    if ssh "$host" "test -d $APP_DIR"; then
+        scp "build/app-$VERSION.tar.gz" "$host:$APP_DIR/" || { log "copy failed on $host"; continue; }
+        ssh "$host" "cd $APP_DIR && tar xzf app-$VERSION.tar.gz && systemctl restart app"
+    else
+        log "skipping $host"
+    fi
+done
+
+case "$VERSION" in
+    *-SNAPSHOT) log "snapshot deployed" ;;
+    *) log "release deployed" ;;
+esac
@@ -0,0 +1,29 @@
+"Account class, bank sample"
+Object subclass: #Account
+	instanceVariableNames: 'balance owner'
+	classVariableNames: ''
+	package: 'Bank'!
+
+!Account methodsFor: 'initialization'!
+initialize
+	super initialize.
+	balance := 0! !
+
+!Account methodsFor: 'accessing'!
+balance
+	^ balance!
+
+deposit: anAmount
+	anAmount <= 0 ifTrue: [ ^ self error: 'Invalid amount' ].
+	balance := balance + anAmount!
+
+withdraw: anAmount
+	anAmount > balance
+		ifTrue: [ Transcript show: 'Insufficient funds'; cr ]
+		ifFalse: [ balance := balance - anAmount ]! !
+
+| account |
+account := Account new.
+account deposit: 100.
+#(10 20 30) do: [ :each | account withdraw: each ].
+Transcript show: account balance printString; cr!
@@ -0,0 +1,33 @@
+structure Queue :> QUEUE =
+struct
+  type 'a queue = 'a list * 'a list
+
+  exception Empty
+
+  val empty : 'a queue = ([], [])
+
+  fun isEmpty ([], []) = true
+    | isEmpty _ = false
+
+  fun insert (x, (front, back)) = (front, x :: back)
+
+  fun remove ([], []) = raise Empty
+    | remove ([], back) = remove (rev back, [])
+    | remove (x :: front, back) = (x, (front, back))
+end
+
+signature STACK =
+sig
+  type 'a stack
+  val push : 'a * 'a stack -> 'a stack
+end
+
+fun sum nil = 0
+  | sum (x :: xs) = x + sum xs
+
+val result = let
+  val q = Queue.insert (1, Queue.empty)
+  val (x, _) = Queue.remove q
+in
+  print (Int.toString x ^ "\n")
+end
@@ -0,0 +1,22 @@
+(
+SynthDef(\pad, { |out = 0, freq = 440, amp = 0.2, gate = 1|
+    var sig, env;
+    env = EnvGen.kr(Env.adsr(0.5, 0.3, 0.7, 2), gate, doneAction: 2);
+    sig = Mix.fill(4, { |i| Saw.ar(freq * (1 + (i * 0.003)), 0.25) });
+    sig = RLPF.ar(sig, LFNoise1.kr(0.3).range(400, 2000), 0.3);
+    Out.ar(out, Pan2.ar(sig * env * amp, 0));
+}).add;
+)
+
+(
+Pbind(
+    \instrument, \pad,
+    \degree, Pseq([0, 2, 4, 7], inf),
+    \dur, 0.5,
+    \amp, 0.1
+).play;
+)
+
+~buffer = Buffer.read(s, "sounds/a11wlk01.wav".resolveRelative);
+s.boot;
+{ SinOsc.ar(MouseX.kr(200, 800), 0, 0.1) }.play;
@@ -0,0 +1,36 @@
+module main
+
+import os
+import strings
+
+struct User {
+	name string
+mut:
+	age int
+}
+
+fn (u User) greet() string {
+	return 'Hello, ${u.name}!'
+}
+
+fn load_users(path string) ![]User {
+	lines := os.read_lines(path)!
+	mut users := []User{}
+	for line in lines {
+		parts := line.split(',')
+		users << User{
+			name: parts[0]
+			age: parts[1].int()
+		}
+	}
+	return users
+}
+
+fn main() {
+	users := load_users('users.csv') or { panic(err) }
+	mut sb := strings.new_builder(100)
+	for u in users {
+		sb.writeln(u.greet())
+	}
+	println(sb.str())
+}